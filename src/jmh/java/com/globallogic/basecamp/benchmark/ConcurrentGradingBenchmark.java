@@ -0,0 +1,150 @@
+package com.globallogic.basecamp.benchmark;
+
+import com.globallogic.basecamp.ConcurrentTraining;
+import com.globallogic.basecamp.GlobalLogicTraining;
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.model.Grade;
+import com.globallogic.basecamp.model.Student;
+import com.globallogic.basecamp.shard.ShardedTraining;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-threaded throughput of {@link ConcurrentTraining} against {@link GlobalLogicTraining} guarded by a single
+ * global lock, which is the only safe way to share the latter between grading workers, and against a
+ * {@link ShardedTraining} of locked {@link GlobalLogicTraining} shards, one per processor.
+ * <p>
+ * Every operation is a mix of 10% enrolments, 60% grade changes and 30% grade reads over a shared roster.
+ * Change the number of workers with {@code -t}, e.g. {@code -PjmhArgs='ConcurrentGradingBenchmark -t 8'}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class ConcurrentGradingBenchmark {
+
+    @Param({"LOCKED", "CONCURRENT", "SHARDED"})
+    public Implementation implementation;
+
+    @Param({"100000"})
+    public int rosterSize;
+
+    private Training training;
+
+    private Student[] students;
+
+    public enum Implementation {
+        LOCKED,
+        CONCURRENT,
+        SHARDED
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final var generator = TrainingData.students(rosterSize + 1);
+        switch (implementation) {
+            case CONCURRENT:
+                training = new ConcurrentTraining("Benchmark", rosterSize);
+                break;
+            case SHARDED:
+                training = ShardedTraining.builder("Benchmark").build();
+                break;
+            default:
+                training = new LockedTraining(new GlobalLogicTraining("Benchmark"));
+        }
+        students = new Student[rosterSize];
+        for (var i = 0; i < rosterSize; i++) {
+            students[i] = generator.student(i);
+            if (i % 2 == 0) {
+                training.addStudent(students[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object grade() {
+        final var random = ThreadLocalRandom.current();
+        final var student = students[random.nextInt(students.length)];
+        final var dice = random.nextInt(10);
+        if (dice == 0) {
+            return training.addStudent(student);
+        } else if (dice < 4) {
+            return training.rateFirstSemester(student, random.nextInt(11));
+        } else if (dice < 7) {
+            return training.rateSecondSemester(student, random.nextInt(11));
+        }
+        return training.getStudentGrade(student);
+    }
+
+    /**
+     * Serialises every call to the wrapped training with one lock
+     */
+    private static class LockedTraining implements Training {
+
+        private final Training delegate;
+
+        LockedTraining(Training delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public synchronized String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public synchronized List<Student> getStudents() {
+            return delegate.getStudents();
+        }
+
+        @Override
+        public synchronized boolean addStudent(Student student) {
+            return delegate.addStudent(student);
+        }
+
+        @Override
+        public synchronized boolean removeStudent(Student student) {
+            return delegate.removeStudent(student);
+        }
+
+        @Override
+        public synchronized boolean rateFirstSemester(Student student, int mark) {
+            return delegate.rateFirstSemester(student, mark);
+        }
+
+        @Override
+        public synchronized boolean rateSecondSemester(Student student, int mark) {
+            return delegate.rateSecondSemester(student, mark);
+        }
+
+        @Override
+        public synchronized boolean isPresent(Student student) {
+            return delegate.isPresent(student);
+        }
+
+        @Override
+        public synchronized Optional<Grade> getStudentGrade(Student student) {
+            return delegate.getStudentGrade(student);
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.globallogic.basecamp.benchmark;
+
+import com.globallogic.basecamp.analytics.GradeMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports computed over the columnar {@link GradeMatrix}, comparable with {@link TrainingUtilsBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradeMatrixBenchmark {
+
+    private GradeMatrix matrix;
+
+    @Setup(Level.Trial)
+    public void setUp(TrainingData data) {
+        matrix = GradeMatrix.of(data.trainings);
+    }
+
+    @Benchmark
+    public GradeMatrix build(TrainingData data) {
+        return GradeMatrix.of(data.trainings);
+    }
+
+    @Benchmark
+    public Map<String, Double> averageMarkPerStudent() {
+        return matrix.averageMarkPerStudent();
+    }
+
+    @Benchmark
+    public Map<String, Double> averageMarkPerTraining() {
+        return matrix.averageMarkPerTraining();
+    }
+
+    @Benchmark
+    public Map<String, List<String>> trainingsPerStudent() {
+        return matrix.trainingsPerStudent();
+    }
+
+    @Benchmark
+    public List<String> studentsWithMaxMark() {
+        return matrix.studentsWithMaxMark();
+    }
+
+    @Benchmark
+    public List<String> studentsWithMarkLowerThan() {
+        return matrix.studentsWithMarkLowerThan(3);
+    }
+
+}
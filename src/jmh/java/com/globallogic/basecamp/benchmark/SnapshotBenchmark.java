@@ -0,0 +1,67 @@
+package com.globallogic.basecamp.benchmark;
+
+import com.globallogic.basecamp.GlobalLogicTraining;
+import com.globallogic.basecamp.TrainingUtils;
+import com.globallogic.basecamp.snapshot.SnapshotWriter;
+import com.globallogic.basecamp.snapshot.TrainingSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Restart cost: mapping a snapshot and answering a report from it, compared with rebuilding the trainings
+ * from the snapshot and with replaying enrolments and grades
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark {
+
+    private Path path;
+
+    @Setup(Level.Trial)
+    public void setUp(TrainingData data) throws IOException {
+        path = Files.createTempFile("trainings", ".snapshot");
+        SnapshotWriter.write(path, data.trainings);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public Map<String, Double> openAndQuery() throws IOException {
+        return TrainingUtils.getAverageMarkPerTraining(TrainingSnapshot.open(path).getTrainings().stream());
+    }
+
+    @Benchmark
+    public List<GlobalLogicTraining> materialize() throws IOException {
+        return TrainingSnapshot.open(path).materialize();
+    }
+
+    @Benchmark
+    public void write(TrainingData data) throws IOException {
+        SnapshotWriter.write(path, data.trainings);
+    }
+
+}
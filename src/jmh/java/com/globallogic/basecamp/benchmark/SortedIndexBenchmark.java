@@ -0,0 +1,61 @@
+package com.globallogic.basecamp.benchmark;
+
+import com.globallogic.basecamp.TrainingUtils;
+import com.globallogic.basecamp.index.TrainingCatalog;
+import com.globallogic.basecamp.model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorted student listings answered by the {@link TrainingCatalog} index, compared with sorting all students
+ * of the trainings on every call
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortedIndexBenchmark {
+
+    private TrainingCatalog catalog;
+
+    @Setup(Level.Trial)
+    public void setUp(TrainingData data) {
+        catalog = new TrainingCatalog();
+        data.trainings.forEach(catalog::register);
+    }
+
+    @Benchmark
+    public List<String> sortOnEveryCall(TrainingData data) {
+        return TrainingUtils.getStudentsSorted(data.trainings.stream());
+    }
+
+    @Benchmark
+    public List<String> indexedNames() {
+        return catalog.getStudentNamesSorted();
+    }
+
+    @Benchmark
+    public List<Student> indexedTop10() {
+        return catalog.getStudentsSorted(10);
+    }
+
+    @Benchmark
+    public List<Student> indexedRange() {
+        return catalog.getStudentsSortedFrom("M", null, 50);
+    }
+
+}
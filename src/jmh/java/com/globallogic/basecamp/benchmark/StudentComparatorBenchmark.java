@@ -0,0 +1,70 @@
+package com.globallogic.basecamp.benchmark;
+
+import com.globallogic.basecamp.comparator.StudentComparator;
+import com.globallogic.basecamp.comparator.StudentSorter;
+import com.globallogic.basecamp.model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorting an unordered roster with the {@link StudentComparator}, and into the same order with the
+ * {@link StudentSorter}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StudentComparatorBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rosterSize;
+
+    private Student[] students;
+
+    private Student[] work;
+
+    private final StudentComparator comparator = new StudentComparator();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final var generator = TrainingData.students(rosterSize + 1);
+        students = new Student[rosterSize];
+        for (var i = 0; i < rosterSize; i++) {
+            students[i] = generator.student(i);
+        }
+        work = new Student[rosterSize];
+    }
+
+    @Setup(Level.Invocation)
+    public void reset() {
+        System.arraycopy(students, 0, work, 0, rosterSize);
+    }
+
+    @Benchmark
+    public Student[] sort() {
+        Arrays.sort(work, comparator);
+        return work;
+    }
+
+    @Benchmark
+    public Student[] radixSort() {
+        StudentSorter.sort(work);
+        return work;
+    }
+
+}
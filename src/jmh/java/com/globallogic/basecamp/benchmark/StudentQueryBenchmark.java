@@ -0,0 +1,66 @@
+package com.globallogic.basecamp.benchmark;
+
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.TrainingUtils;
+import com.globallogic.basecamp.index.StudentQuery;
+import com.globallogic.basecamp.index.TrainingCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * {@link TrainingUtils#getStudentEmailsByCondition} with the same condition as a lambda, which tests every
+ * student, and as a {@link StudentQuery}, which is looked up in the {@link TrainingCatalog} indexes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StudentQueryBenchmark {
+
+    private List<Training> trainings;
+
+    private String country;
+
+    private String city;
+
+    @Setup(Level.Trial)
+    public void setUp(TrainingData data) {
+        final var catalog = new TrainingCatalog();
+        trainings = data.trainings.stream().map(catalog::register).collect(Collectors.toList());
+        final var address = trainings.get(0).getStudents().get(0).getAddress();
+        country = address.getCountry();
+        city = address.getCity();
+    }
+
+    @Benchmark
+    public List<String> lambdaScan() {
+        return TrainingUtils.getStudentEmailsByCondition(trainings.stream(), student ->
+                country.equals(student.getAddress().getCountry()) && city.equals(student.getAddress().getCity()));
+    }
+
+    @Benchmark
+    public List<String> indexedQuery() {
+        return TrainingUtils.getStudentEmailsByCondition(trainings.stream(), StudentQuery.livesIn(country, city));
+    }
+
+    @Benchmark
+    public List<String> indexedPrefix() {
+        return TrainingUtils.getStudentEmailsByCondition(trainings.stream(), StudentQuery.lastNameStartsWith("M"));
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.globallogic.basecamp.benchmark;
+
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.data.DatasetGenerator;
+import com.globallogic.basecamp.data.MarkDistribution;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared benchmark fixture: {@code trainingCount} trainings with {@code rosterSize} students each, picked from
+ * a population of {@code 2 * rosterSize} students with {@code overlap} and graded using {@code distribution}.
+ */
+@State(Scope.Benchmark)
+public class TrainingData {
+
+    public enum GradeDistribution {
+        /**
+         * Every mark from 0 to 10 is equally likely
+         */
+        UNIFORM(MarkDistribution.uniform()),
+        /**
+         * Most marks are high, a few students have a 10
+         */
+        HIGH(MarkDistribution.normal(9, 1.5)),
+        /**
+         * Marks pile up around 5
+         */
+        CENTERED(MarkDistribution.normal(5, 1.5));
+
+        private final MarkDistribution marks;
+
+        GradeDistribution(MarkDistribution marks) {
+            this.marks = marks;
+        }
+    }
+
+    @Param({"100", "10000"})
+    public int rosterSize;
+
+    @Param({"10", "100"})
+    public int trainingCount;
+
+    @Param({"UNIFORM", "HIGH"})
+    public GradeDistribution distribution;
+
+    @Param({"0.5"})
+    public double overlap;
+
+    public List<Training> trainings;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        trainings = new ArrayList<>(generator(rosterSize * 2, trainingCount, rosterSize, overlap,
+                distribution.marks).buildTrainings());
+    }
+
+    static DatasetGenerator generator(int studentCount, int trainingCount, int rosterSize, double overlap,
+                                      MarkDistribution marks) {
+        return DatasetGenerator.builder()
+                .setSeed(42)
+                .setStudentCount(studentCount)
+                .setTrainingCount(trainingCount)
+                .setStudentsPerTraining(rosterSize)
+                .setOverlap(overlap)
+                .setMarkDistribution(marks)
+                .build();
+    }
+
+    static DatasetGenerator students(int studentCount) {
+        return generator(studentCount, 0, 0, 0, MarkDistribution.uniform());
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.globallogic.basecamp.benchmark;
+
+import com.globallogic.basecamp.ConcurrentTraining;
+import com.globallogic.basecamp.GlobalLogicTraining;
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.batch.BatchResult;
+import com.globallogic.basecamp.batch.BulkTraining;
+import com.globallogic.basecamp.batch.GradeBatch;
+import com.globallogic.basecamp.model.Grade;
+import com.globallogic.basecamp.model.Semester;
+import com.globallogic.basecamp.model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded cost of the {@link Training} operations for each implementation
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrainingMutationBenchmark {
+
+    @Param({"GLOBAL_LOGIC", "CONCURRENT"})
+    public Implementation implementation;
+
+    @Param({"100", "100000"})
+    public int rosterSize;
+
+    private Training training;
+
+    private Student[] students;
+
+    private Student absent;
+
+    private GradeBatch batch;
+
+    private int cursor;
+
+    public enum Implementation {
+        GLOBAL_LOGIC,
+        CONCURRENT;
+
+        Training create(int rosterSize) {
+            return this == CONCURRENT
+                    ? new ConcurrentTraining("Benchmark", rosterSize)
+                    : new GlobalLogicTraining("Benchmark");
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final var generator = TrainingData.students(rosterSize + 1);
+        training = implementation.create(rosterSize);
+        students = new Student[rosterSize];
+        for (var i = 0; i < rosterSize; i++) {
+            students[i] = generator.student(i);
+            training.addStudent(students[i]);
+        }
+        absent = generator.student(rosterSize);
+        final var builder = GradeBatch.builder();
+        for (var i = 0; i < rosterSize; i++) {
+            builder.rate(students[i], i % 2 == 0 ? Semester.FIRST : Semester.SECOND, i % 11);
+        }
+        batch = builder.build();
+    }
+
+    private Student next() {
+        cursor = cursor + 1 == students.length ? 0 : cursor + 1;
+        return students[cursor];
+    }
+
+    /**
+     * Enrols and removes the same student, so the roster size stays constant
+     */
+    @Benchmark
+    public boolean addAndRemoveStudent() {
+        training.addStudent(absent);
+        return training.removeStudent(absent);
+    }
+
+    @Benchmark
+    public boolean rateFirstSemester() {
+        return training.rateFirstSemester(next(), cursor % 11);
+    }
+
+    @Benchmark
+    public boolean rateSecondSemester() {
+        return training.rateSecondSemester(next(), cursor % 11);
+    }
+
+    @Benchmark
+    public boolean rateBothSemesters() {
+        return BulkTraining.rate(training, next(), cursor % 11, 10 - cursor % 11);
+    }
+
+    /**
+     * Applies one grade update to every student of the roster, compare with {@link #rateFirstSemester()} times
+     * the roster size
+     */
+    @Benchmark
+    public BatchResult rateBatch() {
+        return BulkTraining.rate(training, batch);
+    }
+
+    /**
+     * Walks the roster in place with a predicate matching nobody, so the roster stays the same; compare with
+     * {@link #copyAndTestRoster()}
+     */
+    @Benchmark
+    public int removeStudentsIf() {
+        return BulkTraining.removeStudentsIf(training, student -> student == absent);
+    }
+
+    /**
+     * The scan {@link #removeStudentsIf()} replaces: copy the roster and test every student
+     */
+    @Benchmark
+    public long copyAndTestRoster() {
+        return training.getStudents().stream().filter(student -> student == absent).count();
+    }
+
+    @Benchmark
+    public Optional<Grade> getStudentGrade() {
+        return training.getStudentGrade(next());
+    }
+
+    @Benchmark
+    public boolean isPresent() {
+        return training.isPresent(next());
+    }
+
+    @Benchmark
+    public List<Student> getStudents() {
+        return training.getStudents();
+    }
+
+}
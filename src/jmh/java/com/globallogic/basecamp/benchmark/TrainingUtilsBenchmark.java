@@ -0,0 +1,114 @@
+package com.globallogic.basecamp.benchmark;
+
+import com.globallogic.basecamp.TrainingUtils;
+import com.globallogic.basecamp.aggregation.AggregationResult;
+import com.globallogic.basecamp.aggregation.TrainingAggregator;
+import com.globallogic.basecamp.io.ReportWriter;
+import com.globallogic.basecamp.model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of every public {@link TrainingUtils} method over the {@link TrainingData} fixture
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrainingUtilsBenchmark {
+
+    private static final Student ABSENT = Student.builder("absent@email.com").build();
+
+    @Benchmark
+    public List<String> getStudentEmailsByCondition(TrainingData data) {
+        return TrainingUtils.getStudentEmailsByCondition(data.trainings.stream(),
+                student -> student.getAddress().getCountry().equals("Country1"));
+    }
+
+    @Benchmark
+    public Map<String, List<String>> getTrainingsPerStudent(TrainingData data) {
+        return TrainingUtils.getTrainingsPerStudent(data.trainings.stream());
+    }
+
+    @Benchmark
+    public Map<String, Double> getAverageMarkPerStudent(TrainingData data) {
+        return TrainingUtils.getAverageMarkPerStudent(data.trainings.stream());
+    }
+
+    @Benchmark
+    public void forEachGrade(TrainingData data, Blackhole blackhole) {
+        TrainingUtils.forEachGrade(data.trainings.stream(), blackhole::consume);
+    }
+
+    @Benchmark
+    public List<String> getStudentsWithMaxMark(TrainingData data) {
+        return TrainingUtils.getStudentsWithMaxMark(data.trainings.stream());
+    }
+
+    /**
+     * The predicate never matches, so the fixture is not modified and the benchmark measures the scan
+     */
+    @Benchmark
+    public void removeStudentsIf(TrainingData data) {
+        TrainingUtils.removeStudentsIf(data.trainings.stream(), student -> student == ABSENT);
+    }
+
+    @Benchmark
+    public List<String> getStudentsSorted(TrainingData data) {
+        return TrainingUtils.getStudentsSorted(data.trainings.stream());
+    }
+
+    @Benchmark
+    public List<String> getStudentsWithMarkLowerThan(TrainingData data) {
+        return TrainingUtils.getStudentsWithMarkLowerThan(data.trainings.stream(), 3);
+    }
+
+    /**
+     * Worst case: the student attends none of the trainings, so every training is probed
+     */
+    @Benchmark
+    public boolean isStudentPresentOnTrainings(TrainingData data) {
+        return TrainingUtils.isStudentPresentOnTrainings(data.trainings.stream(), ABSENT);
+    }
+
+    @Benchmark
+    public Map<String, Double> getAverageMarkPerTraining(TrainingData data) {
+        return TrainingUtils.getAverageMarkPerTraining(data.trainings.stream());
+    }
+
+    @Benchmark
+    public AggregationResult aggregateAll(TrainingData data) {
+        return TrainingAggregator.builder().withAll(3).build().aggregate(data.trainings.stream());
+    }
+
+    @Benchmark
+    public AggregationResult aggregateAllParallel(TrainingData data) {
+        return TrainingAggregator.builder().withAll(3).build().aggregateParallel(data.trainings);
+    }
+
+    /**
+     * Streaming counterpart of {@link #aggregateAll(TrainingData)}: the reports are encoded as JSON lines into a
+     * channel that discards them, so no result maps are built
+     */
+    @Benchmark
+    public void exportAll(TrainingData data) throws IOException {
+        try (var writer = ReportWriter.jsonLines(Channels.newChannel(OutputStream.nullOutputStream()))) {
+            TrainingAggregator.builder().withAll(3).build().export(data.trainings.stream(), writer);
+        }
+    }
+
+}
@@ -0,0 +1,401 @@
+package com.globallogic.basecamp;
+
+import com.globallogic.basecamp.model.Grade;
+import com.globallogic.basecamp.model.Student;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * AsyncTrainingUtils is the asynchronous variant of {@link TrainingUtils} for trainings backed by slow stores.
+ * <p>
+ * Instead of reading the trainings one after another on the caller's thread, every report reads all trainings
+ * at once on an executor: one call per training for its roster, then one call per student for its grade.
+ * Trainings implementing {@link GradeIterable} are read in a single call. The report is then computed by
+ * {@link TrainingUtils} on the in-memory copies, so the results are the same and the latency follows the
+ * slowest training instead of the sum of all of them.
+ * <p>
+ * At most {@link Builder#setMaxConcurrency(int) maxConcurrency} calls run at the same time, the others wait in
+ * a queue without holding a thread. Every call failing to finish within the
+ * {@link Builder#setTimeout(Duration) timeout} after it started completes the report exceptionally with a
+ * {@link TimeoutException}. A call that timed out keeps its executor thread until the training returns.
+ * Without an {@link Builder#setExecutor(Executor) executor} the utils run the calls on their own daemon threads,
+ * released by {@link #close()}.
+ *
+ * <pre>{@code
+ * try (var async = AsyncTrainingUtils.builder().setMaxConcurrency(32).setTimeout(Duration.ofSeconds(5)).build()) {
+ *     async.getAverageMarkPerStudent(trainings.stream()).thenAccept(System.out::println).join();
+ * }
+ * }</pre>
+ */
+public class AsyncTrainingUtils implements AutoCloseable {
+
+    private final Executor executor;
+
+    private final ExecutorService ownExecutor;
+
+    private final Semaphore permits;
+
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+
+    private final long timeoutMillis;
+
+    private AsyncTrainingUtils(Builder builder) {
+        this.ownExecutor = builder.executor == null ? createExecutor(builder.maxConcurrency) : null;
+        this.executor = builder.executor == null ? ownExecutor : builder.executor;
+        this.permits = new Semaphore(builder.maxConcurrency);
+        this.timeoutMillis = builder.timeout.toMillis();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static ExecutorService createExecutor(int threads) {
+        final var counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, task -> {
+            final var thread = new Thread(task, "async-training-utils-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Reads the trainings into read-only in-memory copies, which any {@link TrainingUtils} method accepts
+     *
+     * @param trainings stream of trainings
+     * @return copies of the trainings with their grades, in the order of the stream
+     */
+    public CompletableFuture<List<Training>> fetch(Stream<Training> trainings) {
+        return fetch(trainings, true);
+    }
+
+    /**
+     * @see TrainingUtils#getStudentEmailsByCondition(Stream, Predicate)
+     */
+    public CompletableFuture<List<String>> getStudentEmailsByCondition(Stream<Training> trainings,
+                                                                      Predicate<Student> predicate) {
+        return fetch(trainings, false)
+                .thenApply(fetched -> TrainingUtils.getStudentEmailsByCondition(fetched.stream(), predicate));
+    }
+
+    /**
+     * @see TrainingUtils#getTrainingsPerStudent(Stream)
+     */
+    public CompletableFuture<Map<String, List<String>>> getTrainingsPerStudent(Stream<Training> trainings) {
+        return fetch(trainings, false).thenApply(fetched -> TrainingUtils.getTrainingsPerStudent(fetched.stream()));
+    }
+
+    /**
+     * @see TrainingUtils#getAverageMarkPerStudent(Stream)
+     */
+    public CompletableFuture<Map<String, Double>> getAverageMarkPerStudent(Stream<Training> trainings) {
+        return fetch(trainings, true).thenApply(fetched -> TrainingUtils.getAverageMarkPerStudent(fetched.stream()));
+    }
+
+    /**
+     * @see TrainingUtils#getStudentsWithMaxMark(Stream)
+     */
+    public CompletableFuture<List<String>> getStudentsWithMaxMark(Stream<Training> trainings) {
+        return fetch(trainings, true).thenApply(fetched -> TrainingUtils.getStudentsWithMaxMark(fetched.stream()));
+    }
+
+    /**
+     * @see TrainingUtils#getStudentsSorted(Stream)
+     */
+    public CompletableFuture<List<String>> getStudentsSorted(Stream<Training> trainings) {
+        return fetch(trainings, false).thenApply(fetched -> TrainingUtils.getStudentsSorted(fetched.stream()));
+    }
+
+    /**
+     * @see TrainingUtils#getStudentsWithMarkLowerThan(Stream, int)
+     */
+    public CompletableFuture<List<String>> getStudentsWithMarkLowerThan(Stream<Training> trainings, int mark) {
+        return fetch(trainings, true)
+                .thenApply(fetched -> TrainingUtils.getStudentsWithMarkLowerThan(fetched.stream(), mark));
+    }
+
+    /**
+     * @see TrainingUtils#getAverageMarkPerTraining(Stream)
+     */
+    public CompletableFuture<Map<String, Double>> getAverageMarkPerTraining(Stream<Training> trainings) {
+        return fetch(trainings, true)
+                .thenApply(fetched -> TrainingUtils.getAverageMarkPerTraining(fetched.stream()));
+    }
+
+    /**
+     * Asks all trainings at once and completes as soon as one of them has the student
+     *
+     * @see TrainingUtils#isStudentPresentOnTrainings(Stream, Student)
+     */
+    public CompletableFuture<Boolean> isStudentPresentOnTrainings(Stream<Training> trainings, Student student) {
+        final var result = new CompletableFuture<Boolean>();
+        final var checks = trainings
+                .map(training -> call(() -> training.isPresent(student)).thenAccept(present -> {
+                    if (present) {
+                        result.complete(true);
+                    }
+                }))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(checks).whenComplete((ignored, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(false);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Shuts the own threads down, an executor provided to the builder is left running
+     */
+    @Override
+    public void close() {
+        if (ownExecutor != null) {
+            ownExecutor.shutdown();
+        }
+    }
+
+    private CompletableFuture<List<Training>> fetch(Stream<Training> trainings, boolean withGrades) {
+        final var copies = trainings
+                .map(training -> fetch(training, withGrades))
+                .collect(Collectors.toList());
+        return CompletableFuture.allOf(copies.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> copies.stream()
+                        .map(CompletableFuture::join)
+                        .collect(Collectors.toList()));
+    }
+
+    private CompletableFuture<Training> fetch(Training training, boolean withGrades) {
+        if (withGrades && training instanceof GradeIterable) {
+            return call(() -> {
+                final var copy = new FetchedTraining(training.getName());
+                ((GradeIterable) training).forEachGrade(copy::put);
+                return copy;
+            });
+        }
+        return call(() -> {
+            final var copy = new FetchedTraining(training.getName());
+            training.getStudents().forEach(student -> copy.put(student, null));
+            return copy;
+        }).thenCompose(copy -> withGrades ? fetchGrades(training, copy) : CompletableFuture.completedFuture(copy));
+    }
+
+    /**
+     * Looks up the grade of every student of the copy with a call of its own
+     */
+    private CompletableFuture<Training> fetchGrades(Training training, FetchedTraining copy) {
+        final var students = new ArrayList<>(copy.grades.keySet());
+        final var lookups = students.stream()
+                .map(student -> call(() -> training.getStudentGrade(student).orElse(null)))
+                .collect(Collectors.toList());
+        return CompletableFuture.allOf(lookups.toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+            for (var i = 0; i < students.size(); i++) {
+                copy.put(students.get(i), lookups.get(i).join());
+            }
+            return copy;
+        });
+    }
+
+    /**
+     * Queues the call, it is handed to the executor once a permit is free
+     */
+    private <T> CompletableFuture<T> call(Supplier<T> source) {
+        final var result = new CompletableFuture<T>();
+        waiting.add(() -> start(result, source));
+        startWaiting();
+        return result;
+    }
+
+    /**
+     * Starts queued calls while permits are free. Every call releasing its permit starts the next ones, so a
+     * call queued while all permits were taken is started by the release following it
+     */
+    private void startWaiting() {
+        while (!waiting.isEmpty() && permits.tryAcquire()) {
+            final var next = waiting.poll();
+            if (next == null) {
+                permits.release();
+            } else {
+                next.run();
+            }
+        }
+    }
+
+    /**
+     * Runs the call on the executor holding a permit, the timeout counts from here. A call completed before
+     * it got a thread, because it timed out or was cancelled, does not ask the training
+     */
+    private <T> void start(CompletableFuture<T> result, Supplier<T> source) {
+        result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        try {
+            executor.execute(() -> {
+                try {
+                    if (!result.isDone()) {
+                        result.complete(source.get());
+                    }
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    permits.release();
+                    startWaiting();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+            permits.release();
+        }
+    }
+
+    /**
+     * Read-only in-memory copy of a training, students without a grade are kept with a null grade
+     */
+    private static final class FetchedTraining implements Training, GradeIterable {
+
+        private final String name;
+
+        private final Map<Student, Grade> grades = new LinkedHashMap<>();
+
+        private FetchedTraining(String name) {
+            this.name = name;
+        }
+
+        private void put(Student student, Grade grade) {
+            grades.put(student, grade == null ? null : Grades.copyOf(grade));
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public List<Student> getStudents() {
+            return new ArrayList<>(grades.keySet());
+        }
+
+        @Override
+        public boolean addStudent(Student student) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean removeStudent(Student student) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean rateFirstSemester(Student student, int mark) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean rateSecondSemester(Student student, int mark) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean isPresent(Student student) {
+            return grades.containsKey(student);
+        }
+
+        @Override
+        public Optional<Grade> getStudentGrade(Student student) {
+            return Optional.ofNullable(grades.get(student));
+        }
+
+        @Override
+        public void forEachGrade(BiConsumer<? super Student, ? super Grade> action) {
+            grades.forEach(action);
+        }
+
+        @Override
+        public void forEachMark(MarkVisitor visitor) {
+            grades.forEach((student, grade) -> {
+                if (grade == null) {
+                    visitor.visit(student, NO_MARK, NO_MARK);
+                } else {
+                    visitor.visit(student, grade.getFirstSemester(), grade.getSecondSemester());
+                }
+            });
+        }
+
+        private static UnsupportedOperationException readOnly() {
+            return new UnsupportedOperationException("Fetched trainings are read-only");
+        }
+    }
+
+    public static class Builder {
+
+        private Executor executor;
+
+        private int maxConcurrency = 16;
+
+        private Duration timeout = Duration.ofSeconds(30);
+
+        private Builder() {
+
+        }
+
+        /**
+         * @param executor executor running the calls to the trainings, e.g. one starting a thread per call;
+         *                 by default the utils start {@code maxConcurrency} daemon threads of their own
+         * @return builder
+         */
+        public Builder setExecutor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * @param maxConcurrency largest number of calls to the trainings running at the same time, 16 by default
+         * @return builder
+         */
+        public Builder setMaxConcurrency(int maxConcurrency) {
+            if (maxConcurrency < 1) {
+                throw new IllegalArgumentException("Concurrency limit must be positive");
+            }
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * @param timeout longest time a single call to a training may take once it got a free slot, 30 seconds
+         *                by default
+         * @return builder
+         */
+        public Builder setTimeout(Duration timeout) {
+            if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+                throw new IllegalArgumentException("Timeout must be positive");
+            }
+            this.timeout = timeout;
+            return this;
+        }
+
+        public AsyncTrainingUtils build() {
+            return new AsyncTrainingUtils(this);
+        }
+    }
+
+}
@@ -0,0 +1,248 @@
+package com.globallogic.basecamp;
+
+import com.globallogic.basecamp.batch.BatchResult;
+import com.globallogic.basecamp.batch.BulkTraining;
+import com.globallogic.basecamp.batch.GradeBatch;
+import com.globallogic.basecamp.model.Grade;
+import com.globallogic.basecamp.model.Semester;
+import com.globallogic.basecamp.model.Student;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * ConcurrentTraining is a thread-safe implementation of the {@link com.globallogic.basecamp.Training Training}
+ * interface intended for many concurrent grading workers.
+ * <p>
+ * Students are kept in a {@link ConcurrentHashMap}, so enrolment and removal only lock a single bin of the table.
+ * Both semester marks of a student are packed into one {@link AtomicInteger} and updated with a lock-free
+ * compare-and-set, so a grade change never loses the mark of the other semester and
+ * {@link #getStudentGrade(Student)} always returns both marks as they were at one point in time.
+ * <p>
+ * Unlike {@link GlobalLogicTraining} the returned {@link Grade} is a snapshot: modifying it does not change
+ * the training. Use {@link #rateFirstSemester(Student, int)} and {@link #rateSecondSemester(Student, int)} instead.
+ */
+public class ConcurrentTraining implements Training, GradeIterable, BulkTraining {
+
+    private static final int MARK_BITS = 4;
+
+    private static final int MARK_MASK = (1 << MARK_BITS) - 1;
+
+    private final String name;
+
+    private final ConcurrentHashMap<Student, AtomicInteger> grades;
+
+    public ConcurrentTraining(String name) {
+        this(name, 16);
+    }
+
+    /**
+     * Creates the training with the table pre-sized for the expected number of students
+     *
+     * @param name             training name
+     * @param expectedStudents expected number of students
+     */
+    public ConcurrentTraining(String name, int expectedStudents) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Empty field found");
+        }
+        this.name = name;
+        this.grades = new ConcurrentHashMap<>(expectedStudents);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns a weakly consistent copy of the students: it never fails while other threads enrol or remove
+     * students and contains every student that was enrolled for the whole duration of the call
+     *
+     * @return list of students
+     */
+    @Override
+    public List<Student> getStudents() {
+        return new ArrayList<>(grades.keySet());
+    }
+
+    @Override
+    public boolean addStudent(Student student) {
+        checkStudent(student);
+        return grades.putIfAbsent(student, new AtomicInteger()) == null;
+    }
+
+    @Override
+    public boolean removeStudent(Student student) {
+        return student != null && grades.remove(student) != null;
+    }
+
+    @Override
+    public boolean rateFirstSemester(Student student, int mark) {
+        checkMark(mark);
+        final var packed = packedGrade(student);
+        if (packed == null) {
+            return false;
+        }
+        packed.updateAndGet(value -> (value & ~MARK_MASK) | mark);
+        return true;
+    }
+
+    @Override
+    public boolean rateSecondSemester(Student student, int mark) {
+        checkMark(mark);
+        final var packed = packedGrade(student);
+        if (packed == null) {
+            return false;
+        }
+        packed.updateAndGet(value -> (value & MARK_MASK) | (mark << MARK_BITS));
+        return true;
+    }
+
+    @Override
+    public BatchResult addStudents(List<Student> students) {
+        students.forEach(ConcurrentTraining::checkStudent);
+        final var result = BatchResult.builder(students.size());
+        for (var i = 0; i < students.size(); i++) {
+            result.setApplied(i, grades.putIfAbsent(students.get(i), new AtomicInteger()) == null);
+        }
+        return result.build();
+    }
+
+    /**
+     * Applies the updates one by one, each of them atomically; other threads may see a part of the batch applied
+     *
+     * @param batch validated grade updates
+     * @return per-record result
+     */
+    @Override
+    public BatchResult rate(GradeBatch batch) {
+        final var result = BatchResult.builder(batch.size());
+        for (var i = 0; i < batch.size(); i++) {
+            final var packed = grades.get(batch.getStudent(i));
+            if (packed == null) {
+                continue;
+            }
+            final var mark = batch.getMark(i);
+            if (batch.getSemester(i) == Semester.FIRST) {
+                packed.updateAndGet(value -> (value & ~MARK_MASK) | mark);
+            } else {
+                packed.updateAndGet(value -> (value & MARK_MASK) | (mark << MARK_BITS));
+            }
+            result.setApplied(i, true);
+        }
+        return result.build();
+    }
+
+    /**
+     * Sets both semester marks of the student in one atomic step
+     *
+     * @param student        student to rate
+     * @param firstSemester  first semester mark
+     * @param secondSemester second semester mark
+     * @return true if the student attends the training, false otherwise
+     */
+    @Override
+    public boolean rate(Student student, int firstSemester, int secondSemester) {
+        checkMark(firstSemester);
+        checkMark(secondSemester);
+        final var packed = packedGrade(student);
+        if (packed == null) {
+            return false;
+        }
+        packed.set(pack(firstSemester, secondSemester));
+        return true;
+    }
+
+    /**
+     * Removes the matching students while walking the map. Students enrolled during the call may or may not be
+     * tested, only students this call removed are counted
+     */
+    @Override
+    public int removeStudentsIf(Predicate<? super Student> predicate) {
+        var removed = 0;
+        for (final var entry : grades.entrySet()) {
+            if (predicate.test(entry.getKey()) && grades.remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean isPresent(Student student) {
+        return student != null && grades.containsKey(student);
+    }
+
+    @Override
+    public Optional<Grade> getStudentGrade(Student student) {
+        final var packed = packedGrade(student);
+        if (packed == null) {
+            return Optional.empty();
+        }
+        return Optional.of(snapshot(packed.get()));
+    }
+
+    /**
+     * Walks the table with the same weak consistency as {@link #getStudents()}, passing grade snapshots
+     *
+     * @param action action receiving every student and grade
+     */
+    @Override
+    public void forEachGrade(BiConsumer<? super Student, ? super Grade> action) {
+        grades.forEach((student, packed) -> action.accept(student, snapshot(packed.get())));
+    }
+
+    /**
+     * Walks the table with the same weak consistency as {@link #getStudents()}; both marks of a student are
+     * read atomically
+     *
+     * @param visitor visitor receiving every student and both marks
+     */
+    @Override
+    public void forEachMark(MarkVisitor visitor) {
+        grades.forEach((student, packed) -> {
+            final var value = packed.get();
+            visitor.visit(student, firstSemester(value), secondSemester(value));
+        });
+    }
+
+    private AtomicInteger packedGrade(Student student) {
+        return student == null ? null : grades.get(student);
+    }
+
+    private static Grade snapshot(int packed) {
+        final var grade = new Grade();
+        grade.setFirstSemester(firstSemester(packed));
+        grade.setSecondSemester(secondSemester(packed));
+        return grade;
+    }
+
+    static int pack(int firstSemester, int secondSemester) {
+        return firstSemester | (secondSemester << MARK_BITS);
+    }
+
+    static int firstSemester(int packed) {
+        return packed & MARK_MASK;
+    }
+
+    static int secondSemester(int packed) {
+        return (packed >>> MARK_BITS) & MARK_MASK;
+    }
+
+    private static void checkStudent(Student student) {
+        if (student == null) {
+            throw new IllegalArgumentException("Empty field found");
+        }
+    }
+
+    private static void checkMark(int mark) {
+        if (mark < 0 || mark > 10) throw new IllegalArgumentException("wrong mark");
+    }
+
+}
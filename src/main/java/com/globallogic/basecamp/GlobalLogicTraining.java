@@ -1,15 +1,23 @@
 package com.globallogic.basecamp;
 
+import com.globallogic.basecamp.batch.BatchResult;
+import com.globallogic.basecamp.batch.BulkTraining;
+import com.globallogic.basecamp.batch.GradeBatch;
 import com.globallogic.basecamp.model.Grade;
+import com.globallogic.basecamp.model.Semester;
 import com.globallogic.basecamp.model.Student;
 
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 
 /**
  * GlobalLogicTraining is an implementation of the {@link com.globallogic.basecamp.Training Training} interface.
  * Contains the training name and student grades.
+ * Students and grades can be walked in place through {@link GradeIterable} and changed in batches through
+ * {@link BulkTraining}.
  */
-public class GlobalLogicTraining implements Training {
+public class GlobalLogicTraining implements Training, GradeIterable, BulkTraining {
 
     /**
      * TODO: implement methods of the Training interface and add the necessary functionality
@@ -45,10 +53,8 @@ public class GlobalLogicTraining implements Training {
 
     @Override
     public boolean removeStudent(Student student) {
-        if(!grades.containsKey(student))
-            return false;
-        grades.remove(student);
-        return !grades.containsKey(student);
+        // a single lookup that also removes students without a grade yet
+        return grades.keySet().remove(student);
     }
 
     @Override
@@ -83,4 +89,89 @@ public class GlobalLogicTraining implements Training {
         return grade;
     }
 
+    @Override
+    public void forEachGrade(BiConsumer<? super Student, ? super Grade> action) {
+        grades.forEach(action);
+    }
+
+    @Override
+    public void forEachMark(MarkVisitor visitor) {
+        for (final var entry : grades.entrySet()) {
+            final var grade = entry.getValue();
+            if (grade == null) {
+                visitor.visit(entry.getKey(), NO_MARK, NO_MARK);
+            } else {
+                visitor.visit(entry.getKey(), grade.getFirstSemester(), grade.getSecondSemester());
+            }
+        }
+    }
+
+    /**
+     * Enrols the students with one map lookup per student. Unlike {@link #addStudent(Student)}, a student that is
+     * present without a grade gets an empty grade and is reported as enrolled
+     *
+     * @param students students to enrol
+     * @return per-student result
+     */
+    @Override
+    public BatchResult addStudents(List<Student> students) {
+        final var result = BatchResult.builder(students.size());
+        for (var i = 0; i < students.size(); i++) {
+            result.setApplied(i, grades.putIfAbsent(students.get(i), new Grade()) == null);
+        }
+        return result.build();
+    }
+
+    @Override
+    public BatchResult rate(GradeBatch batch) {
+        final var result = BatchResult.builder(batch.size());
+        for (var i = 0; i < batch.size(); i++) {
+            final var grade = gradeOf(batch.getStudent(i));
+            if (grade == null) {
+                continue;
+            }
+            if (batch.getSemester(i) == Semester.FIRST) {
+                grade.setFirstSemester(batch.getMark(i));
+            } else {
+                grade.setSecondSemester(batch.getMark(i));
+            }
+            result.setApplied(i, true);
+        }
+        return result.build();
+    }
+
+    @Override
+    public boolean rate(Student student, int firstSemester, int secondSemester) {
+        if (firstSemester < 0 || firstSemester > 10 || secondSemester < 0 || secondSemester > 10)
+            throw new IllegalArgumentException("wrong mark");
+        final var grade = gradeOf(student);
+        if (grade == null) return false;
+        grade.setFirstSemester(firstSemester);
+        grade.setSecondSemester(secondSemester);
+        return true;
+    }
+
+    /**
+     * Removes the matching entries while walking the map, the students are not copied
+     */
+    @Override
+    public int removeStudentsIf(Predicate<? super Student> predicate) {
+        final var size = grades.size();
+        grades.keySet().removeIf(predicate);
+        return size - grades.size();
+    }
+
+    /**
+     * @return grade of an enrolled student, created if the student has none, or null if the student is absent
+     */
+    private Grade gradeOf(Student student) {
+        final var grade = grades.get(student);
+        if (grade != null || !grades.containsKey(student)) {
+            return grade;
+        }
+        final var created = new Grade();
+        grades.put(student, created);
+        return created;
+    }
+
 }
@@ -0,0 +1,89 @@
+package com.globallogic.basecamp;
+
+import com.globallogic.basecamp.model.Grade;
+import com.globallogic.basecamp.model.Student;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Capability of a {@link Training} that can walk its students and grades in place, without copying the roster
+ * like {@link Training#getStudents()} does and without wrapping every grade in an {@code Optional}.
+ * <p>
+ * {@link #forEachMark(MarkVisitor)} passes the marks as primitives, so a training that does not keep
+ * {@link Grade} objects does not have to create them. The static helpers fall back to
+ * {@link Training#getStudents()} and {@link Training#getStudentGrade(Student)} for trainings without the
+ * capability, and are what {@link TrainingUtils} and the aggregations use.
+ * <p>
+ * The training must not be changed from inside the visitor, other than by setting the marks of the grade it
+ * was passed.
+ */
+public interface GradeIterable {
+
+    /**
+     * Mark passed to a {@link MarkVisitor} for a student without a grade
+     */
+    int NO_MARK = -1;
+
+    /**
+     * Visits every student with its grade. The grade is {@code null} for a student without one; whether it is
+     * the grade kept by the training or a copy is the same as for {@link Training#getStudentGrade(Student)}
+     *
+     * @param action action receiving every student and grade
+     */
+    void forEachGrade(BiConsumer<? super Student, ? super Grade> action);
+
+    /**
+     * Visits every student with both semester marks
+     *
+     * @param visitor visitor receiving every student, marks are {@link #NO_MARK} for a student without a grade
+     */
+    void forEachMark(MarkVisitor visitor);
+
+    /**
+     * Visits every student of the training with its grade, in place when the training supports it
+     *
+     * @param training training to walk
+     * @param action   action receiving every student and its grade, which is {@code null} if there is none
+     */
+    static void forEachGrade(Training training, BiConsumer<? super Student, ? super Grade> action) {
+        if (training instanceof GradeIterable) {
+            ((GradeIterable) training).forEachGrade(action);
+            return;
+        }
+        for (final var student : training.getStudents()) {
+            action.accept(student, training.getStudentGrade(student).orElse(null));
+        }
+    }
+
+    /**
+     * Visits every student of the training with both semester marks, in place when the training supports it
+     *
+     * @param training training to walk
+     * @param visitor  visitor receiving every student, marks are {@link #NO_MARK} for a student without a grade
+     */
+    static void forEachMark(Training training, MarkVisitor visitor) {
+        if (training instanceof GradeIterable) {
+            ((GradeIterable) training).forEachMark(visitor);
+            return;
+        }
+        for (final var student : training.getStudents()) {
+            final var grade = training.getStudentGrade(student).orElse(null);
+            if (grade == null) {
+                visitor.visit(student, NO_MARK, NO_MARK);
+            } else {
+                visitor.visit(student, grade.getFirstSemester(), grade.getSecondSemester());
+            }
+        }
+    }
+
+    /**
+     * Receives one student of the training with both semester marks
+     */
+    @FunctionalInterface
+    interface MarkVisitor {
+
+        void visit(Student student, int firstSemester, int secondSemester);
+
+    }
+
+}
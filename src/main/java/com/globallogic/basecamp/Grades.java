@@ -0,0 +1,67 @@
+package com.globallogic.basecamp;
+
+import com.globallogic.basecamp.model.Grade;
+import com.globallogic.basecamp.model.Student;
+
+/**
+ * Grades creates the {@link Grade} objects that trainings return instead of the grades they keep.
+ */
+public final class Grades {
+
+    private Grades() {
+
+    }
+
+    /**
+     * @param grade grade to copy
+     * @return detached copy of the grade, changing it does not change any training
+     */
+    public static Grade copyOf(Grade grade) {
+        final var copy = new Grade();
+        copy.setFirstSemester(grade.getFirstSemester());
+        copy.setSecondSemester(grade.getSecondSemester());
+        return copy;
+    }
+
+    /**
+     * Returns a copy of the grade that rates the student on the training whenever one of its marks is set.
+     * Decorators return such grades, so changing a grade they returned takes the same path as
+     * {@link Training#rateFirstSemester(Student, int)} and keeps their statistics, events or log up to date.
+     * A setter throws {@link IllegalArgumentException} for a mark the training rejects
+     *
+     * @param grade    current grade of the student
+     * @param training training rating the student
+     * @param student  student the grade belongs to
+     * @return grade writing its changes through the training
+     */
+    public static Grade writingThrough(Grade grade, Training training, Student student) {
+        return new WriteThroughGrade(grade, training, student);
+    }
+
+    private static final class WriteThroughGrade extends Grade {
+
+        private final Training training;
+
+        private final Student student;
+
+        private WriteThroughGrade(Grade grade, Training training, Student student) {
+            this.training = training;
+            this.student = student;
+            super.setFirstSemester(grade.getFirstSemester());
+            super.setSecondSemester(grade.getSecondSemester());
+        }
+
+        @Override
+        public void setFirstSemester(int firstSemester) {
+            training.rateFirstSemester(student, firstSemester);
+            super.setFirstSemester(firstSemester);
+        }
+
+        @Override
+        public void setSecondSemester(int secondSemester) {
+            training.rateSecondSemester(student, secondSemester);
+            super.setSecondSemester(secondSemester);
+        }
+    }
+
+}
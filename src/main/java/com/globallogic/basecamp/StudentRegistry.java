@@ -0,0 +1,228 @@
+package com.globallogic.basecamp;
+
+import com.globallogic.basecamp.model.Student;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * StudentRegistry interns student emails and assigns each of them a stable dense int id, starting from 0 in
+ * registration order. Cross-training joins can then use primitive ids and arrays instead of hashing the email
+ * string again in every map they pass through.
+ * <p>
+ * Emails are kept in an open-addressing table of plain arrays, so no boxed keys or values are allocated.
+ * The registry is thread-safe: lookups of already registered emails run under an optimistic read and only
+ * new registrations take the write lock.
+ */
+public class StudentRegistry {
+
+    /**
+     * Returned by {@link #idOf(String)} for emails that are not registered
+     */
+    public static final int ABSENT = -1;
+
+    private final StampedLock lock = new StampedLock();
+
+    private Table table;
+
+    private String[] emails;
+
+    private volatile int size;
+
+    public StudentRegistry() {
+        this(16);
+    }
+
+    /**
+     * Creates the registry pre-sized for the expected number of students
+     *
+     * @param expectedStudents expected number of students
+     */
+    public StudentRegistry(int expectedStudents) {
+        final var capacity = tableCapacity(Math.max(expectedStudents, 1));
+        this.table = new Table(capacity);
+        this.emails = new String[Math.max(expectedStudents, 1)];
+    }
+
+    /**
+     * Returns the id of the student email, registering it if necessary
+     *
+     * @param student student to register
+     * @return student id
+     */
+    public int register(Student student) {
+        return register(student.getEmail());
+    }
+
+    /**
+     * Returns the id of the email, registering it if necessary
+     *
+     * @param email student email
+     * @return student id
+     */
+    public int register(String email) {
+        final var id = idOf(email);
+        if (id != ABSENT) {
+            return id;
+        }
+        final var stamp = lock.writeLock();
+        try {
+            final var existing = table.find(email);
+            return existing != ABSENT ? existing : insert(email);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Registers the email, like {@link java.util.Set#add(Object)}
+     *
+     * @param email student email
+     * @return true if the email was not registered before
+     */
+    public boolean add(String email) {
+        if (idOf(email) != ABSENT) {
+            return false;
+        }
+        final var stamp = lock.writeLock();
+        try {
+            if (table.find(email) != ABSENT) {
+                return false;
+            }
+            insert(email);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the id of a registered email
+     *
+     * @param email student email
+     * @return student id or {@link #ABSENT}
+     */
+    public int idOf(String email) {
+        if (email == null) {
+            throw new IllegalArgumentException("Empty field found");
+        }
+        var stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            // table and ids are published together, so a racy probe may miss but never reads past either array
+            final var id = table.find(email);
+            if (lock.validate(stamp)) {
+                return id;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return table.find(email);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the email registered under the id
+     *
+     * @param id student id
+     * @return student email
+     */
+    public String emailOf(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Index " + id + " out of bounds for length " + size);
+        }
+        final var stamp = lock.readLock();
+        try {
+            return emails[id];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return number of registered emails, which is also the smallest unused id
+     */
+    public int size() {
+        return size;
+    }
+
+    private int insert(String email) {
+        final var id = size;
+        if (id == emails.length) {
+            emails = Arrays.copyOf(emails, id * 2);
+        }
+        emails[id] = email;
+        if ((id + 1) * 4L > table.keys.length * 3L) {
+            table = table.rehash(table.keys.length * 2);
+        }
+        table.place(email, id);
+        size = id + 1;
+        return id;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int tableCapacity(int expected) {
+        final var needed = (int) Math.min(1L << 30, expected * 4L / 3 + 1);
+        return Math.max(16, Integer.highestOneBit(needed - 1) << 1);
+    }
+
+    /**
+     * Open-addressing table of emails and their ids. Both arrays always have the same length, and a rehash
+     * replaces the whole table at once
+     */
+    private static final class Table {
+
+        private final String[] keys;
+
+        private final int[] ids;
+
+        private Table(int capacity) {
+            this.keys = new String[capacity];
+            this.ids = new int[capacity];
+        }
+
+        private Table rehash(int capacity) {
+            final var rehashed = new Table(capacity);
+            for (var i = 0; i < keys.length; i++) {
+                if (keys[i] != null) {
+                    rehashed.place(keys[i], ids[i]);
+                }
+            }
+            return rehashed;
+        }
+
+        private void place(String email, int id) {
+            final var mask = keys.length - 1;
+            var slot = spread(email.hashCode()) & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            ids[slot] = id;
+            keys[slot] = email;
+        }
+
+        /**
+         * Probes at most the whole table, so a racy optimistic read cannot loop forever
+         */
+        private int find(String email) {
+            final var mask = keys.length - 1;
+            var slot = spread(email.hashCode()) & mask;
+            for (var probes = 0; probes < keys.length; probes++) {
+                final var candidate = keys[slot];
+                if (candidate == null) {
+                    return ABSENT;
+                }
+                if (candidate.equals(email)) {
+                    return ids[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return ABSENT;
+        }
+    }
+
+}
@@ -1,33 +1,39 @@
 package com.globallogic.basecamp;
 
-import static java.util.stream.Collectors.averagingInt;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 
-import com.globallogic.basecamp.comparator.StudentComparator;
+import com.globallogic.basecamp.aggregation.ReportSink;
+import com.globallogic.basecamp.aggregation.TrainingAggregator;
+import com.globallogic.basecamp.batch.BulkTraining;
+import com.globallogic.basecamp.comparator.StudentSorter;
+import com.globallogic.basecamp.index.CompactBitmap;
+import com.globallogic.basecamp.index.StudentQuery;
+import com.globallogic.basecamp.index.TrainingCatalog;
 import com.globallogic.basecamp.model.Grade;
 import com.globallogic.basecamp.model.Student;
-import com.sun.source.doctree.SeeTree;
 
-import java.sql.Array;
-import java.util.AbstractMap;
-import java.util.AbstractMap.SimpleEntry;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * TrainingUtils contains a set of operations to perform with Stream of trainings.
  * You will need to implement the methods using <strong>Stream API</strong>. Do not use for or while loops
  * for implementation
+ * <p>
+ * Every method collects its result without shared mutable state, so parallel streams of trainings are
+ * supported. Reports are computed by the {@link TrainingAggregator}, which also offers an explicit
+ * fork/join mode and several reports in one pass. Trainings implementing {@link GradeIterable} are walked in
+ * place instead of copying their rosters.
  *
  * @see <a href="https://docs.oracle.com/en/java/javase/11/docs/api/java.base/java/util/stream/Stream.html">Stream</a>
  * documentation for more details
@@ -40,6 +46,11 @@ public class TrainingUtils {
 
     /**
      * Get emails of the students from provided trainings that satisfy the condition
+     * <p>
+     * A {@link StudentQuery} over trainings registered in one {@link TrainingCatalog} is answered from the
+     * catalog indexes, any other predicate is tested on every student. The indexes narrow the students down by
+     * the values they had when the catalog read them, so a student changed since then is only found after it
+     * was {@link TrainingCatalog#reindex(Student) reindexed}
      *
      * @param trainings stream of trainings
      * @param predicate condition whether we return this student or not
@@ -47,11 +58,26 @@ public class TrainingUtils {
      */
     public static List<String> getStudentEmailsByCondition(Stream<Training> trainings,
                                                            Predicate<Student> predicate) {
-        Set<String> result = new HashSet<>();
-        trainings.forEach(a -> a.getStudents().stream().
-            filter(predicate).forEach( student -> {
-                result.add(student.getEmail());}));
-        return new ArrayList<String>(result);
+        if (predicate instanceof StudentQuery) {
+            final var list = trainings.collect(toList());
+            final var catalog = TrainingCatalog.catalogOf(list);
+            if (catalog.isPresent()) {
+                return catalog.get().getStudents(list, (StudentQuery) predicate).stream()
+                    .map(Student::getEmail)
+                    .collect(toList());
+            }
+            return scanStudentEmails(list.stream(), predicate);
+        }
+        return scanStudentEmails(trainings, predicate);
+    }
+
+    private static List<String> scanStudentEmails(Stream<Training> trainings, Predicate<Student> predicate) {
+        return trainings
+            .flatMap(training -> training.getStudents().stream())
+            .filter(predicate)
+            .map(Student::getEmail)
+            .distinct()
+            .collect(toList());
     }
 
     /**
@@ -61,17 +87,9 @@ public class TrainingUtils {
      * @return map where keys are student emails and values are List of training names that this student attends
      */
     public static Map<String, List<String>> getTrainingsPerStudent(Stream<Training> trainings) {
-        Map<String, List<String>> result = new HashMap<>();
-        trainings.forEach(training -> {
-            training.getStudents().stream().forEach(
-                student -> {
-                    result.putIfAbsent(student.getEmail(), new ArrayList<>());
-                    result.get(student.getEmail()).add(training.getName());
-                }
-            );
-        });
-        return result;
-
+        return TrainingAggregator.builder().withTrainingsPerStudent().build()
+            .aggregate(trainings)
+            .getTrainingsPerStudent();
     }
 
     /**
@@ -82,49 +100,49 @@ public class TrainingUtils {
      * @return map where keys are student emails and values are student average mark calculating using both semesters
      */
     public static Map<String, Double> getAverageMarkPerStudent(Stream<Training> trainings) {
-        Map<String, List<Integer>> email = new HashMap<>();
-        trainings.forEach(training -> {
-            training.getStudents().stream().forEach(
-                student -> {
-                    if(!email.containsKey(student.getEmail())) {
-                        email.put(student.getEmail(), new ArrayList<>());
-                    }
-                    if(training.getStudentGrade(student).isPresent()) {
-                        email
-                            .get(student.getEmail())
-                            .add(training
-                                .getStudentGrade(student)
-                                .get()
-                                .getFirstSemester());
-                        email
-                            .get(student.getEmail())
-                            .add(training
-                                .getStudentGrade(student)
-                                .get()
-                                .getSecondSemester());
-                    }
-                }
-            );
-        });
-        return email.entrySet().stream()
-            .collect(Collectors.toMap(
-                e -> e.getKey(),
-                e -> e.getValue().stream()
-                    .mapToDouble(a -> a)
-                    .average().getAsDouble())
-            );
+        return TrainingAggregator.builder().withAverageMarkPerStudent().build()
+            .aggregate(trainings)
+            .getAverageMarkPerStudent();
+    }
+
+    /**
+     * Streaming variant of {@link #getTrainingsPerStudent(Stream)}: hands the trainings of every student to the
+     * sink instead of collecting them into a map
+     *
+     * @param trainings stream of trainings
+     * @param sink      sink receiving the trainings of every student
+     * @throws IOException if the sink fails
+     */
+    public static void writeTrainingsPerStudent(Stream<Training> trainings, ReportSink sink) throws IOException {
+        TrainingAggregator.builder().withTrainingsPerStudent().build().export(trainings, sink);
+    }
+
+    /**
+     * Streaming variant of {@link #getAverageMarkPerStudent(Stream)}: hands the average mark of every student
+     * to the sink instead of collecting them into a map
+     *
+     * @param trainings stream of trainings
+     * @param sink      sink receiving the average mark of every student
+     * @throws IOException if the sink fails
+     */
+    public static void writeAverageMarkPerStudent(Stream<Training> trainings, ReportSink sink) throws IOException {
+        TrainingAggregator.builder().withAverageMarkPerStudent().build().export(trainings, sink);
     }
 
     /**
-     * Perform an action for all grades in the provided trainings
+     * Perform an action for all grades in the provided trainings. Marks set on a grade change the training it
+     * came from, decorators apply them through their own rating methods; trainings documented to return grade
+     * snapshots, like {@link ConcurrentTraining}, are not changed
      *
      * @param trainings stream of trainings
      * @param action    action to perform
      */
     public static void forEachGrade(Stream<Training> trainings, Consumer<Grade> action) {
-        trainings.forEach(training ->
-            training.getStudents().stream().forEach(student ->
-                    training.getStudentGrade(student).stream().forEach(action)));
+        trainings.forEach(training -> GradeIterable.forEachGrade(training, (student, grade) -> {
+            if (grade != null) {
+                action.accept(grade);
+            }
+        }));
     }
 
     /**
@@ -134,76 +152,99 @@ public class TrainingUtils {
      * @return list of students emails
      */
     public static List<String> getStudentsWithMaxMark(Stream<Training> trainings) {
-
-        class CustomPair {
-            private Integer key;
-            private Set<String> value;
-            public Integer getKey() {
-                return key;
-            }
-            public void setKey(Integer key) {
-                this.key = key;
-            }
-            public Set<String> getValue() {
-                return value;
-            }
-            public void setValue(Set<String> value) {
-                this.value = value;
-            }
-        }
-
-        CustomPair max = new CustomPair();
-        max.setKey(0);
-        trainings.forEach(training -> {
-            training.getStudents().stream().forEach(student -> {
-                if(training.getStudentGrade(student).isPresent()){
-                    if(max.getKey() < training.getStudentGrade(student).get().getFirstSemester()){
-                        max.setKey(training.getStudentGrade(student).get().getFirstSemester());
-                        max.setValue(new HashSet<>());
-                    }
-                    if(max.getKey() < training.getStudentGrade(student).get().getSecondSemester()){
-                        max.setKey(training.getStudentGrade(student).get().getSecondSemester());
-                        max.setValue(new HashSet<>());
-                    }
-                    if(max.getKey() == training.getStudentGrade(student).get().getSecondSemester() ||
-                        max.getKey() == training.getStudentGrade(student).get().getFirstSemester())
-                    {
-                        max.getValue().add(student.getEmail());
-                    }
-                }
-            });
-        });
-        return max.getValue().stream().collect(Collectors.toList());
+        return TrainingAggregator.builder().withStudentsWithMaxMark().build()
+            .aggregate(trainings)
+            .getStudentsWithMaxMark();
     }
 
     /**
      * Remove students from all provided trainings by the specified condition
+     * <p>
+     * Trainings are purged in parallel, each in one pass over its roster when it is a {@link BulkTraining}. The
+     * condition is tested once per distinct student, however many trainings the student attends, so it may be
+     * called from several threads. A thread meeting a student that another thread is testing waits for that
+     * answer, other students are not held up. When the condition is a {@link StudentQuery}, it is looked up
+     * once in every {@link TrainingCatalog} the trainings are registered in, and the students of those trainings
+     * are removed by their ids instead of testing them again
      *
      * @param trainings stream of trainings
      * @param predicate condition whether to remove a student
+     * @return map where keys are training names and values are numbers of removed students
      */
-    public static void removeStudentsIf(Stream<Training> trainings, Predicate<Student> predicate) {
-        trainings.forEach(
-            training -> training.getStudents().stream().filter(predicate).forEach(student ->
-                training.removeStudent(student))
-        );
-}
+    public static Map<String, Integer> removeStudentsIf(Stream<Training> trainings, Predicate<Student> predicate) {
+        final var distinct = trainings.distinct().collect(toList());
+        final Map<TrainingCatalog, CompactBitmap> matches = predicate instanceof StudentQuery
+            ? distinct.stream()
+                .map(training -> TrainingCatalog.catalogOf(List.of(training)))
+                .flatMap(Optional::stream)
+                .distinct()
+                .collect(toMap(Function.identity(), catalog -> catalog.getStudentIds((StudentQuery) predicate)))
+            : Map.of();
+        final var once = oncePerStudent(predicate);
+        return distinct.parallelStream()
+            .collect(toMap(Training::getName, training -> removeFrom(training, matches, once), Integer::sum));
+    }
+
+    private static int removeFrom(Training training, Map<TrainingCatalog, CompactBitmap> matches,
+                                  Predicate<Student> once) {
+        return TrainingCatalog.catalogOf(List.of(training))
+            .filter(matches::containsKey)
+            .map(catalog -> {
+                final var ids = matches.get(catalog);
+                final var registry = catalog.getRegistry();
+                return BulkTraining.removeStudentsIf(training,
+                    student -> ids.contains(registry.idOf(student.getEmail())));
+            })
+            .orElseGet(() -> BulkTraining.removeStudentsIf(training, once));
+    }
+
+    /**
+     * @return predicate testing the condition at most once per student. The answer is computed outside the map
+     * locks, so a slow condition only blocks the threads asking about the same student
+     */
+    private static Predicate<Student> oncePerStudent(Predicate<Student> predicate) {
+        final var decisions = new ConcurrentHashMap<Student, CompletableFuture<Boolean>>();
+        return student -> {
+            final var known = decisions.get(student);
+            if (known != null) {
+                return known.join();
+            }
+            final var decision = new CompletableFuture<Boolean>();
+            final var decided = decisions.putIfAbsent(student, decision);
+            if (decided != null) {
+                return decided.join();
+            }
+            try {
+                decision.complete(predicate.test(student));
+            } catch (RuntimeException | Error e) {
+                decision.completeExceptionally(e);
+                throw e;
+            }
+            return decision.join();
+        };
+    }
 
     /**
      * Get distinct students' full names from all trainings sorted by the `StudentComparator`
      * <p>
      * For example, full name for the student with the first name "Jerry" and the last name "Ferdy"
      * will be "Jerry Ferdy"
+     * <p>
+     * The students are ordered by the {@link StudentSorter}, which gives the same order as the comparator
+     * without comparing the names pairwise
      *
      * @param trainings stream of trainings
      * @return list of sorted
      */
     public static List<String> getStudentsSorted(Stream<Training> trainings) {
-        Set<Student> students = new HashSet<>();
-        trainings.forEach(training ->students.addAll(training.getStudents()));
-        return students.stream().sorted(new StudentComparator()).map(student -> {
-          return   student.getFirstName().concat(" ").concat(student.getLastName());
-        }).collect(toList());
+        final var students = trainings
+            .flatMap(training -> training.getStudents().stream())
+            .distinct()
+            .toArray(Student[]::new);
+        StudentSorter.sort(students);
+        return Arrays.stream(students)
+            .map(student -> student.getFirstName().concat(" ").concat(student.getLastName()))
+            .collect(toList());
     }
 
     /**
@@ -215,17 +256,9 @@ public class TrainingUtils {
      * @return list of students' emails
      */
     public static List<String> getStudentsWithMarkLowerThan(Stream<Training> trainings, int mark) {
-        Set<String> students = new HashSet<>();
-        trainings.forEach(training -> {
-            training.getStudents().stream().forEach(student -> {
-                if(training.getStudentGrade(student).isPresent() &&(
-                    training.getStudentGrade(student).get().getFirstSemester() < mark ||
-                    training.getStudentGrade(student).get().getSecondSemester() < mark
-                    ))
-                    students.add(student.getEmail());
-            });
-        });
-        return students.stream().collect(Collectors.toList());
+        return TrainingAggregator.builder().withStudentsWithMarkLowerThan(mark).build()
+            .aggregate(trainings)
+            .getStudentsWithMarkLowerThan();
     }
 
     /**
@@ -248,19 +281,9 @@ public class TrainingUtils {
      * @return map where key is a training name and value is an average mark
      */
     public static Map<String, Double> getAverageMarkPerTraining(Stream<Training> trainings) {
-        Map<String, List<Integer>> average = new HashMap<>();
-        trainings.forEach(training -> {
-            average.put(training.getName(), new ArrayList<>());
-            training.getStudents().stream().forEach(student -> {
-                if(training.getStudentGrade(student).isPresent()){
-                    average.get(training.getName()).add(training.getStudentGrade(student).get().getFirstSemester());
-                    average.get(training.getName()).add(training.getStudentGrade(student).get().getSecondSemester());
-                }
-            });});
-        return average.entrySet().stream()
-            .collect(Collectors.toMap(  e -> e.getKey(),
-                e -> (Double) (e.getValue().stream().collect(Collectors.averagingInt(Integer::intValue)))
-            ));
+        return TrainingAggregator.builder().withAverageMarkPerTraining().build()
+            .aggregate(trainings)
+            .getAverageMarkPerTraining();
     }
 
 }
@@ -0,0 +1,590 @@
+package com.globallogic.basecamp;
+
+import com.globallogic.basecamp.batch.BatchResult;
+import com.globallogic.basecamp.batch.BulkTraining;
+import com.globallogic.basecamp.batch.GradeBatch;
+import com.globallogic.basecamp.model.Grade;
+import com.globallogic.basecamp.model.Semester;
+import com.globallogic.basecamp.model.Student;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * VersionedTraining is a multi-version {@link Training}: every change creates a new version of the training,
+ * and {@link #snapshot()} returns a read-only view of the training frozen at the current version.
+ * <p>
+ * Every student keeps a chain of immutable versions of its enrolment and both marks, newest first. A change
+ * prepends new versions to the chains it touches and then publishes its version number, so readers never see
+ * a half-applied change and never wait for writers. Creating a snapshot copies nothing, it only remembers the
+ * version number; reading it picks the newest version of every chain that is not newer than the snapshot.
+ * Batches from {@link #addStudents(List)} and {@link #rate(GradeBatch)} are one version each.
+ * <p>
+ * Versions that no open snapshot can see any more are dropped whenever a chain is changed, and removed students
+ * are dropped by {@link #vacuum()}, which also runs by itself once enough students were removed. Snapshots must
+ * be closed, an open snapshot keeps the versions it sees alive.
+ * <p>
+ * Changes are serialised on a lock. Roster walks of the training itself ({@link #getStudents()},
+ * {@link #forEachGrade}, {@link #forEachMark}) read a temporary snapshot, so they are consistent as well.
+ * Returned {@link Grade}s are copies, modifying them does not change the training.
+ *
+ * <pre>{@code
+ * try (VersionedTraining.Snapshot snapshot = training.snapshot()) {
+ *     TrainingUtils.getAverageMarkPerStudent(Stream.of(snapshot));
+ * }
+ * }</pre>
+ */
+public class VersionedTraining implements Training, GradeIterable, BulkTraining {
+
+    private static final int MARK_BITS = 4;
+
+    private static final int MARK_MASK = (1 << MARK_BITS) - 1;
+
+    /**
+     * Returned instead of a version when the versions a reader needs were dropped meanwhile
+     */
+    private static final Version TRUNCATED = new Version(-1, null, 0, null);
+
+    private final String name;
+
+    private final ConcurrentHashMap<Student, Version> versions = new ConcurrentHashMap<>();
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * Version number -> number of open snapshots of the version. Guarded by itself
+     */
+    private final TreeMap<Long, Integer> openSnapshots = new TreeMap<>();
+
+    private volatile long committed;
+
+    /**
+     * Version number of the change in progress, guarded by the write lock
+     */
+    private long next;
+
+    /**
+     * Versions not newer than the floor are only needed if they are the newest one of their chain,
+     * guarded by the write lock
+     */
+    private long floor;
+
+    /**
+     * Whether the change in progress installed a version, guarded by the write lock
+     */
+    private boolean changed;
+
+    /**
+     * Students removed since the last vacuum, guarded by the write lock
+     */
+    private int removedSinceVacuum;
+
+    public VersionedTraining(String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Empty field found");
+        }
+        this.name = name;
+    }
+
+    /**
+     * One version of a student enrolment, {@code student} is null once the student was removed
+     */
+    private static final class Version {
+
+        private final long number;
+
+        private final Student student;
+
+        private final int marks;
+
+        private volatile Version previous;
+
+        private volatile boolean truncated;
+
+        private Version(long number, Student student, int marks, Version previous) {
+            this.number = number;
+            this.student = student;
+            this.marks = marks;
+            this.previous = previous;
+        }
+    }
+
+    /**
+     * Opens a read-only view of the training as it is now. The view must be closed
+     *
+     * @return snapshot of the current version
+     */
+    public Snapshot snapshot() {
+        synchronized (openSnapshots) {
+            final var version = committed;
+            openSnapshots.merge(version, 1, Integer::sum);
+            return new Snapshot(version);
+        }
+    }
+
+    /**
+     * @return number of the latest published version, 0 for a training that was never changed
+     */
+    public long getVersion() {
+        return committed;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public List<Student> getStudents() {
+        try (var snapshot = snapshot()) {
+            return snapshot.getStudents();
+        }
+    }
+
+    @Override
+    public boolean addStudent(Student student) {
+        checkStudent(student);
+        begin();
+        try {
+            return add(student);
+        } finally {
+            commit();
+        }
+    }
+
+    @Override
+    public boolean removeStudent(Student student) {
+        if (student == null) {
+            return false;
+        }
+        begin();
+        try {
+            final var head = versions.get(student);
+            if (head == null || head.student == null) {
+                return false;
+            }
+            install(student, head, null, 0);
+            removedSinceVacuum++;
+            return true;
+        } finally {
+            commit();
+        }
+    }
+
+    @Override
+    public boolean rateFirstSemester(Student student, int mark) {
+        checkMark(mark);
+        return update(student, mark, MARK_MASK);
+    }
+
+    @Override
+    public boolean rateSecondSemester(Student student, int mark) {
+        checkMark(mark);
+        return update(student, mark << MARK_BITS, MARK_MASK << MARK_BITS);
+    }
+
+    /**
+     * Sets both semester marks of the student in one version
+     *
+     * @param student        student to rate
+     * @param firstSemester  first semester mark
+     * @param secondSemester second semester mark
+     * @return true if the student attends the training, false otherwise
+     */
+    @Override
+    public boolean rate(Student student, int firstSemester, int secondSemester) {
+        checkMark(firstSemester);
+        checkMark(secondSemester);
+        return update(student, ConcurrentTraining.pack(firstSemester, secondSemester), -1);
+    }
+
+    /**
+     * Enrols the students in one version
+     *
+     * @param students students to enrol
+     * @return per-record result
+     */
+    @Override
+    public BatchResult addStudents(List<Student> students) {
+        students.forEach(VersionedTraining::checkStudent);
+        final var result = BatchResult.builder(students.size());
+        begin();
+        try {
+            for (var i = 0; i < students.size(); i++) {
+                result.setApplied(i, add(students.get(i)));
+            }
+        } finally {
+            commit();
+        }
+        return result.build();
+    }
+
+    /**
+     * Applies the batch in one version, snapshots see either none or all of it
+     *
+     * @param batch validated grade updates
+     * @return per-record result
+     */
+    @Override
+    public BatchResult rate(GradeBatch batch) {
+        final var result = BatchResult.builder(batch.size());
+        begin();
+        try {
+            for (var i = 0; i < batch.size(); i++) {
+                final var first = batch.getSemester(i) == Semester.FIRST;
+                result.setApplied(i, set(batch.getStudent(i), first ? batch.getMark(i) : batch.getMark(i) << MARK_BITS,
+                        first ? MARK_MASK : MARK_MASK << MARK_BITS));
+            }
+        } finally {
+            commit();
+        }
+        return result.build();
+    }
+
+    /**
+     * Removes the matching students in one version
+     *
+     * @param predicate condition whether to remove a student
+     * @return number of removed students
+     */
+    @Override
+    public int removeStudentsIf(Predicate<? super Student> predicate) {
+        var removed = 0;
+        begin();
+        try {
+            for (var entry : versions.entrySet()) {
+                final var head = entry.getValue();
+                if (head.student != null && predicate.test(head.student)) {
+                    install(entry.getKey(), head, null, 0);
+                    removed++;
+                }
+            }
+            removedSinceVacuum += removed;
+        } finally {
+            commit();
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean isPresent(Student student) {
+        final var version = current(student);
+        return version != null && version.student != null;
+    }
+
+    @Override
+    public Optional<Grade> getStudentGrade(Student student) {
+        final var version = current(student);
+        return version == null || version.student == null ? Optional.empty() : Optional.of(grade(version.marks));
+    }
+
+    @Override
+    public void forEachGrade(BiConsumer<? super Student, ? super Grade> action) {
+        try (var snapshot = snapshot()) {
+            snapshot.forEachGrade(action);
+        }
+    }
+
+    @Override
+    public void forEachMark(MarkVisitor visitor) {
+        try (var snapshot = snapshot()) {
+            snapshot.forEachMark(visitor);
+        }
+    }
+
+    /**
+     * Drops the versions no open snapshot can see and the students removed before the oldest open snapshot
+     */
+    public void vacuum() {
+        begin();
+        try {
+            vacuumLocked();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void vacuumLocked() {
+        for (var entry : versions.entrySet()) {
+            final var head = entry.getValue();
+            prune(head);
+            if (head.student == null && head.number <= floor) {
+                versions.remove(entry.getKey(), head);
+            }
+        }
+        removedSinceVacuum = 0;
+    }
+
+    private void begin() {
+        writeLock.lock();
+        next = committed + 1;
+        synchronized (openSnapshots) {
+            floor = openSnapshots.isEmpty() ? committed : Math.min(openSnapshots.firstKey(), committed);
+        }
+    }
+
+    /**
+     * Publishes the change if it installed any version and releases the write lock
+     */
+    private void commit() {
+        try {
+            if (changed) {
+                changed = false;
+                committed = next;
+                if (removedSinceVacuum > Math.max(1024, versions.size() / 2)) {
+                    vacuumLocked();
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private boolean add(Student student) {
+        final var head = versions.get(student);
+        if (head != null && head.student != null) {
+            return false;
+        }
+        install(student, head, student, 0);
+        return true;
+    }
+
+    private boolean update(Student student, int bits, int mask) {
+        if (student == null) {
+            return false;
+        }
+        begin();
+        try {
+            return set(student, bits, mask);
+        } finally {
+            commit();
+        }
+    }
+
+    /**
+     * Replaces the bits of the marks selected by the mask
+     */
+    private boolean set(Student student, int bits, int mask) {
+        final var head = versions.get(student);
+        if (head == null || head.student == null) {
+            return false;
+        }
+        install(student, head, head.student, head.marks & ~mask | bits);
+        return true;
+    }
+
+    private void install(Student key, Version head, Student student, int marks) {
+        final Version version;
+        if (head != null && head.number == next) {
+            version = new Version(next, student, marks, head.previous);
+        } else {
+            version = new Version(next, student, marks, head);
+        }
+        prune(version);
+        versions.put(key, version);
+        changed = true;
+    }
+
+    /**
+     * Cuts the chain after the newest version not newer than the floor
+     */
+    private void prune(Version head) {
+        for (var version = head; version != null; version = version.previous) {
+            if (version.number <= floor) {
+                if (version.previous != null) {
+                    version.truncated = true;
+                    version.previous = null;
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return newest version of the chain not newer than the version number, null if there is none, or
+     * {@link #TRUNCATED} if it was dropped
+     */
+    private static Version visible(Version head, long number) {
+        var version = head;
+        if (version == null) {
+            return null;
+        }
+        while (version.number > number) {
+            // the link is read once: prune() sets the flag before clearing it, so a null link is either
+            // the end of the chain or a truncation that the flag already shows
+            final var previous = version.previous;
+            if (previous == null) {
+                return version.truncated ? TRUNCATED : null;
+            }
+            version = previous;
+        }
+        return version;
+    }
+
+    /**
+     * Reads the latest published version of the student without opening a snapshot. When a writer dropped
+     * the versions the read started at, it is repeated with the newer published version
+     */
+    private Version current(Student student) {
+        if (student == null) {
+            return null;
+        }
+        while (true) {
+            final var number = committed;
+            final var head = versions.get(student);
+            if (head == null) {
+                return null;
+            }
+            final var version = visible(head, number);
+            if (version != TRUNCATED) {
+                return version;
+            }
+        }
+    }
+
+    private static Grade grade(int marks) {
+        final var grade = new Grade();
+        grade.setFirstSemester(ConcurrentTraining.firstSemester(marks));
+        grade.setSecondSemester(ConcurrentTraining.secondSemester(marks));
+        return grade;
+    }
+
+    private static void checkStudent(Student student) {
+        if (student == null) {
+            throw new IllegalArgumentException("Empty field found");
+        }
+    }
+
+    private static void checkMark(int mark) {
+        if (mark < 0 || mark > 10) throw new IllegalArgumentException("wrong mark");
+    }
+
+    /**
+     * Snapshot is a read-only view of a {@link VersionedTraining} frozen at one version. Changes of the training
+     * made after the snapshot was opened are not visible through it. Changing the snapshot throws
+     * {@link UnsupportedOperationException}
+     */
+    public class Snapshot implements Training, GradeIterable, AutoCloseable {
+
+        private final long version;
+
+        private boolean closed;
+
+        private Snapshot(long version) {
+            this.version = version;
+        }
+
+        /**
+         * @return version number the snapshot is frozen at
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public List<Student> getStudents() {
+            final var students = new ArrayList<Student>();
+            forEachVisible(visible -> students.add(visible.student));
+            return students;
+        }
+
+        @Override
+        public boolean addStudent(Student student) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean removeStudent(Student student) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean rateFirstSemester(Student student, int mark) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean rateSecondSemester(Student student, int mark) {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean isPresent(Student student) {
+            final var visible = lookup(student);
+            return visible != null && visible.student != null;
+        }
+
+        @Override
+        public Optional<Grade> getStudentGrade(Student student) {
+            final var visible = lookup(student);
+            return visible == null || visible.student == null
+                    ? Optional.empty()
+                    : Optional.of(grade(visible.marks));
+        }
+
+        @Override
+        public void forEachGrade(BiConsumer<? super Student, ? super Grade> action) {
+            forEachVisible(visible -> action.accept(visible.student, grade(visible.marks)));
+        }
+
+        @Override
+        public void forEachMark(MarkVisitor visitor) {
+            forEachVisible(visible -> visitor.visit(visible.student,
+                    ConcurrentTraining.firstSemester(visible.marks), ConcurrentTraining.secondSemester(visible.marks)));
+        }
+
+        /**
+         * Releases the versions only this snapshot could see. Closing twice has no effect
+         */
+        @Override
+        public void close() {
+            synchronized (openSnapshots) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                openSnapshots.computeIfPresent(version, (key, count) -> count == 1 ? null : count - 1);
+            }
+        }
+
+        private Version lookup(Student student) {
+            checkOpen();
+            return student == null ? null : visible(versions.get(student), version);
+        }
+
+        private void forEachVisible(Consumer<Version> action) {
+            checkOpen();
+            for (var head : versions.values()) {
+                final var visible = visible(head, version);
+                if (visible != null && visible.student != null) {
+                    action.accept(visible);
+                }
+            }
+        }
+
+        private void checkOpen() {
+            synchronized (openSnapshots) {
+                if (closed) {
+                    throw new IllegalStateException("Snapshot is closed");
+                }
+            }
+        }
+
+        private UnsupportedOperationException readOnly() {
+            return new UnsupportedOperationException("Snapshot trainings are read-only");
+        }
+    }
+
+}
@@ -0,0 +1,323 @@
+package com.globallogic.basecamp.aggregation;
+
+import com.globallogic.basecamp.GradeIterable;
+import com.globallogic.basecamp.StudentRegistry;
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.analytics.MarkBucketProvider;
+import com.globallogic.basecamp.analytics.MarkStatistics;
+import com.globallogic.basecamp.analytics.MarkStatisticsProvider;
+import com.globallogic.basecamp.model.Semester;
+import com.globallogic.basecamp.model.Student;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mutable state of one {@link TrainingAggregator} pass. Not thread-safe: parallel passes give every thread its
+ * own accumulator and merge them with {@link #combine(Accumulator)}.
+ * <p>
+ * All accumulators of one pass share a {@link StudentRegistry}, so per-student state is kept in arrays indexed
+ * by the student id and merging two accumulators is an element-wise sum.
+ */
+class Accumulator {
+
+    private final TrainingAggregator aggregator;
+
+    private final StudentRegistry registry;
+
+    private long[] studentSums = new long[0];
+
+    private int[] studentCounts = new int[0];
+
+    /**
+     * training name -> {sum of marks, number of marks}
+     */
+    private final Map<String, long[]> trainingMarks = new LinkedHashMap<>();
+
+    private final ArrayList<List<String>> trainingsPerStudent = new ArrayList<>();
+
+    private final BitSet studentsWithMaxMark = new BitSet();
+
+    private final BitSet studentsWithMarkLowerThan = new BitSet();
+
+    private int maxMark = -1;
+
+    Accumulator(TrainingAggregator aggregator, StudentRegistry registry) {
+        this.aggregator = aggregator;
+        this.registry = registry;
+    }
+
+    /**
+     * Accepts the whole training, walking its students and marks in place when it is {@link GradeIterable}
+     *
+     * @param training training to accept
+     */
+    void accept(Training training) {
+        if (aggregator.needsRoster(training) && training instanceof GradeIterable) {
+            final var name = training.getName();
+            final var trainingTotals = trainingTotals(training);
+            ((GradeIterable) training).forEachMark(
+                    (student, first, second) -> acceptMarks(name, trainingTotals, student, first, second));
+        } else if (aggregator.needsRoster(training)) {
+            accept(training, training.getStudents());
+        }
+        acceptIndexes(training);
+    }
+
+    /**
+     * Takes the parts of the reports that the training keeps itself: per-training totals from its
+     * {@link MarkStatisticsProvider statistics} and, when its roster is not walked at all, the "max mark" and
+     * "lower than" students from its {@link MarkBucketProvider mark buckets}. Must be called once per training
+     *
+     * @param training training to accept
+     */
+    void acceptIndexes(Training training) {
+        if (aggregator.averageMarkPerTraining && training instanceof MarkStatisticsProvider) {
+            final var statistics = ((MarkStatisticsProvider) training).getMarkStatistics();
+            final var totals = trainingMarks.computeIfAbsent(training.getName(), key -> new long[2]);
+            totals[0] += statistics.getSum();
+            totals[1] += statistics.getCount();
+        }
+        if (aggregator.needsRoster(training) || !(training instanceof MarkBucketProvider)) {
+            return;
+        }
+        final var buckets = (MarkBucketProvider) training;
+        if (aggregator.studentsWithMaxMark) {
+            buckets.getMaxMark().ifPresent(max -> {
+                for (final var semester : Semester.values()) {
+                    buckets.forEachStudentWithMark(semester, max,
+                            student -> acceptMaxMark(registry.register(student.getEmail()), max));
+                }
+            });
+        }
+        if (aggregator.studentsWithMarkLowerThan) {
+            final var threshold = Math.min(aggregator.markThreshold, MarkStatistics.BUCKETS);
+            for (final var semester : Semester.values()) {
+                for (var mark = 0; mark < threshold; mark++) {
+                    buckets.forEachStudentWithMark(semester, mark,
+                            student -> studentsWithMarkLowerThan.set(registry.register(student.getEmail())));
+                }
+            }
+        }
+    }
+
+    /**
+     * Accepts a part of the training roster. Parts of one training may be accepted by different accumulators
+     * and merged afterwards
+     *
+     * @param training training the students attend
+     * @param students students to accept
+     */
+    void accept(Training training, List<Student> students) {
+        final var name = training.getName();
+        final var trainingTotals = trainingTotals(training);
+        final var readGrades = trainingTotals != null || aggregator.needsStudentGrades();
+        for (final var student : students) {
+            if (!readGrades) {
+                acceptMarks(name, null, student, GradeIterable.NO_MARK, GradeIterable.NO_MARK);
+                continue;
+            }
+            final var grade = training.getStudentGrade(student).orElse(null);
+            if (grade == null) {
+                acceptMarks(name, trainingTotals, student, GradeIterable.NO_MARK, GradeIterable.NO_MARK);
+            } else {
+                acceptMarks(name, trainingTotals, student, grade.getFirstSemester(), grade.getSecondSemester());
+            }
+        }
+    }
+
+    /**
+     * @return sum and count of the training marks to add to, or null if they are not walked for the training
+     */
+    private long[] trainingTotals(Training training) {
+        return aggregator.averageMarkPerTraining && !(training instanceof MarkStatisticsProvider)
+                ? trainingMarks.computeIfAbsent(training.getName(), key -> new long[2])
+                : null;
+    }
+
+    private void acceptMarks(String name, long[] trainingTotals, Student student, int first, int second) {
+        final var id = aggregator.needsStudentIds()
+                ? registry.register(student.getEmail())
+                : StudentRegistry.ABSENT;
+        if (aggregator.trainingsPerStudent) {
+            trainingsOf(id).add(name);
+        }
+        if (first == GradeIterable.NO_MARK) {
+            return;
+        }
+        if (trainingTotals != null) {
+            trainingTotals[0] += first + second;
+            trainingTotals[1] += 2;
+        }
+        if (aggregator.averageMarkPerStudent) {
+            ensureStudentCapacity(id + 1);
+            studentSums[id] += first + second;
+            studentCounts[id] += 2;
+        }
+        if (aggregator.studentsWithMaxMark) {
+            acceptMaxMark(id, Math.max(first, second));
+        }
+        if (aggregator.studentsWithMarkLowerThan
+                && (first < aggregator.markThreshold || second < aggregator.markThreshold)) {
+            studentsWithMarkLowerThan.set(id);
+        }
+    }
+
+    private List<String> trainingsOf(int id) {
+        while (trainingsPerStudent.size() <= id) {
+            trainingsPerStudent.add(null);
+        }
+        var names = trainingsPerStudent.get(id);
+        if (names == null) {
+            names = new ArrayList<>(2);
+            trainingsPerStudent.set(id, names);
+        }
+        return names;
+    }
+
+    private void ensureStudentCapacity(int capacity) {
+        if (studentSums.length < capacity) {
+            final var newCapacity = Math.max(capacity, Math.max(16, studentSums.length * 2));
+            studentSums = Arrays.copyOf(studentSums, newCapacity);
+            studentCounts = Arrays.copyOf(studentCounts, newCapacity);
+        }
+    }
+
+    private void acceptMaxMark(int id, int mark) {
+        if (mark > maxMark) {
+            maxMark = mark;
+            studentsWithMaxMark.clear();
+        }
+        if (mark == maxMark) {
+            studentsWithMaxMark.set(id);
+        }
+    }
+
+    /**
+     * Merges the state of an accumulator that saw trainings encountered after the trainings of this one
+     *
+     * @param other accumulator to merge
+     * @return this accumulator
+     */
+    Accumulator combine(Accumulator other) {
+        ensureStudentCapacity(other.studentSums.length);
+        for (var id = 0; id < other.studentSums.length; id++) {
+            studentSums[id] += other.studentSums[id];
+            studentCounts[id] += other.studentCounts[id];
+        }
+        other.trainingMarks.forEach((key, totals) -> trainingMarks.merge(key, totals, (left, right) -> {
+            left[0] += right[0];
+            left[1] += right[1];
+            return left;
+        }));
+        for (var id = 0; id < other.trainingsPerStudent.size(); id++) {
+            final var names = other.trainingsPerStudent.get(id);
+            if (names != null) {
+                trainingsOf(id).addAll(names);
+            }
+        }
+        if (other.maxMark > maxMark) {
+            maxMark = other.maxMark;
+            studentsWithMaxMark.clear();
+        }
+        if (other.maxMark == maxMark) {
+            studentsWithMaxMark.or(other.studentsWithMaxMark);
+        }
+        studentsWithMarkLowerThan.or(other.studentsWithMarkLowerThan);
+        return this;
+    }
+
+    AggregationResult finish() {
+        return new AggregationResult(
+                aggregator.averageMarkPerStudent ? averageMarkPerStudent() : null,
+                aggregator.averageMarkPerTraining ? averageMarkPerTraining() : null,
+                aggregator.trainingsPerStudent ? trainingsPerStudent() : null,
+                aggregator.studentsWithMaxMark ? emailsOf(studentsWithMaxMark) : null,
+                aggregator.studentsWithMarkLowerThan ? emailsOf(studentsWithMarkLowerThan) : null);
+    }
+
+    /**
+     * Hands the requested reports to the sink straight from the id-indexed state, without building the maps
+     * of {@link #finish()}. Trainings of a student are released once they are written
+     *
+     * @param sink sink to write to
+     * @throws IOException if the sink fails
+     */
+    void writeTo(ReportSink sink) throws IOException {
+        if (aggregator.averageMarkPerStudent) {
+            for (var id = 0; id < studentCounts.length; id++) {
+                if (studentCounts[id] > 0) {
+                    sink.averageMarkPerStudent(registry.emailOf(id), (double) studentSums[id] / studentCounts[id]);
+                }
+            }
+        }
+        if (aggregator.averageMarkPerTraining) {
+            for (var entry : trainingMarks.entrySet()) {
+                final var marks = entry.getValue();
+                sink.averageMarkPerTraining(entry.getKey(), marks[1] == 0 ? 0.0 : (double) marks[0] / marks[1]);
+            }
+        }
+        if (aggregator.trainingsPerStudent) {
+            for (var id = 0; id < trainingsPerStudent.size(); id++) {
+                final var names = trainingsPerStudent.set(id, null);
+                if (names != null) {
+                    sink.trainingsPerStudent(registry.emailOf(id), names);
+                }
+            }
+        }
+        if (aggregator.studentsWithMaxMark) {
+            for (var id = studentsWithMaxMark.nextSetBit(0); id >= 0; id = studentsWithMaxMark.nextSetBit(id + 1)) {
+                sink.studentWithMaxMark(registry.emailOf(id));
+            }
+        }
+        if (aggregator.studentsWithMarkLowerThan) {
+            for (var id = studentsWithMarkLowerThan.nextSetBit(0); id >= 0;
+                 id = studentsWithMarkLowerThan.nextSetBit(id + 1)) {
+                sink.studentWithMarkLowerThan(registry.emailOf(id));
+            }
+        }
+    }
+
+    private Map<String, Double> averageMarkPerStudent() {
+        final var averages = new HashMap<String, Double>();
+        for (var id = 0; id < studentCounts.length; id++) {
+            if (studentCounts[id] > 0) {
+                averages.put(registry.emailOf(id), (double) studentSums[id] / studentCounts[id]);
+            }
+        }
+        return averages;
+    }
+
+    private Map<String, Double> averageMarkPerTraining() {
+        final var averages = new HashMap<String, Double>();
+        trainingMarks.forEach((name, marks) ->
+                averages.put(name, marks[1] == 0 ? 0.0 : (double) marks[0] / marks[1]));
+        return averages;
+    }
+
+    private Map<String, List<String>> trainingsPerStudent() {
+        final var result = new HashMap<String, List<String>>();
+        for (var id = 0; id < trainingsPerStudent.size(); id++) {
+            final var names = trainingsPerStudent.get(id);
+            if (names != null) {
+                result.put(registry.emailOf(id), names);
+            }
+        }
+        return result;
+    }
+
+    private List<String> emailsOf(BitSet ids) {
+        final var emails = new ArrayList<String>(ids.cardinality());
+        for (var id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            emails.add(registry.emailOf(id));
+        }
+        return emails;
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.globallogic.basecamp.aggregation;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AggregationResult holds the reports computed by one {@link TrainingAggregator} pass.
+ * <p>
+ * Asking for a report that was not requested from the aggregator throws {@link IllegalStateException}.
+ */
+public class AggregationResult {
+
+    private final Map<String, Double> averageMarkPerStudent;
+
+    private final Map<String, Double> averageMarkPerTraining;
+
+    private final Map<String, List<String>> trainingsPerStudent;
+
+    private final List<String> studentsWithMaxMark;
+
+    private final List<String> studentsWithMarkLowerThan;
+
+    AggregationResult(Map<String, Double> averageMarkPerStudent,
+                      Map<String, Double> averageMarkPerTraining,
+                      Map<String, List<String>> trainingsPerStudent,
+                      List<String> studentsWithMaxMark,
+                      List<String> studentsWithMarkLowerThan) {
+        this.averageMarkPerStudent = averageMarkPerStudent;
+        this.averageMarkPerTraining = averageMarkPerTraining;
+        this.trainingsPerStudent = trainingsPerStudent;
+        this.studentsWithMaxMark = studentsWithMaxMark;
+        this.studentsWithMarkLowerThan = studentsWithMarkLowerThan;
+    }
+
+    /**
+     * @return map where keys are student emails and values are student average marks over both semesters
+     */
+    public Map<String, Double> getAverageMarkPerStudent() {
+        return requested(averageMarkPerStudent, "average mark per student");
+    }
+
+    /**
+     * @return map where keys are training names and values are average marks over both semesters
+     */
+    public Map<String, Double> getAverageMarkPerTraining() {
+        return requested(averageMarkPerTraining, "average mark per training");
+    }
+
+    /**
+     * @return map where keys are student emails and values are names of the trainings the student attends
+     */
+    public Map<String, List<String>> getTrainingsPerStudent() {
+        return requested(trainingsPerStudent, "trainings per student");
+    }
+
+    /**
+     * @return emails of the students with the highest mark received during any semester
+     */
+    public List<String> getStudentsWithMaxMark() {
+        return requested(studentsWithMaxMark, "students with max mark");
+    }
+
+    /**
+     * @return emails of the students that received a mark lower than the requested one
+     */
+    public List<String> getStudentsWithMarkLowerThan() {
+        return requested(studentsWithMarkLowerThan, "students with mark lower than");
+    }
+
+    private static <T> T requested(T report, String name) {
+        if (report == null) {
+            throw new IllegalStateException("Report was not requested: " + name);
+        }
+        return report;
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.globallogic.basecamp.aggregation;
+
+import com.globallogic.basecamp.StudentRegistry;
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.model.Student;
+import com.globallogic.basecamp.shard.PartitionedTraining;
+
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join task of the {@link TrainingAggregator} parallel mode.
+ * <p>
+ * A range of trainings is split in halves until a single training is left. A training whose roster is larger
+ * than the chunk size is split further into roster chunks, so one huge training does not keep a single worker
+ * busy while the others are idle. A {@link PartitionedTraining} is split into its partitions first, each of them
+ * is aggregated on its own and the partial results are merged like those of trainings with the same name.
+ */
+class AggregationTask extends RecursiveTask<Accumulator> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final TrainingAggregator aggregator;
+
+    private final StudentRegistry registry;
+
+    private final List<? extends Training> trainings;
+
+    private final Training training;
+
+    private final List<Student> students;
+
+    private AggregationTask(TrainingAggregator aggregator, StudentRegistry registry,
+                            List<? extends Training> trainings, Training training, List<Student> students) {
+        this.aggregator = aggregator;
+        this.registry = registry;
+        this.trainings = trainings;
+        this.training = training;
+        this.students = students;
+    }
+
+    static AggregationTask forTrainings(TrainingAggregator aggregator, StudentRegistry registry,
+                                        List<? extends Training> trainings) {
+        return new AggregationTask(aggregator, registry, trainings, null, null);
+    }
+
+    private AggregationTask forTrainings(List<? extends Training> trainings) {
+        return new AggregationTask(aggregator, registry, trainings, null, null);
+    }
+
+    private AggregationTask forStudents(Training training, List<Student> students) {
+        return new AggregationTask(aggregator, registry, null, training, students);
+    }
+
+    @Override
+    protected Accumulator compute() {
+        return training == null ? computeTrainings() : computeStudents();
+    }
+
+    private Accumulator computeTrainings() {
+        if (trainings.isEmpty()) {
+            return new Accumulator(aggregator, registry);
+        }
+        if (trainings.size() == 1) {
+            final var single = trainings.get(0);
+            if (single instanceof PartitionedTraining && aggregator.needsRoster(single)) {
+                return forTrainings(((PartitionedTraining) single).getPartitions()).compute();
+            }
+            final var accumulator = aggregator.needsRoster(single)
+                    ? forStudents(single, single.getStudents()).compute()
+                    : new Accumulator(aggregator, registry);
+            accumulator.acceptIndexes(single);
+            return accumulator;
+        }
+        final var middle = trainings.size() / 2;
+        final var right = forTrainings(trainings.subList(middle, trainings.size()));
+        right.fork();
+        final var left = forTrainings(trainings.subList(0, middle)).compute();
+        return left.combine(right.join());
+    }
+
+    private Accumulator computeStudents() {
+        if (students.size() <= aggregator.chunkSize) {
+            final var accumulator = new Accumulator(aggregator, registry);
+            accumulator.accept(training, students);
+            return accumulator;
+        }
+        final var middle = students.size() / 2;
+        final var right = forStudents(training, students.subList(middle, students.size()));
+        right.fork();
+        final var left = forStudents(training, students.subList(0, middle)).compute();
+        return left.combine(right.join());
+    }
+
+}
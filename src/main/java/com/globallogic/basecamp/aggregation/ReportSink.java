@@ -0,0 +1,41 @@
+package com.globallogic.basecamp.aggregation;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * ReportSink receives the reports of a {@link TrainingAggregator#export export} one entry at a time, instead
+ * of the maps and lists of an {@link AggregationResult}. Every method is called only for requested reports,
+ * reports are delivered one after another in the order the methods are declared.
+ * <p>
+ * Implementations usually write the entries out, e.g. {@link com.globallogic.basecamp.io.ReportWriter}.
+ * Arguments must not be kept after the call returns.
+ */
+public interface ReportSink {
+
+    default void averageMarkPerStudent(String email, double average) throws IOException {
+
+    }
+
+    default void averageMarkPerTraining(String training, double average) throws IOException {
+
+    }
+
+    /**
+     * @param email     student email
+     * @param trainings names of the trainings the student attends
+     * @throws IOException if the entry cannot be written
+     */
+    default void trainingsPerStudent(String email, List<String> trainings) throws IOException {
+
+    }
+
+    default void studentWithMaxMark(String email) throws IOException {
+
+    }
+
+    default void studentWithMarkLowerThan(String email) throws IOException {
+
+    }
+
+}
@@ -0,0 +1,291 @@
+package com.globallogic.basecamp.aggregation;
+
+import com.globallogic.basecamp.StudentRegistry;
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.analytics.MarkBucketProvider;
+import com.globallogic.basecamp.analytics.MarkStatisticsProvider;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+/**
+ * TrainingAggregator computes several {@link com.globallogic.basecamp.TrainingUtils TrainingUtils} reports
+ * in a single pass over a stream of trainings.
+ * <p>
+ * Every training is visited once, its students are read once and every student grade is looked up once,
+ * no matter how many reports were requested. Only the requested reports are computed.
+ * <p>
+ * The aggregation is a proper {@link Collector}, so it gives the same answers for sequential and parallel
+ * streams. {@link #aggregateParallel(Collection)} additionally splits large trainings by roster chunks.
+ * Partial results of trainings with the same name are merged into one per-training average, so the parallel
+ * mode aggregates the partitions of a {@link com.globallogic.basecamp.shard.PartitionedTraining
+ * PartitionedTraining} separately and merges them.
+ * <p>
+ * Per-training averages of trainings that implement {@link MarkStatisticsProvider} are read from the kept
+ * statistics. When the only per-student reports are "max mark" and "lower than", trainings implementing
+ * {@link MarkBucketProvider} answer them from their mark buckets, and their rosters are not walked at all.
+ * <p>
+ * Students are joined across trainings by their {@link StudentRegistry} id, so each email is hashed once per
+ * pass. Every pass uses a fresh registry unless a shared one is set on the builder.
+ * <p>
+ * {@link #export(Stream, ReportSink)} hands the reports to a {@link ReportSink} entry by entry instead, so
+ * only the primitive per-student state of the pass is kept and no result maps are built.
+ *
+ * <pre>{@code
+ * AggregationResult result = TrainingAggregator.builder()
+ *         .withAverageMarkPerStudent()
+ *         .withStudentsWithMarkLowerThan(4)
+ *         .build()
+ *         .aggregate(trainings.stream());
+ * }</pre>
+ */
+public class TrainingAggregator {
+
+    final boolean averageMarkPerStudent;
+
+    final boolean averageMarkPerTraining;
+
+    final boolean trainingsPerStudent;
+
+    final boolean studentsWithMaxMark;
+
+    final boolean studentsWithMarkLowerThan;
+
+    final int markThreshold;
+
+    final int chunkSize;
+
+    private final StudentRegistry registry;
+
+    private TrainingAggregator(Builder builder) {
+        this.averageMarkPerStudent = builder.averageMarkPerStudent;
+        this.averageMarkPerTraining = builder.averageMarkPerTraining;
+        this.trainingsPerStudent = builder.trainingsPerStudent;
+        this.studentsWithMaxMark = builder.studentsWithMaxMark;
+        this.studentsWithMarkLowerThan = builder.studentsWithMarkLowerThan;
+        this.markThreshold = builder.markThreshold;
+        this.chunkSize = builder.chunkSize;
+        this.registry = builder.registry;
+    }
+
+    /**
+     * Allows to get the builder for the TrainingAggregator
+     *
+     * @return builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Computes all requested reports in one pass over the trainings
+     *
+     * @param trainings stream of trainings
+     * @return result holding every requested report
+     */
+    public AggregationResult aggregate(Stream<? extends Training> trainings) {
+        return trainings.collect(collector());
+    }
+
+    /**
+     * Returns the aggregation as a collector that may be used with both sequential and parallel streams
+     *
+     * @return collector of trainings into the aggregation result
+     */
+    public Collector<Training, ?, AggregationResult> collector() {
+        final var passRegistry = registryForPass();
+        return Collector.of(() -> new Accumulator(this, passRegistry), Accumulator::accept, Accumulator::combine,
+                Accumulator::finish);
+    }
+
+    /**
+     * Computes all requested reports using the common fork/join pool. Work is split across trainings, across
+     * the partitions of partitioned trainings and across roster chunks of trainings with more students than the
+     * chunk size
+     *
+     * @param trainings trainings to aggregate
+     * @return result holding every requested report
+     */
+    public AggregationResult aggregateParallel(Collection<? extends Training> trainings) {
+        return aggregateParallel(trainings, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes all requested reports using the provided fork/join pool
+     *
+     * @param trainings trainings to aggregate
+     * @param pool      pool to run the aggregation in
+     * @return result holding every requested report
+     */
+    public AggregationResult aggregateParallel(Collection<? extends Training> trainings, ForkJoinPool pool) {
+        final List<? extends Training> list = trainings instanceof List
+                ? (List<? extends Training>) trainings
+                : new ArrayList<>(trainings);
+        return pool.invoke(AggregationTask.forTrainings(this, registryForPass(), list)).finish();
+    }
+
+    /**
+     * Computes all requested reports in one pass over the trainings and hands them to the sink
+     *
+     * @param trainings stream of trainings
+     * @param sink      sink receiving every entry of the requested reports
+     * @throws IOException if the sink fails
+     */
+    public void export(Stream<? extends Training> trainings, ReportSink sink) throws IOException {
+        final var passRegistry = registryForPass();
+        final Collector<Training, Accumulator, Accumulator> collector = Collector.of(
+                () -> new Accumulator(this, passRegistry), Accumulator::accept, Accumulator::combine);
+        trainings.collect(collector).writeTo(sink);
+    }
+
+    /**
+     * Same as {@link #aggregateParallel(Collection)}, handing the reports to the sink
+     *
+     * @param trainings trainings to aggregate
+     * @param sink      sink receiving every entry of the requested reports
+     * @throws IOException if the sink fails
+     */
+    public void exportParallel(Collection<? extends Training> trainings, ReportSink sink) throws IOException {
+        final List<? extends Training> list = trainings instanceof List
+                ? (List<? extends Training>) trainings
+                : new ArrayList<>(trainings);
+        ForkJoinPool.commonPool().invoke(AggregationTask.forTrainings(this, registryForPass(), list)).writeTo(sink);
+    }
+
+    private StudentRegistry registryForPass() {
+        return registry != null ? registry : new StudentRegistry();
+    }
+
+    /**
+     * Whether the aggregation keeps any per-student state
+     */
+    boolean needsStudentIds() {
+        return averageMarkPerStudent || trainingsPerStudent || studentsWithMaxMark || studentsWithMarkLowerThan;
+    }
+
+    /**
+     * Whether the aggregation needs to read grades of every student for per-student reports
+     */
+    boolean needsStudentGrades() {
+        return averageMarkPerStudent || studentsWithMaxMark || studentsWithMarkLowerThan;
+    }
+
+    /**
+     * Whether the aggregation needs to walk the roster of the training, or may take everything it needs from
+     * the statistics and mark buckets kept by the training
+     */
+    boolean needsRoster(Training training) {
+        return averageMarkPerStudent || trainingsPerStudent
+                || averageMarkPerTraining && !(training instanceof MarkStatisticsProvider)
+                || (studentsWithMaxMark || studentsWithMarkLowerThan) && !(training instanceof MarkBucketProvider);
+    }
+
+    /**
+     * Builder class is a part of the builder pattern implementation
+     * Needed to choose the reports computed by the aggregator
+     */
+    public static class Builder {
+
+        private boolean averageMarkPerStudent;
+
+        private boolean averageMarkPerTraining;
+
+        private boolean trainingsPerStudent;
+
+        private boolean studentsWithMaxMark;
+
+        private boolean studentsWithMarkLowerThan;
+
+        private int markThreshold;
+
+        private int chunkSize = 8192;
+
+        private StudentRegistry registry;
+
+        private Builder() {
+
+        }
+
+        public Builder withAverageMarkPerStudent() {
+            this.averageMarkPerStudent = true;
+            return this;
+        }
+
+        public Builder withAverageMarkPerTraining() {
+            this.averageMarkPerTraining = true;
+            return this;
+        }
+
+        public Builder withTrainingsPerStudent() {
+            this.trainingsPerStudent = true;
+            return this;
+        }
+
+        public Builder withStudentsWithMaxMark() {
+            this.studentsWithMaxMark = true;
+            return this;
+        }
+
+        /**
+         * Requests students that received a mark lower than the provided one on any training during any semester
+         *
+         * @param mark student mark
+         * @return builder
+         */
+        public Builder withStudentsWithMarkLowerThan(int mark) {
+            this.studentsWithMarkLowerThan = true;
+            this.markThreshold = mark;
+            return this;
+        }
+
+        /**
+         * Requests every report supported by the aggregator
+         *
+         * @param mark mark used for the "lower than" report
+         * @return builder
+         */
+        public Builder withAll(int mark) {
+            return withAverageMarkPerStudent()
+                    .withAverageMarkPerTraining()
+                    .withTrainingsPerStudent()
+                    .withStudentsWithMaxMark()
+                    .withStudentsWithMarkLowerThan(mark);
+        }
+
+        /**
+         * Sets the largest roster part aggregated by one task in the parallel mode
+         *
+         * @param chunkSize number of students
+         * @return builder
+         */
+        public Builder setChunkSize(int chunkSize) {
+            if (chunkSize < 1) {
+                throw new IllegalArgumentException("Chunk size must be positive");
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * Sets the registry shared by all passes of the aggregator, e.g. to keep student ids stable between
+         * nightly reports
+         *
+         * @param registry thread-safe student registry
+         * @return builder
+         */
+        public Builder setRegistry(StudentRegistry registry) {
+            this.registry = registry;
+            return this;
+        }
+
+        public TrainingAggregator build() {
+            return new TrainingAggregator(this);
+        }
+    }
+
+}
@@ -0,0 +1,254 @@
+package com.globallogic.basecamp.analytics;
+
+import com.globallogic.basecamp.GradeIterable;
+import com.globallogic.basecamp.Grades;
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.batch.BatchResult;
+import com.globallogic.basecamp.batch.BulkTraining;
+import com.globallogic.basecamp.batch.GradeBatch;
+import com.globallogic.basecamp.model.Grade;
+import com.globallogic.basecamp.model.Semester;
+import com.globallogic.basecamp.model.Student;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * AggregatingTraining is a {@link Training} decorator that keeps the {@link MarkStatistics} of the decorated
+ * training up to date on every enrolment, removal and rating, so the training average, the lowest and highest
+ * mark and the mark distribution are read in constant time instead of walking the roster. It also keeps the
+ * students in {@link MarkBucketProvider buckets} by mark for each semester, so threshold queries only visit
+ * the students they return.
+ * <p>
+ * Every change compares the grade of the student before and after the call and moves the marks between the
+ * histogram buckets, so the statistics follow whatever the decorated training does with the grade (e.g. a new
+ * student getting zero marks). Changes must therefore go through the decorator: the grades it returns are
+ * copies whose setters {@link Grades#writingThrough rate} the student on the decorator.
+ * <p>
+ * Changes and statistics reads are serialised on the decorator, roster reads go straight to the decorated
+ * training.
+ */
+public class AggregatingTraining
+        implements Training, GradeIterable, BulkTraining, MarkStatisticsProvider, MarkBucketProvider {
+
+    private static final int NO_GRADE = -1;
+
+    private final Training delegate;
+
+    private final long[] histogram = new long[MarkStatistics.BUCKETS];
+
+    /**
+     * Students by mark, the bucket of a semester mark is {@code semester.ordinal() * BUCKETS + mark}
+     */
+    private final List<HashSet<Student>> buckets = new ArrayList<>();
+
+    /**
+     * Decorates the training and reads the marks it already has
+     *
+     * @param delegate training to decorate
+     */
+    public AggregatingTraining(Training delegate) {
+        this.delegate = delegate;
+        for (var bucket = 0; bucket < Semester.values().length * MarkStatistics.BUCKETS; bucket++) {
+            buckets.add(new HashSet<>());
+        }
+        GradeIterable.forEachMark(delegate, (student, first, second) ->
+                count(student, first == NO_MARK ? NO_GRADE : first | second << 8, 1));
+    }
+
+    @Override
+    public synchronized MarkStatistics getMarkStatistics() {
+        return new MarkStatistics(histogram.clone());
+    }
+
+    /**
+     * Visits the bucket holding the decorator lock, so the action must not change the training
+     */
+    @Override
+    public synchronized void forEachStudentWithMark(Semester semester, int mark, Consumer<Student> action) {
+        if (mark < 0 || mark >= MarkStatistics.BUCKETS) throw new IllegalArgumentException("wrong mark");
+        buckets.get(semester.ordinal() * MarkStatistics.BUCKETS + mark).forEach(action);
+    }
+
+    @Override
+    public synchronized OptionalInt getMaxMark() {
+        return getMarkStatistics().getMax();
+    }
+
+    @Override
+    public synchronized List<Student> getStudentsWithMarkLowerThan(int mark) {
+        return MarkBucketProvider.super.getStudentsWithMarkLowerThan(mark);
+    }
+
+    @Override
+    public synchronized List<Student> getStudentsWithMaxMark() {
+        return MarkBucketProvider.super.getStudentsWithMaxMark();
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public List<Student> getStudents() {
+        return delegate.getStudents();
+    }
+
+    @Override
+    public synchronized boolean addStudent(Student student) {
+        final var added = delegate.addStudent(student);
+        if (added) {
+            count(student, marksOf(student), 1);
+        }
+        return added;
+    }
+
+    @Override
+    public synchronized boolean removeStudent(Student student) {
+        final var before = marksOf(student);
+        final var removed = delegate.removeStudent(student);
+        if (removed) {
+            count(student, before, -1);
+        }
+        return removed;
+    }
+
+    @Override
+    public synchronized boolean rateFirstSemester(Student student, int mark) {
+        final var before = marksOf(student);
+        final var rated = delegate.rateFirstSemester(student, mark);
+        if (rated) {
+            count(student, before, -1);
+            count(student, marksOf(student), 1);
+        }
+        return rated;
+    }
+
+    @Override
+    public synchronized boolean rateSecondSemester(Student student, int mark) {
+        final var before = marksOf(student);
+        final var rated = delegate.rateSecondSemester(student, mark);
+        if (rated) {
+            count(student, before, -1);
+            count(student, marksOf(student), 1);
+        }
+        return rated;
+    }
+
+    @Override
+    public synchronized BatchResult addStudents(List<Student> students) {
+        final var result = BulkTraining.addStudents(delegate, students);
+        for (var i = 0; i < students.size(); i++) {
+            if (result.isApplied(i)) {
+                count(students.get(i), marksOf(students.get(i)), 1);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Applies the batch to the decorated training at once and recounts every student of the batch afterwards
+     *
+     * @param batch validated grade updates
+     * @return per-record result
+     */
+    @Override
+    public synchronized BatchResult rate(GradeBatch batch) {
+        final var before = new HashMap<Student, Integer>();
+        for (var i = 0; i < batch.size(); i++) {
+            before.computeIfAbsent(batch.getStudent(i), this::marksOf);
+        }
+        final var result = BulkTraining.rate(delegate, batch);
+        before.forEach((student, marks) -> {
+            count(student, marks, -1);
+            count(student, marksOf(student), 1);
+        });
+        return result;
+    }
+
+    @Override
+    public synchronized boolean rate(Student student, int firstSemester, int secondSemester) {
+        final var before = marksOf(student);
+        final var rated = BulkTraining.rate(delegate, student, firstSemester, secondSemester);
+        if (rated) {
+            count(student, before, -1);
+            count(student, marksOf(student), 1);
+        }
+        return rated;
+    }
+
+    /**
+     * Takes the marks of every matching student out of the statistics while the decorated training removes it
+     *
+     * @param predicate condition whether to remove a student
+     * @return number of removed students
+     */
+    @Override
+    public synchronized int removeStudentsIf(Predicate<? super Student> predicate) {
+        return BulkTraining.removeStudentsIf(delegate, student -> {
+            if (!predicate.test(student)) {
+                return false;
+            }
+            count(student, marksOf(student), -1);
+            return true;
+        });
+    }
+
+    @Override
+    public boolean isPresent(Student student) {
+        return delegate.isPresent(student);
+    }
+
+    @Override
+    public Optional<Grade> getStudentGrade(Student student) {
+        return delegate.getStudentGrade(student).map(grade -> Grades.writingThrough(grade, this, student));
+    }
+
+    @Override
+    public void forEachGrade(BiConsumer<? super Student, ? super Grade> action) {
+        GradeIterable.forEachGrade(delegate, (student, grade) ->
+                action.accept(student, grade == null ? null : Grades.writingThrough(grade, this, student)));
+    }
+
+    @Override
+    public void forEachMark(MarkVisitor visitor) {
+        GradeIterable.forEachMark(delegate, visitor);
+    }
+
+    /**
+     * @return both marks of the student packed into one int, or {@link #NO_GRADE}
+     */
+    private int marksOf(Student student) {
+        return delegate.getStudentGrade(student)
+                .map(grade -> grade.getFirstSemester() | grade.getSecondSemester() << 8)
+                .orElse(NO_GRADE);
+    }
+
+    private void count(Student student, int marks, int delta) {
+        if (marks == NO_GRADE) {
+            return;
+        }
+        final var first = marks & 0xFF;
+        final var second = marks >>> 8;
+        histogram[first] += delta;
+        histogram[second] += delta;
+        final var firstBucket = buckets.get(first);
+        final var secondBucket = buckets.get(MarkStatistics.BUCKETS + second);
+        if (delta > 0) {
+            firstBucket.add(student);
+            secondBucket.add(student);
+        } else {
+            firstBucket.remove(student);
+            secondBucket.remove(student);
+        }
+    }
+
+}
@@ -0,0 +1,338 @@
+package com.globallogic.basecamp.analytics;
+
+import com.globallogic.basecamp.GradeIterable;
+import com.globallogic.basecamp.StudentRegistry;
+import com.globallogic.basecamp.Training;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * GradeMatrix is an immutable columnar copy of the student x training grades built for analytics.
+ * <p>
+ * Students are identified by their {@link StudentRegistry} ids and trainings get dense int ids in the order
+ * they are met. The matrix is stored in the compressed sparse row layout: the entries of training {@code t}
+ * occupy positions {@code trainingOffsets[t]} to {@code trainingOffsets[t + 1] - 1} of two parallel columns,
+ * the student id column and the mark column. Marks never exceed 10, so both semesters of an entry share one byte: the low
+ * nibble is the first semester and the high nibble is the second one. An entry without a grade is stored as
+ * {@link #NO_GRADE}.
+ * <p>
+ * A grade therefore costs 5 bytes instead of a {@code HashMap} entry, a {@code Student} key and a
+ * {@code Grade} object, and the reports below are plain loops over primitive arrays.
+ */
+public class GradeMatrix {
+
+    /**
+     * Mark column value of an entry whose student has no grade
+     */
+    public static final byte NO_GRADE = (byte) 0xFF;
+
+    private final StudentRegistry registry;
+
+    private final int studentCount;
+
+    private final String[] trainingNames;
+
+    private final int[] trainingOffsets;
+
+    private final int[] studentIds;
+
+    private final byte[] marks;
+
+    private GradeMatrix(StudentRegistry registry, String[] trainingNames, int[] trainingOffsets, int[] studentIds,
+                        byte[] marks) {
+        this.registry = registry;
+        this.studentCount = registry.size();
+        this.trainingNames = trainingNames;
+        this.trainingOffsets = trainingOffsets;
+        this.studentIds = studentIds;
+        this.marks = marks;
+    }
+
+    /**
+     * Builds the matrix reading every training once
+     *
+     * @param trainings trainings to copy
+     * @return matrix
+     */
+    public static GradeMatrix of(Collection<? extends Training> trainings) {
+        return of(trainings.stream());
+    }
+
+    /**
+     * Builds the matrix reading every training once
+     *
+     * @param trainings stream of trainings to copy
+     * @return matrix
+     */
+    public static GradeMatrix of(Stream<? extends Training> trainings) {
+        return of(trainings, new StudentRegistry());
+    }
+
+    /**
+     * Builds the matrix using ids of a shared registry, so that several matrices or other id-based
+     * structures agree on student ids
+     *
+     * @param trainings stream of trainings to copy
+     * @param registry  registry assigning student ids
+     * @return matrix
+     */
+    public static GradeMatrix of(Stream<? extends Training> trainings, StudentRegistry registry) {
+        final var builder = new MatrixBuilder(registry);
+        trainings.sequential().forEach(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * @return number of student ids, which is the registry size when the matrix was built
+     */
+    public int getStudentCount() {
+        return studentCount;
+    }
+
+    public int getTrainingCount() {
+        return trainingNames.length;
+    }
+
+    public int getEntryCount() {
+        return studentIds.length;
+    }
+
+    public String getEmail(int studentId) {
+        return registry.emailOf(studentId);
+    }
+
+    public StudentRegistry getRegistry() {
+        return registry;
+    }
+
+    public String getTrainingName(int trainingId) {
+        return trainingNames[trainingId];
+    }
+
+    /**
+     * Approximate heap size of the primitive columns, strings excluded
+     *
+     * @return size in bytes
+     */
+    public long getColumnBytes() {
+        return 4L * trainingOffsets.length + 4L * studentIds.length + marks.length;
+    }
+
+    /**
+     * Visits every graded entry in training order
+     *
+     * @param visitor visitor receiving primitive ids and marks
+     */
+    public void forEachGrade(GradeVisitor visitor) {
+        for (var training = 0; training < trainingNames.length; training++) {
+            for (var entry = trainingOffsets[training]; entry < trainingOffsets[training + 1]; entry++) {
+                final var packed = marks[entry];
+                if (packed != NO_GRADE) {
+                    visitor.visit(studentIds[entry], training, first(packed), second(packed));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return map where keys are student emails and values are student average marks over both semesters
+     */
+    public Map<String, Double> averageMarkPerStudent() {
+        final var sums = new long[studentCount];
+        final var counts = new int[studentCount];
+        for (var entry = 0; entry < marks.length; entry++) {
+            final var packed = marks[entry];
+            if (packed != NO_GRADE) {
+                final var student = studentIds[entry];
+                sums[student] += first(packed) + second(packed);
+                counts[student] += 2;
+            }
+        }
+        final var result = new HashMap<String, Double>(capacity(studentCount));
+        for (var student = 0; student < studentCount; student++) {
+            if (counts[student] > 0) {
+                result.put(registry.emailOf(student), (double) sums[student] / counts[student]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return map where keys are training names and values are average marks over both semesters
+     */
+    public Map<String, Double> averageMarkPerTraining() {
+        final var sums = new HashMap<String, long[]>(capacity(trainingNames.length));
+        for (var training = 0; training < trainingNames.length; training++) {
+            long sum = 0;
+            long count = 0;
+            for (var entry = trainingOffsets[training]; entry < trainingOffsets[training + 1]; entry++) {
+                final var packed = marks[entry];
+                if (packed != NO_GRADE) {
+                    sum += first(packed) + second(packed);
+                    count += 2;
+                }
+            }
+            final var totals = sums.computeIfAbsent(trainingNames[training], name -> new long[2]);
+            totals[0] += sum;
+            totals[1] += count;
+        }
+        final var result = new HashMap<String, Double>(capacity(sums.size()));
+        sums.forEach((name, totals) -> result.put(name, totals[1] == 0 ? 0.0 : (double) totals[0] / totals[1]));
+        return result;
+    }
+
+    /**
+     * @return map where keys are student emails and values are names of the trainings the student attends
+     */
+    public Map<String, List<String>> trainingsPerStudent() {
+        final var counts = new int[studentCount];
+        for (final var student : studentIds) {
+            counts[student]++;
+        }
+        final var result = new HashMap<String, List<String>>(capacity(studentCount));
+        final var lists = new ArrayList<List<String>>(studentCount);
+        for (var student = 0; student < studentCount; student++) {
+            if (counts[student] == 0) {
+                lists.add(null);
+                continue;
+            }
+            final var names = new ArrayList<String>(counts[student]);
+            lists.add(names);
+            result.put(registry.emailOf(student), names);
+        }
+        for (var training = 0; training < trainingNames.length; training++) {
+            for (var entry = trainingOffsets[training]; entry < trainingOffsets[training + 1]; entry++) {
+                lists.get(studentIds[entry]).add(trainingNames[training]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return emails of the students with the highest mark received during any semester
+     */
+    public List<String> studentsWithMaxMark() {
+        var max = -1;
+        for (final var packed : marks) {
+            if (packed != NO_GRADE) {
+                max = Math.max(max, Math.max(first(packed), second(packed)));
+            }
+        }
+        final var selected = new boolean[studentCount];
+        for (var entry = 0; entry < marks.length; entry++) {
+            final var packed = marks[entry];
+            if (packed != NO_GRADE && (first(packed) == max || second(packed) == max)) {
+                selected[studentIds[entry]] = true;
+            }
+        }
+        return emailsOf(selected);
+    }
+
+    /**
+     * @param mark student mark
+     * @return emails of the students that received a mark lower than provided during any semester
+     */
+    public List<String> studentsWithMarkLowerThan(int mark) {
+        final var selected = new boolean[studentCount];
+        for (var entry = 0; entry < marks.length; entry++) {
+            final var packed = marks[entry];
+            if (packed != NO_GRADE && (first(packed) < mark || second(packed) < mark)) {
+                selected[studentIds[entry]] = true;
+            }
+        }
+        return emailsOf(selected);
+    }
+
+    private List<String> emailsOf(boolean[] selected) {
+        final var result = new ArrayList<String>();
+        for (var student = 0; student < selected.length; student++) {
+            if (selected[student]) {
+                result.add(registry.emailOf(student));
+            }
+        }
+        return result;
+    }
+
+    static byte pack(int firstSemester, int secondSemester) {
+        return (byte) (firstSemester | (secondSemester << 4));
+    }
+
+    private static int first(byte packed) {
+        return packed & 0x0F;
+    }
+
+    private static int second(byte packed) {
+        return (packed >>> 4) & 0x0F;
+    }
+
+    private static int capacity(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+
+    /**
+     * Receives one graded entry of the matrix
+     */
+    @FunctionalInterface
+    public interface GradeVisitor {
+
+        void visit(int studentId, int trainingId, int firstSemester, int secondSemester);
+
+    }
+
+    /**
+     * Collects the columns while trainings are read
+     */
+    private static class MatrixBuilder {
+
+        private final StudentRegistry registry;
+
+        private final List<String> trainingNames = new ArrayList<>();
+
+        private int[] trainingOffsets = new int[16];
+
+        private int[] studentIds = new int[1024];
+
+        private byte[] marks = new byte[1024];
+
+        private int size;
+
+        MatrixBuilder(StudentRegistry registry) {
+            this.registry = registry;
+        }
+
+        void add(Training training) {
+            GradeIterable.forEachMark(training, (student, first, second) -> {
+                ensureCapacity(size + 1);
+                studentIds[size] = registry.register(student.getEmail());
+                marks[size] = first == GradeIterable.NO_MARK ? NO_GRADE : pack(first, second);
+                size++;
+            });
+            trainingNames.add(training.getName());
+            if (trainingOffsets.length < trainingNames.size() + 1) {
+                trainingOffsets = Arrays.copyOf(trainingOffsets, trainingOffsets.length * 2);
+            }
+            trainingOffsets[trainingNames.size()] = size;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > studentIds.length) {
+                final var newCapacity = Math.max(capacity, studentIds.length * 2);
+                studentIds = Arrays.copyOf(studentIds, newCapacity);
+                marks = Arrays.copyOf(marks, newCapacity);
+            }
+        }
+
+        GradeMatrix build() {
+            return new GradeMatrix(registry, trainingNames.toArray(new String[0]),
+                    Arrays.copyOf(trainingOffsets, trainingNames.size() + 1),
+                    Arrays.copyOf(studentIds, size), Arrays.copyOf(marks, size));
+        }
+    }
+
+}
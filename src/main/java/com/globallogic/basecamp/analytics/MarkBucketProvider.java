@@ -0,0 +1,62 @@
+package com.globallogic.basecamp.analytics;
+
+import com.globallogic.basecamp.model.Semester;
+import com.globallogic.basecamp.model.Student;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.function.Consumer;
+
+/**
+ * Capability of a {@link com.globallogic.basecamp.Training Training} that keeps its students in buckets by
+ * mark, one set of buckets per semester. Threshold queries then read only the buckets they need: "lower than N"
+ * visits the buckets below N and "max mark" visits the highest non-empty bucket.
+ * {@link com.globallogic.basecamp.aggregation.TrainingAggregator TrainingAggregator} uses it for the
+ * "lower than" and "max mark" reports when a training provides it.
+ */
+public interface MarkBucketProvider {
+
+    /**
+     * Visits students that received the mark during the semester
+     *
+     * @param semester semester of the mark
+     * @param mark     mark from 0 to 10
+     * @param action   action receiving every student of the bucket
+     */
+    void forEachStudentWithMark(Semester semester, int mark, Consumer<Student> action);
+
+    /**
+     * @return highest mark received during any semester, empty if there are no marks
+     */
+    OptionalInt getMaxMark();
+
+    /**
+     * @param mark student mark
+     * @return distinct students that received a lower mark during any semester
+     */
+    default List<Student> getStudentsWithMarkLowerThan(int mark) {
+        final var students = new LinkedHashSet<Student>();
+        for (final var semester : Semester.values()) {
+            for (var lower = 0; lower < Math.min(mark, MarkStatistics.BUCKETS); lower++) {
+                forEachStudentWithMark(semester, lower, students::add);
+            }
+        }
+        return new ArrayList<>(students);
+    }
+
+    /**
+     * @return distinct students that received the highest mark during any semester
+     */
+    default List<Student> getStudentsWithMaxMark() {
+        final var students = new LinkedHashSet<Student>();
+        getMaxMark().ifPresent(max -> {
+            for (final var semester : Semester.values()) {
+                forEachStudentWithMark(semester, max, students::add);
+            }
+        });
+        return new ArrayList<>(students);
+    }
+
+}
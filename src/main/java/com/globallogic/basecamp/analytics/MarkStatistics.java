@@ -0,0 +1,144 @@
+package com.globallogic.basecamp.analytics;
+
+import com.globallogic.basecamp.Training;
+
+import java.util.Arrays;
+import java.util.OptionalInt;
+
+/**
+ * MarkStatistics is an immutable summary of the marks of one training: the number of marks, their sum and
+ * a histogram with one bucket for every mark from 0 to 10. Both semesters count as separate marks, the same
+ * way {@link com.globallogic.basecamp.TrainingUtils#getAverageMarkPerTraining TrainingUtils} averages them.
+ * Students without a grade contribute no marks.
+ * <p>
+ * Trainings implementing {@link MarkStatisticsProvider} return it in constant time, see {@link #of(Training)}.
+ */
+public class MarkStatistics {
+
+    /**
+     * Number of histogram buckets, one for every valid mark
+     */
+    public static final int BUCKETS = 11;
+
+    private final long[] histogram;
+
+    private final long count;
+
+    private final long sum;
+
+    MarkStatistics(long[] histogram) {
+        this.histogram = histogram;
+        var count = 0L;
+        var sum = 0L;
+        for (var mark = 0; mark < BUCKETS; mark++) {
+            count += histogram[mark];
+            sum += mark * histogram[mark];
+        }
+        this.count = count;
+        this.sum = sum;
+    }
+
+    /**
+     * Returns the statistics kept by the training, or computes them reading every grade of a training that
+     * does not keep them
+     *
+     * @param training training to summarize
+     * @return mark statistics
+     */
+    public static MarkStatistics of(Training training) {
+        if (training instanceof MarkStatisticsProvider) {
+            return ((MarkStatisticsProvider) training).getMarkStatistics();
+        }
+        final var histogram = new long[BUCKETS];
+        for (final var student : training.getStudents()) {
+            training.getStudentGrade(student).ifPresent(grade -> {
+                histogram[grade.getFirstSemester()]++;
+                histogram[grade.getSecondSemester()]++;
+            });
+        }
+        return new MarkStatistics(histogram);
+    }
+
+    /**
+     * @return number of marks
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return sum of all marks
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * @return average mark, or 0 if there are no marks
+     */
+    public double getAverage() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    /**
+     * @return lowest mark, empty if there are no marks
+     */
+    public OptionalInt getMin() {
+        for (var mark = 0; mark < BUCKETS; mark++) {
+            if (histogram[mark] > 0) {
+                return OptionalInt.of(mark);
+            }
+        }
+        return OptionalInt.empty();
+    }
+
+    /**
+     * @return highest mark, empty if there are no marks
+     */
+    public OptionalInt getMax() {
+        for (var mark = BUCKETS - 1; mark >= 0; mark--) {
+            if (histogram[mark] > 0) {
+                return OptionalInt.of(mark);
+            }
+        }
+        return OptionalInt.empty();
+    }
+
+    /**
+     * @param mark mark from 0 to 10
+     * @return how many times the mark was given
+     */
+    public long getCount(int mark) {
+        if (mark < 0 || mark >= BUCKETS) throw new IllegalArgumentException("wrong mark");
+        return histogram[mark];
+    }
+
+    /**
+     * @return copy of the histogram where index is a mark and value is how many times it was given
+     */
+    public long[] getHistogram() {
+        return Arrays.copyOf(histogram, BUCKETS);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Arrays.equals(histogram, ((MarkStatistics) o).histogram);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(histogram);
+    }
+
+    @Override
+    public String toString() {
+        return "MarkStatistics{" +
+                "count=" + count +
+                ", average=" + getAverage() +
+                ", histogram=" + Arrays.toString(histogram) +
+                '}';
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.globallogic.basecamp.analytics;
+
+/**
+ * Capability of a {@link com.globallogic.basecamp.Training Training} that keeps its {@link MarkStatistics}
+ * up to date while students are enrolled, removed and rated, so reading them does not walk the roster.
+ * {@link com.globallogic.basecamp.aggregation.TrainingAggregator TrainingAggregator} uses it for per-training
+ * averages when a training provides it.
+ */
+public interface MarkStatisticsProvider {
+
+    /**
+     * @return statistics of the current marks, consistent with one point in time
+     */
+    MarkStatistics getMarkStatistics();
+
+}
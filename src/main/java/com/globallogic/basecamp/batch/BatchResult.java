@@ -0,0 +1,108 @@
+package com.globallogic.basecamp.batch;
+
+import java.util.BitSet;
+
+/**
+ * BatchResult tells which records of a batch were applied. A record is applied when the single-record
+ * {@link com.globallogic.basecamp.Training Training} method would have returned true for it: a student was
+ * enrolled, or an enrolled student was rated.
+ */
+public class BatchResult {
+
+    private final BitSet applied;
+
+    private final int size;
+
+    private BatchResult(BitSet applied, int size) {
+        this.applied = applied;
+        this.size = size;
+    }
+
+    /**
+     * Allows to get the builder for the BatchResult
+     *
+     * @param size number of records in the batch
+     * @return builder
+     */
+    public static Builder builder(int size) {
+        return new Builder(size);
+    }
+
+    /**
+     * @return number of records in the batch
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index index of the record in the batch
+     * @return true if the record was applied
+     */
+    public boolean isApplied(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return applied.get(index);
+    }
+
+    public int getAppliedCount() {
+        return applied.cardinality();
+    }
+
+    public int getRejectedCount() {
+        return size - applied.cardinality();
+    }
+
+    /**
+     * @return indexes of the records that were not applied, in ascending order
+     */
+    public int[] getRejectedIndexes() {
+        final var rejected = new int[getRejectedCount()];
+        var position = 0;
+        for (var index = applied.nextClearBit(0); index < size; index = applied.nextClearBit(index + 1)) {
+            rejected[position++] = index;
+        }
+        return rejected;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{" +
+                "size=" + size +
+                ", applied=" + getAppliedCount() +
+                ", rejected=" + getRejectedCount() +
+                '}';
+    }
+
+    /**
+     * Builder class is a part of the builder pattern implementation
+     * Needed to record the outcome of every record while the batch is applied
+     */
+    public static class Builder {
+
+        private final BitSet applied;
+
+        private final int size;
+
+        private Builder(int size) {
+            this.applied = new BitSet(size);
+            this.size = size;
+        }
+
+        /**
+         * @param index index of the record in the batch
+         * @param value true if the record was applied
+         * @return builder
+         */
+        public Builder setApplied(int index, boolean value) {
+            applied.set(index, value);
+            return this;
+        }
+
+        public BatchResult build() {
+            return new BatchResult((BitSet) applied.clone(), size);
+        }
+    }
+
+}
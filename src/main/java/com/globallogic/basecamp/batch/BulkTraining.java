@@ -0,0 +1,133 @@
+package com.globallogic.basecamp.batch;
+
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.model.Semester;
+import com.globallogic.basecamp.model.Student;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Capability of a {@link Training} that applies enrolments and grades in batches. Implementations look every
+ * record up once and validate marks once per batch, instead of the several lookups and checks of the
+ * single-record methods.
+ * <p>
+ * The static helpers use the capability when the training has it and fall back to the single-record methods
+ * otherwise, so callers such as importers do not have to check.
+ */
+public interface BulkTraining {
+
+    /**
+     * Enrols the students, same as calling {@link Training#addStudent(Student)} for each of them in order
+     *
+     * @param students students to enrol
+     * @return result where record {@code i} is applied if {@code students.get(i)} was enrolled by this call
+     */
+    BatchResult addStudents(List<Student> students);
+
+    /**
+     * Applies the grade updates in order
+     *
+     * @param batch validated grade updates
+     * @return result where a record is applied if its student attends the training
+     */
+    BatchResult rate(GradeBatch batch);
+
+    /**
+     * Sets both semester marks of the student with a single lookup
+     *
+     * @param student        student to rate
+     * @param firstSemester  first semester mark
+     * @param secondSemester second semester mark
+     * @return true if the student attends the training, false otherwise
+     */
+    boolean rate(Student student, int firstSemester, int secondSemester);
+
+    /**
+     * Removes every student matching the predicate in one pass over the roster, without copying it. The
+     * predicate is tested once per student and must not change the training
+     *
+     * @param predicate condition whether to remove a student
+     * @return number of removed students
+     */
+    int removeStudentsIf(Predicate<? super Student> predicate);
+
+    /**
+     * Enrols the students into the training, in one batch when the training supports it
+     *
+     * @param training training to enrol into
+     * @param students students to enrol
+     * @return per-record result
+     */
+    static BatchResult addStudents(Training training, List<Student> students) {
+        if (training instanceof BulkTraining) {
+            return ((BulkTraining) training).addStudents(students);
+        }
+        final var result = BatchResult.builder(students.size());
+        for (var i = 0; i < students.size(); i++) {
+            result.setApplied(i, training.addStudent(students.get(i)));
+        }
+        return result.build();
+    }
+
+    /**
+     * Applies the grade updates to the training, in one batch when the training supports it
+     *
+     * @param training training to rate
+     * @param batch    validated grade updates
+     * @return per-record result
+     */
+    static BatchResult rate(Training training, GradeBatch batch) {
+        if (training instanceof BulkTraining) {
+            return ((BulkTraining) training).rate(batch);
+        }
+        final var result = BatchResult.builder(batch.size());
+        for (var i = 0; i < batch.size(); i++) {
+            final var student = batch.getStudent(i);
+            final var mark = batch.getMark(i);
+            result.setApplied(i, batch.getSemester(i) == Semester.FIRST
+                    ? training.rateFirstSemester(student, mark)
+                    : training.rateSecondSemester(student, mark));
+        }
+        return result.build();
+    }
+
+    /**
+     * Sets both semester marks of the student, in one step when the training supports it
+     *
+     * @param training       training to rate
+     * @param student        student to rate
+     * @param firstSemester  first semester mark
+     * @param secondSemester second semester mark
+     * @return true if the student attends the training, false otherwise
+     */
+    static boolean rate(Training training, Student student, int firstSemester, int secondSemester) {
+        if (training instanceof BulkTraining) {
+            return ((BulkTraining) training).rate(student, firstSemester, secondSemester);
+        }
+        if (secondSemester < 0 || secondSemester > 10) throw new IllegalArgumentException("wrong mark");
+        return training.rateFirstSemester(student, firstSemester)
+                && training.rateSecondSemester(student, secondSemester);
+    }
+
+    /**
+     * Removes the students matching the predicate from the training, in place when the training supports it
+     *
+     * @param training  training to remove the students from
+     * @param predicate condition whether to remove a student
+     * @return number of removed students
+     */
+    static int removeStudentsIf(Training training, Predicate<? super Student> predicate) {
+        if (training instanceof BulkTraining) {
+            return ((BulkTraining) training).removeStudentsIf(predicate);
+        }
+        var removed = 0;
+        for (final var student : training.getStudents()) {
+            if (predicate.test(student) && training.removeStudent(student)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+}
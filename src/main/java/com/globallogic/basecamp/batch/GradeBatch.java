@@ -0,0 +1,125 @@
+package com.globallogic.basecamp.batch;
+
+import com.globallogic.basecamp.model.Semester;
+import com.globallogic.basecamp.model.Student;
+
+import java.util.Arrays;
+
+/**
+ * GradeBatch is an immutable list of (student, semester, mark) updates applied to a training in one call of
+ * {@link BulkTraining#rate(GradeBatch)}.
+ * <p>
+ * Students and marks are validated once, when the batch is built, so applying the batch only looks the
+ * students up. A batch with an invalid record is never built and can therefore never be half applied.
+ */
+public class GradeBatch {
+
+    private final Student[] students;
+
+    private final Semester[] semesters;
+
+    private final byte[] marks;
+
+    private GradeBatch(Builder builder) {
+        this.students = Arrays.copyOf(builder.students, builder.size);
+        this.semesters = Arrays.copyOf(builder.semesters, builder.size);
+        this.marks = Arrays.copyOf(builder.marks, builder.size);
+    }
+
+    /**
+     * Allows to get the builder for the GradeBatch
+     *
+     * @return builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return number of records
+     */
+    public int size() {
+        return students.length;
+    }
+
+    public Student getStudent(int index) {
+        return students[index];
+    }
+
+    public Semester getSemester(int index) {
+        return semesters[index];
+    }
+
+    public int getMark(int index) {
+        return marks[index];
+    }
+
+    /**
+     * Builder class is a part of the builder pattern implementation
+     * Needed to collect the records of the batch
+     */
+    public static class Builder {
+
+        private Student[] students = new Student[16];
+
+        private Semester[] semesters = new Semester[16];
+
+        private byte[] marks = new byte[16];
+
+        private int size;
+
+        private Builder() {
+
+        }
+
+        /**
+         * Adds the record. Records are applied in the order they were added, so a later record for the same
+         * student and semester wins
+         *
+         * @param student  student to rate
+         * @param semester semester of the mark
+         * @param mark     student mark
+         * @return builder
+         */
+        public Builder rate(Student student, Semester semester, int mark) {
+            if (size == students.length) {
+                students = Arrays.copyOf(students, size * 2);
+                semesters = Arrays.copyOf(semesters, size * 2);
+                marks = Arrays.copyOf(marks, size * 2);
+            }
+            students[size] = student;
+            semesters[size] = semester;
+            marks[size] = (byte) Math.max(Byte.MIN_VALUE, Math.min(Byte.MAX_VALUE, mark));
+            size++;
+            return this;
+        }
+
+        /**
+         * Adds one record per semester
+         *
+         * @param student        student to rate
+         * @param firstSemester  first semester mark
+         * @param secondSemester second semester mark
+         * @return builder
+         */
+        public Builder rate(Student student, int firstSemester, int secondSemester) {
+            return rate(student, Semester.FIRST, firstSemester).rate(student, Semester.SECOND, secondSemester);
+        }
+
+        /**
+         * Validates every record and builds the batch
+         *
+         * @return batch
+         */
+        public GradeBatch build() {
+            for (var i = 0; i < size; i++) {
+                if (students[i] == null || semesters[i] == null) {
+                    throw new IllegalArgumentException("Empty field found");
+                }
+                if (marks[i] < 0 || marks[i] > 10) throw new IllegalArgumentException("wrong mark");
+            }
+            return new GradeBatch(this);
+        }
+    }
+
+}
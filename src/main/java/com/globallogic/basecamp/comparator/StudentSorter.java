@@ -0,0 +1,178 @@
+package com.globallogic.basecamp.comparator;
+
+import com.globallogic.basecamp.model.Student;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * StudentSorter sorts large numbers of students into the order of the {@link StudentComparator} without
+ * comparing them pairwise.
+ * <p>
+ * The last and first name of every student are encoded once into a binary sort key whose unsigned byte order
+ * is the {@link String#compareTo} order of the names, last name first. The keys are then ordered by an MSD
+ * radix sort, which reads every key byte a constant number of times instead of comparing the strings
+ * O(n log n) times. Small ranges fall back to an insertion sort on the keys.
+ * <p>
+ * Both sorts are stable, so students with the same names keep their input order, exactly like
+ * {@link Arrays#sort(Object[], java.util.Comparator)} with the {@link StudentComparator}. Like the comparator,
+ * the sorter does not accept students without a first or last name.
+ */
+public final class StudentSorter {
+
+    /**
+     * Ranges up to this size are sorted by insertion
+     */
+    private static final int CUTOFF = 32;
+
+    /**
+     * Key digits: 0 past the end of the key, 1 + byte value otherwise
+     */
+    private static final int RADIX = 257;
+
+    private StudentSorter() {
+
+    }
+
+    /**
+     * Sorts the array in place
+     *
+     * @param students students to sort
+     * @throws NullPointerException if a student has no first or last name
+     */
+    public static void sort(Student[] students) {
+        if (students.length < 2) {
+            return;
+        }
+        final var keys = new Keys(students);
+        final var order = new int[students.length];
+        for (var i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        keys.sort(order, new int[order.length], 0, order.length, 0);
+        final var copy = students.clone();
+        for (var i = 0; i < order.length; i++) {
+            students[i] = copy[order[i]];
+        }
+    }
+
+    /**
+     * @param students students to sort
+     * @return new list of the students in sorted order
+     * @throws NullPointerException if a student has no first or last name
+     */
+    public static List<Student> sorted(Collection<? extends Student> students) {
+        final var array = students.toArray(new Student[0]);
+        sort(array);
+        return Arrays.asList(array);
+    }
+
+    /**
+     * Sort keys of all students packed into one array.
+     * <p>
+     * A name is encoded char by char, followed by a 0 byte: chars 1 to 0x7E as one byte {@code c + 1}, char 0
+     * as the byte 1 and every other char as three bytes {@code 0x80 | c >> 14}, {@code c >> 7 & 0x7F},
+     * {@code c & 0x7F}. The code is prefix-free and preserves the char order, and the terminating 0 is lower
+     * than every char, so a name sorts before the names it is a prefix of.
+     */
+    private static final class Keys {
+
+        private byte[] bytes;
+
+        private final int[] offsets;
+
+        private int length;
+
+        private Keys(Student[] students) {
+            this.offsets = new int[students.length + 1];
+            this.bytes = new byte[students.length * 16];
+            for (var i = 0; i < students.length; i++) {
+                offsets[i] = length;
+                encode(students[i].getLastName());
+                encode(students[i].getFirstName());
+            }
+            offsets[students.length] = length;
+        }
+
+        private void encode(String name) {
+            ensureCapacity(name.length() * 3 + 1);
+            for (var i = 0; i < name.length(); i++) {
+                final var c = name.charAt(i);
+                if (c != 0 && c < 0x7F) {
+                    bytes[length++] = (byte) (c + 1);
+                } else if (c == 0) {
+                    bytes[length++] = 1;
+                } else {
+                    bytes[length++] = (byte) (0x80 | c >> 14);
+                    bytes[length++] = (byte) (c >> 7 & 0x7F);
+                    bytes[length++] = (byte) (c & 0x7F);
+                }
+            }
+            bytes[length++] = 0;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(length + extra, bytes.length * 2));
+            }
+        }
+
+        /**
+         * @return digit of the key at the position, 0 past the end
+         */
+        private int digit(int key, int depth) {
+            final var position = offsets[key] + depth;
+            return position < offsets[key + 1] ? (bytes[position] & 0xFF) + 1 : 0;
+        }
+
+        /**
+         * Sorts {@code order[from..to)}, whose keys share their first {@code depth} bytes
+         */
+        private void sort(int[] order, int[] aux, int from, int to, int depth) {
+            if (to - from <= CUTOFF) {
+                insertionSort(order, from, to, depth);
+                return;
+            }
+            final var counts = new int[RADIX + 1];
+            for (var i = from; i < to; i++) {
+                counts[digit(order[i], depth) + 1]++;
+            }
+            for (var r = 0; r < RADIX; r++) {
+                counts[r + 1] += counts[r];
+            }
+            for (var i = from; i < to; i++) {
+                aux[counts[digit(order[i], depth)]++] = order[i];
+            }
+            System.arraycopy(aux, 0, order, from, to - from);
+            // counts[r] is now the end of bucket r; bucket 0 holds ended keys, which are equal
+            for (var r = 1; r < RADIX; r++) {
+                final var start = from + counts[r - 1];
+                final var end = from + counts[r];
+                if (end - start > 1) {
+                    sort(order, aux, start, end, depth + 1);
+                }
+            }
+        }
+
+        private void insertionSort(int[] order, int from, int to, int depth) {
+            for (var i = from + 1; i < to; i++) {
+                final var key = order[i];
+                var j = i;
+                while (j > from && compare(order[j - 1], key, depth) > 0) {
+                    order[j] = order[j - 1];
+                    j--;
+                }
+                order[j] = key;
+            }
+        }
+
+        private int compare(int left, int right, int depth) {
+            final var leftStart = offsets[left] + depth;
+            final var rightStart = offsets[right] + depth;
+            return Arrays.compareUnsigned(bytes, leftStart, offsets[left + 1],
+                    bytes, rightStart, offsets[right + 1]);
+        }
+    }
+
+}
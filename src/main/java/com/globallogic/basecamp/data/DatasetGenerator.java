@@ -0,0 +1,337 @@
+package com.globallogic.basecamp.data;
+
+import com.globallogic.basecamp.GlobalLogicTraining;
+import com.globallogic.basecamp.model.Address;
+import com.globallogic.basecamp.model.Student;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * DatasetGenerator builds synthetic students and trainings at production scale.
+ * <p>
+ * Every student and every training is derived only from the seed and its own index, so the output is
+ * deterministic, does not depend on the generation order and may be produced by parallel streams.
+ * {@link #students()} and {@link #trainings()} cache nothing and create the objects lazily as the stream is
+ * consumed, so callers decide what is kept in memory. {@link #buildTrainings()} keeps everything in memory,
+ * so it creates every student once and shares it between the rosters, like real rosters share students.
+ * <p>
+ * Roster of training {@code t} consists of {@code studentsPerTraining} students. Each roster place is taken
+ * from the training's own range of students with probability {@code 1 - overlap} and from the whole
+ * population with probability {@code overlap}: overlap 0 gives disjoint rosters (while the population is large
+ * enough), overlap 1 gives rosters drawn uniformly at random. Students drawn twice for the same roster are
+ * skipped, so random rosters may be slightly smaller than requested.
+ *
+ * <pre>{@code
+ * DatasetGenerator generator = DatasetGenerator.builder()
+ *         .setSeed(42)
+ *         .setStudentCount(2_000_000)
+ *         .setTrainingCount(5_000)
+ *         .setStudentsPerTraining(1_000)
+ *         .setOverlap(0.3)
+ *         .setMarkDistribution(MarkDistribution.normal(6.5, 2))
+ *         .build();
+ * generator.trainings().parallel().forEach(loadTest::accept);
+ * }</pre>
+ */
+public class DatasetGenerator {
+
+    private static final String[] FIRST_NAMES = {
+            "Jerry", "Amanda", "Danny", "Rob", "Olena", "Taras", "Maria", "Ivan", "Sofia", "Andrii",
+            "Kateryna", "Dmytro", "Anna", "Oleh", "Iryna", "Petro", "Yulia", "Serhii", "Nadia", "Bohdan"
+    };
+
+    private static final String[] LAST_SYLLABLES = {
+            "fer", "dy", "per", "ry", "john", "son", "ko", "shev", "chen", "ma", "ly", "nen",
+            "ro", "zan", "ka", "vych", "hor", "bat", "tov", "ik"
+    };
+
+    private static final String[] COUNTRIES = {
+            "Ukraine", "Poland", "Croatia", "Slovakia", "Germany", "India", "USA", "Argentina"
+    };
+
+    private static final int CITIES_PER_COUNTRY = 25;
+
+    private static final int STREETS_PER_CITY = 400;
+
+    private static final long STUDENT_SALT = 0x5DEECE66DL;
+
+    private static final long ADDRESS_SALT = 0xA0761D6478BD642FL;
+
+    private static final long TRAINING_SALT = 0xE7037ED1A0B428DBL;
+
+    private final long seed;
+
+    private final int studentCount;
+
+    private final int trainingCount;
+
+    private final int studentsPerTraining;
+
+    private final double overlap;
+
+    private final int addressCount;
+
+    private final MarkDistribution markDistribution;
+
+    private DatasetGenerator(Builder builder) {
+        this.seed = builder.seed;
+        this.studentCount = builder.studentCount;
+        this.trainingCount = builder.trainingCount;
+        this.studentsPerTraining = Math.min(builder.studentsPerTraining, builder.studentCount);
+        this.overlap = builder.overlap;
+        this.addressCount = Math.max(1, (int) (builder.studentCount / builder.studentsPerAddress));
+        this.markDistribution = builder.markDistribution;
+    }
+
+    /**
+     * Allows to get the builder for the DatasetGenerator
+     *
+     * @return builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getStudentCount() {
+        return studentCount;
+    }
+
+    public int getTrainingCount() {
+        return trainingCount;
+    }
+
+    /**
+     * Creates the student with the provided index. Students with the same index are always equal and have
+     * the same field values
+     *
+     * @param index student index from 0 to student count - 1
+     * @return student
+     */
+    public Student student(int index) {
+        checkIndex(index, studentCount);
+        final var random = random(STUDENT_SALT, index);
+        return Student.builder("student" + index + "@example.com")
+                .setFirstName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)])
+                .setLastName(lastName(random))
+                .setPhoneNumber(String.format("%03d-%03d-%02d-%02d", random.nextInt(1000), random.nextInt(1000),
+                        random.nextInt(100), random.nextInt(100)))
+                .setAddress(address(random.nextInt(addressCount)))
+                .build();
+    }
+
+    /**
+     * Lazily creates all students in index order
+     *
+     * @return stream of students, may be turned into a parallel stream
+     */
+    public Stream<Student> students() {
+        return IntStream.range(0, studentCount).mapToObj(this::student);
+    }
+
+    /**
+     * Creates the training with the provided index, enrols its roster and rates both semesters. The roster
+     * holds students created for this training only, equal to but not the same objects as the students of
+     * other trainings
+     *
+     * @param index training index from 0 to training count - 1
+     * @return training named "Training {index}"
+     */
+    public GlobalLogicTraining training(int index) {
+        return training(index, this::student);
+    }
+
+    private GlobalLogicTraining training(int index, IntFunction<Student> studentAt) {
+        checkIndex(index, trainingCount);
+        final var random = random(TRAINING_SALT, index);
+        final var training = new GlobalLogicTraining("Training " + index);
+        final var home = (int) ((long) index * studentsPerTraining % studentCount);
+        for (var place = 0; place < studentsPerTraining; place++) {
+            final var studentIndex = random.nextDouble() < overlap
+                    ? random.nextInt(studentCount)
+                    : (home + place) % studentCount;
+            final var student = studentAt.apply(studentIndex);
+            if (training.addStudent(student)) {
+                final var firstSemester = markDistribution.nextMark(random);
+                training.rate(student, firstSemester, markDistribution.nextMark(random));
+            }
+        }
+        return training;
+    }
+
+    /**
+     * Lazily creates all trainings in index order, each with its own student objects
+     *
+     * @return stream of trainings, may be turned into a parallel stream
+     */
+    public Stream<GlobalLogicTraining> trainings() {
+        return IntStream.range(0, trainingCount).mapToObj(this::training);
+    }
+
+    /**
+     * Creates all trainings in parallel and keeps them in memory. Every student is created once, on its first
+     * roster place, and the trainings share that object
+     *
+     * @return trainings in index order
+     */
+    public List<GlobalLogicTraining> buildTrainings() {
+        final var shared = new AtomicReferenceArray<Student>(studentCount);
+        final IntFunction<Student> studentAt = studentIndex -> {
+            final var student = shared.get(studentIndex);
+            if (student != null) {
+                return student;
+            }
+            final var created = student(studentIndex);
+            final var raced = shared.compareAndExchange(studentIndex, null, created);
+            return raced == null ? created : raced;
+        };
+        return IntStream.range(0, trainingCount).parallel()
+                .mapToObj(index -> training(index, studentAt))
+                .collect(Collectors.toList());
+    }
+
+    private Address address(int index) {
+        final var random = random(ADDRESS_SALT, index);
+        final var country = random.nextInt(COUNTRIES.length);
+        final var city = random.nextInt(CITIES_PER_COUNTRY);
+        return Address.builder()
+                .setCountry(COUNTRIES[country])
+                .setCity("City" + country + "-" + city)
+                .setStreet("Street" + random.nextInt(STREETS_PER_CITY))
+                .setHouseNumber(1 + random.nextInt(250))
+                .build();
+    }
+
+    private static String lastName(SplittableRandom random) {
+        final var syllables = 2 + random.nextInt(2);
+        final var name = new StringBuilder();
+        for (var i = 0; i < syllables; i++) {
+            name.append(LAST_SYLLABLES[random.nextInt(LAST_SYLLABLES.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+
+    /**
+     * Seeds are mixed once more: SplittableRandom advances its seed by the same golden gamma, so seeds one gamma
+     * apart would give each index the sequence of the previous index shifted by one value
+     */
+    private SplittableRandom random(long salt, int index) {
+        return new SplittableRandom(mix(mix(seed ^ salt) + index * 0x9E3779B97F4A7C15L));
+    }
+
+    /**
+     * SplitMix64 finaliser, spreads nearby seeds over the whole value range
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    private static void checkIndex(int index, int count) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + count);
+        }
+    }
+
+    /**
+     * Builder class is a part of the builder pattern implementation
+     * Needed to ease the DatasetGenerator configuration
+     */
+    public static class Builder {
+
+        private long seed;
+
+        private int studentCount = 1000;
+
+        private int trainingCount = 10;
+
+        private int studentsPerTraining = 100;
+
+        private double overlap = 0.5;
+
+        private double studentsPerAddress = 3;
+
+        private MarkDistribution markDistribution = MarkDistribution.uniform();
+
+        private Builder() {
+
+        }
+
+        public Builder setSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder setStudentCount(int studentCount) {
+            if (studentCount < 1) {
+                throw new IllegalArgumentException("Student count must be positive");
+            }
+            this.studentCount = studentCount;
+            return this;
+        }
+
+        public Builder setTrainingCount(int trainingCount) {
+            if (trainingCount < 0) {
+                throw new IllegalArgumentException("Training count must not be negative");
+            }
+            this.trainingCount = trainingCount;
+            return this;
+        }
+
+        public Builder setStudentsPerTraining(int studentsPerTraining) {
+            if (studentsPerTraining < 0) {
+                throw new IllegalArgumentException("Students per training must not be negative");
+            }
+            this.studentsPerTraining = studentsPerTraining;
+            return this;
+        }
+
+        /**
+         * Sets the share of every roster drawn from the whole population instead of the training's own range
+         *
+         * @param overlap value from 0 to 1
+         * @return builder
+         */
+        public Builder setOverlap(double overlap) {
+            if (overlap < 0 || overlap > 1) {
+                throw new IllegalArgumentException("Overlap must be between 0 and 1");
+            }
+            this.overlap = overlap;
+            return this;
+        }
+
+        /**
+         * Sets the average number of students living at the same address
+         *
+         * @param studentsPerAddress value not less than 1
+         * @return builder
+         */
+        public Builder setStudentsPerAddress(double studentsPerAddress) {
+            if (studentsPerAddress < 1) {
+                throw new IllegalArgumentException("Students per address must be at least 1");
+            }
+            this.studentsPerAddress = studentsPerAddress;
+            return this;
+        }
+
+        public Builder setMarkDistribution(MarkDistribution markDistribution) {
+            if (markDistribution == null) {
+                throw new IllegalArgumentException("Empty field found");
+            }
+            this.markDistribution = markDistribution;
+            return this;
+        }
+
+        public DatasetGenerator build() {
+            return new DatasetGenerator(this);
+        }
+    }
+
+}
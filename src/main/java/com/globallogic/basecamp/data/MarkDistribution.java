@@ -0,0 +1,105 @@
+package com.globallogic.basecamp.data;
+
+import java.util.SplittableRandom;
+
+/**
+ * MarkDistribution draws semester marks from 0 to 10 for the {@link DatasetGenerator}
+ */
+public interface MarkDistribution {
+
+    int MAX_MARK = 10;
+
+    /**
+     * Draws the next mark
+     *
+     * @param random source of randomness
+     * @return mark from 0 to 10
+     */
+    int nextMark(SplittableRandom random);
+
+    /**
+     * Every mark is equally likely
+     *
+     * @return distribution
+     */
+    static MarkDistribution uniform() {
+        return random -> random.nextInt(MAX_MARK + 1);
+    }
+
+    /**
+     * Normal distribution rounded to the closest mark and clamped to the 0..10 range
+     *
+     * @param mean   mean mark
+     * @param stdDev standard deviation
+     * @return distribution
+     */
+    static MarkDistribution normal(double mean, double stdDev) {
+        if (stdDev < 0) {
+            throw new IllegalArgumentException("Standard deviation must not be negative");
+        }
+        return random -> clamp(Math.round(mean + nextGaussian(random) * stdDev));
+    }
+
+    /**
+     * Every student receives the same mark
+     *
+     * @param mark mark from 0 to 10
+     * @return distribution
+     */
+    static MarkDistribution constant(int mark) {
+        checkMark(mark);
+        return random -> mark;
+    }
+
+    /**
+     * Mark {@code i} is drawn with probability {@code weights[i] / sum(weights)}
+     *
+     * @param weights 11 non-negative weights, one per mark
+     * @return distribution
+     */
+    static MarkDistribution weighted(double... weights) {
+        if (weights.length != MAX_MARK + 1) {
+            throw new IllegalArgumentException("Exactly " + (MAX_MARK + 1) + " weights expected");
+        }
+        final var cumulative = new double[weights.length];
+        var total = 0.0;
+        for (var i = 0; i < weights.length; i++) {
+            if (weights[i] < 0) {
+                throw new IllegalArgumentException("Weights must not be negative");
+            }
+            total += weights[i];
+            cumulative[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("At least one weight must be positive");
+        }
+        final var sum = total;
+        return random -> {
+            final var point = random.nextDouble() * sum;
+            for (var mark = 0; mark < MAX_MARK; mark++) {
+                if (point < cumulative[mark]) {
+                    return mark;
+                }
+            }
+            return MAX_MARK;
+        };
+    }
+
+    private static int clamp(long mark) {
+        return (int) Math.max(0, Math.min(MAX_MARK, mark));
+    }
+
+    private static void checkMark(int mark) {
+        if (mark < 0 || mark > MAX_MARK) throw new IllegalArgumentException("wrong mark");
+    }
+
+    /**
+     * {@link SplittableRandom} has no Gaussian generator before Java 17, so use the Box-Muller transform
+     */
+    private static double nextGaussian(SplittableRandom random) {
+        final var u1 = 1.0 - random.nextDouble();
+        final var u2 = random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.globallogic.basecamp.event;
+
+import com.globallogic.basecamp.TrainingUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.stream.Stream;
+
+/**
+ * Materialised {@link TrainingUtils#getAverageMarkPerStudent(Stream)}: keeps the sum and number of the marks of
+ * every student over the {@link ObservableTraining}s it listens to, and updates them in constant time per event.
+ * Students without marks on any of the trainings are not part of the view, like in the report.
+ */
+public class AverageMarkPerStudentView implements TrainingListener {
+
+    /**
+     * Student email -> sum and number of the student marks
+     */
+    private final Map<String, long[]> marks = new HashMap<>();
+
+    @Override
+    public synchronized void changed(TrainingEvent event) {
+        final var countDelta = event.getMarkCountDelta();
+        final var sumDelta = event.getMarkSumDelta();
+        if (countDelta == 0 && sumDelta == 0) {
+            return;
+        }
+        final var email = event.getStudent().getEmail();
+        final var totals = marks.computeIfAbsent(email, key -> new long[2]);
+        totals[0] += sumDelta;
+        totals[1] += countDelta;
+        if (totals[1] == 0) {
+            marks.remove(email);
+        }
+    }
+
+    /**
+     * @param email student email
+     * @return average mark of the student, empty if the student has no marks
+     */
+    public synchronized OptionalDouble getAverageMark(String email) {
+        final var totals = marks.get(email);
+        return totals == null ? OptionalDouble.empty() : OptionalDouble.of((double) totals[0] / totals[1]);
+    }
+
+    /**
+     * @return map where keys are student emails and values are student average marks
+     */
+    public synchronized Map<String, Double> getAverageMarkPerStudent() {
+        final var averages = new HashMap<String, Double>();
+        marks.forEach((email, totals) -> averages.put(email, (double) totals[0] / totals[1]));
+        return averages;
+    }
+
+}
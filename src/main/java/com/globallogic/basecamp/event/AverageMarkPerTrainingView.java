@@ -0,0 +1,56 @@
+package com.globallogic.basecamp.event;
+
+import com.globallogic.basecamp.TrainingUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.stream.Stream;
+
+/**
+ * Materialised {@link TrainingUtils#getAverageMarkPerTraining(Stream)}: keeps the sum and number of the marks of
+ * every {@link ObservableTraining} it listens to, and updates them in constant time per event. Trainings with the
+ * same name are counted together and a training without marks has the average 0, like in the report.
+ */
+public class AverageMarkPerTrainingView implements TrainingListener {
+
+    /**
+     * Training name -> sum and number of the training marks
+     */
+    private final Map<String, long[]> marks = new HashMap<>();
+
+    @Override
+    public synchronized void subscribed(String trainingName) {
+        marks.computeIfAbsent(trainingName, key -> new long[2]);
+    }
+
+    @Override
+    public synchronized void changed(TrainingEvent event) {
+        final var totals = marks.computeIfAbsent(event.getTrainingName(), key -> new long[2]);
+        totals[0] += event.getMarkSumDelta();
+        totals[1] += event.getMarkCountDelta();
+    }
+
+    /**
+     * @param trainingName training name
+     * @return average mark of the training, empty if the view does not listen to a training with the name
+     */
+    public synchronized OptionalDouble getAverageMark(String trainingName) {
+        final var totals = marks.get(trainingName);
+        return totals == null ? OptionalDouble.empty() : OptionalDouble.of(average(totals));
+    }
+
+    /**
+     * @return map where keys are training names and values are average marks
+     */
+    public synchronized Map<String, Double> getAverageMarkPerTraining() {
+        final var averages = new HashMap<String, Double>();
+        marks.forEach((name, totals) -> averages.put(name, average(totals)));
+        return averages;
+    }
+
+    private static double average(long[] totals) {
+        return totals[1] == 0 ? 0.0 : (double) totals[0] / totals[1];
+    }
+
+}
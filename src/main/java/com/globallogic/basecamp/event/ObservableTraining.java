@@ -0,0 +1,269 @@
+package com.globallogic.basecamp.event;
+
+import com.globallogic.basecamp.GradeIterable;
+import com.globallogic.basecamp.Grades;
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.batch.BatchResult;
+import com.globallogic.basecamp.batch.BulkTraining;
+import com.globallogic.basecamp.batch.GradeBatch;
+import com.globallogic.basecamp.model.Grade;
+import com.globallogic.basecamp.model.Semester;
+import com.globallogic.basecamp.model.Student;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * ObservableTraining is a {@link Training} decorator that publishes every successful enrolment, removal and
+ * rating to its {@link TrainingListener}s as a {@link TrainingEvent}. Calls that do not change the training,
+ * e.g. enrolling a student twice, publish nothing.
+ * <p>
+ * Like {@link com.globallogic.basecamp.analytics.AggregatingTraining} it reads the grade of the student before
+ * and after every change, so events carry the marks the decorated training really keeps. Batches are applied
+ * to the decorated training at once and published as one event per applied record. Changes must go through
+ * the decorator, so the grades it returns are copies whose setters {@link Grades#writingThrough rate} the
+ * student on the decorator and publish the change.
+ * <p>
+ * Changes and listener registration are serialised on the decorator and events are delivered while holding
+ * it, so a listener sees the changes of the training in order. A listener throwing an exception does not
+ * undo the change, the exception is passed to the caller and the remaining listeners miss the event.
+ */
+public class ObservableTraining implements Training, GradeIterable, BulkTraining {
+
+    private static final int[] NO_MARKS = {NO_MARK, NO_MARK};
+
+    private final Training delegate;
+
+    private final List<TrainingListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param delegate training to decorate
+     */
+    public ObservableTraining(Training delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Adds the listener and replays the roster to it: the listener is {@link TrainingListener#subscribed
+     * subscribed} and then receives an {@link TrainingEvent.Type#ENROLLED} event for every student already
+     * attending the training, so views built from the events start from the current state of the training
+     *
+     * @param listener listener to add
+     */
+    public synchronized void addListener(TrainingListener listener) {
+        final var name = delegate.getName();
+        listener.subscribed(name);
+        GradeIterable.forEachMark(delegate, (student, first, second) -> listener.changed(
+                new TrainingEvent(TrainingEvent.Type.ENROLLED, name, student, NO_MARK, NO_MARK, first, second)));
+        listeners.add(listener);
+    }
+
+    /**
+     * Stops publishing to the listener. What the listener has counted for the training so far is kept
+     *
+     * @param listener listener to remove
+     * @return true if the listener was added to the training, false otherwise
+     */
+    public synchronized boolean removeListener(TrainingListener listener) {
+        return listeners.remove(listener);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public List<Student> getStudents() {
+        return delegate.getStudents();
+    }
+
+    @Override
+    public synchronized boolean addStudent(Student student) {
+        final var added = delegate.addStudent(student);
+        if (added) {
+            publish(TrainingEvent.Type.ENROLLED, student, NO_MARKS);
+        }
+        return added;
+    }
+
+    @Override
+    public synchronized boolean removeStudent(Student student) {
+        final var before = marksBefore(student);
+        final var removed = delegate.removeStudent(student);
+        if (removed && before != null) {
+            publish(new TrainingEvent(TrainingEvent.Type.REMOVED, delegate.getName(), student,
+                    before[0], before[1], NO_MARK, NO_MARK));
+        }
+        return removed;
+    }
+
+    @Override
+    public synchronized boolean rateFirstSemester(Student student, int mark) {
+        final var before = marksBefore(student);
+        final var rated = delegate.rateFirstSemester(student, mark);
+        if (rated) {
+            publish(TrainingEvent.Type.FIRST_SEMESTER_RATED, student, before);
+        }
+        return rated;
+    }
+
+    @Override
+    public synchronized boolean rateSecondSemester(Student student, int mark) {
+        final var before = marksBefore(student);
+        final var rated = delegate.rateSecondSemester(student, mark);
+        if (rated) {
+            publish(TrainingEvent.Type.SECOND_SEMESTER_RATED, student, before);
+        }
+        return rated;
+    }
+
+    @Override
+    public synchronized BatchResult addStudents(List<Student> students) {
+        final var result = BulkTraining.addStudents(delegate, students);
+        for (var i = 0; i < students.size(); i++) {
+            if (result.isApplied(i)) {
+                publish(TrainingEvent.Type.ENROLLED, students.get(i), NO_MARKS);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Applies the batch to the decorated training at once and publishes one event per applied record, with the
+     * marks the student had after the records before it
+     *
+     * @param batch validated grade updates
+     * @return per-record result
+     */
+    @Override
+    public synchronized BatchResult rate(GradeBatch batch) {
+        if (listeners.isEmpty()) {
+            return BulkTraining.rate(delegate, batch);
+        }
+        final var marks = new HashMap<Student, int[]>();
+        for (var i = 0; i < batch.size(); i++) {
+            marks.computeIfAbsent(batch.getStudent(i), this::marksOf);
+        }
+        final var result = BulkTraining.rate(delegate, batch);
+        final var name = delegate.getName();
+        for (var i = 0; i < batch.size(); i++) {
+            if (!result.isApplied(i)) {
+                continue;
+            }
+            final var student = batch.getStudent(i);
+            final var current = marks.get(student);
+            final var first = batch.getSemester(i) == Semester.FIRST;
+            final var event = new TrainingEvent(
+                    first ? TrainingEvent.Type.FIRST_SEMESTER_RATED : TrainingEvent.Type.SECOND_SEMESTER_RATED,
+                    name, student, current[0], current[1],
+                    first ? batch.getMark(i) : current[0], first ? current[1] : batch.getMark(i));
+            current[first ? 0 : 1] = batch.getMark(i);
+            publish(event);
+        }
+        return result;
+    }
+
+    /**
+     * Publishes a first and a second semester event when the student is rated
+     */
+    @Override
+    public synchronized boolean rate(Student student, int firstSemester, int secondSemester) {
+        final var before = marksBefore(student);
+        final var rated = BulkTraining.rate(delegate, student, firstSemester, secondSemester);
+        if (rated && before != null) {
+            final var name = delegate.getName();
+            publish(new TrainingEvent(TrainingEvent.Type.FIRST_SEMESTER_RATED, name, student,
+                    before[0], before[1], firstSemester, before[1]));
+            publish(new TrainingEvent(TrainingEvent.Type.SECOND_SEMESTER_RATED, name, student,
+                    firstSemester, before[1], firstSemester, secondSemester));
+        }
+        return rated;
+    }
+
+    /**
+     * Publishes a removal event for every removed student once the decorated training removed them all
+     *
+     * @param predicate condition whether to remove a student
+     * @return number of removed students
+     */
+    @Override
+    public synchronized int removeStudentsIf(Predicate<? super Student> predicate) {
+        if (listeners.isEmpty()) {
+            return BulkTraining.removeStudentsIf(delegate, predicate);
+        }
+        final var removed = new ArrayList<TrainingEvent>();
+        final var name = delegate.getName();
+        final var count = BulkTraining.removeStudentsIf(delegate, student -> {
+            if (!predicate.test(student)) {
+                return false;
+            }
+            final var before = marksOf(student);
+            removed.add(new TrainingEvent(TrainingEvent.Type.REMOVED, name, student,
+                    before[0], before[1], NO_MARK, NO_MARK));
+            return true;
+        });
+        removed.forEach(this::publish);
+        return count;
+    }
+
+    @Override
+    public boolean isPresent(Student student) {
+        return delegate.isPresent(student);
+    }
+
+    @Override
+    public Optional<Grade> getStudentGrade(Student student) {
+        return delegate.getStudentGrade(student).map(grade -> Grades.writingThrough(grade, this, student));
+    }
+
+    @Override
+    public void forEachGrade(BiConsumer<? super Student, ? super Grade> action) {
+        GradeIterable.forEachGrade(delegate, (student, grade) ->
+                action.accept(student, grade == null ? null : Grades.writingThrough(grade, this, student)));
+    }
+
+    @Override
+    public void forEachMark(MarkVisitor visitor) {
+        GradeIterable.forEachMark(delegate, visitor);
+    }
+
+    /**
+     * @return both marks of the student, {@link #NO_MARK} for a student without a grade
+     */
+    private int[] marksOf(Student student) {
+        return delegate.getStudentGrade(student)
+                .map(grade -> new int[]{grade.getFirstSemester(), grade.getSecondSemester()})
+                .orElseGet(() -> new int[]{NO_MARK, NO_MARK});
+    }
+
+    /**
+     * @return marks of the student before a change, or null if nobody listens to the change
+     */
+    private int[] marksBefore(Student student) {
+        return listeners.isEmpty() ? null : marksOf(student);
+    }
+
+    /**
+     * Publishes a change whose new marks are read from the decorated training
+     */
+    private void publish(TrainingEvent.Type type, Student student, int[] before) {
+        if (before == null || listeners.isEmpty()) {
+            return;
+        }
+        final var after = marksOf(student);
+        publish(new TrainingEvent(type, delegate.getName(), student, before[0], before[1], after[0], after[1]));
+    }
+
+    private void publish(TrainingEvent event) {
+        for (final var listener : listeners) {
+            listener.changed(event);
+        }
+    }
+
+}
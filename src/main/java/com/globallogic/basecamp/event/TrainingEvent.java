@@ -0,0 +1,122 @@
+package com.globallogic.basecamp.event;
+
+import com.globallogic.basecamp.GradeIterable;
+import com.globallogic.basecamp.model.Student;
+
+/**
+ * TrainingEvent describes one change of an {@link ObservableTraining}. Besides the student it carries both
+ * semester marks of the student before and after the change, so a listener can take back what it counted for
+ * the old marks and count the new ones without reading the training. Marks of a student without a grade, e.g.
+ * before an enrolment or after a removal, are {@link GradeIterable#NO_MARK}.
+ */
+public final class TrainingEvent {
+
+    public enum Type {
+        /**
+         * The student was enrolled to the training
+         */
+        ENROLLED,
+        /**
+         * The student was removed from the training
+         */
+        REMOVED,
+        /**
+         * The first semester mark of the student was set
+         */
+        FIRST_SEMESTER_RATED,
+        /**
+         * The second semester mark of the student was set
+         */
+        SECOND_SEMESTER_RATED
+    }
+
+    private final Type type;
+
+    private final String trainingName;
+
+    private final Student student;
+
+    private final int previousFirstSemester;
+
+    private final int previousSecondSemester;
+
+    private final int firstSemester;
+
+    private final int secondSemester;
+
+    TrainingEvent(Type type, String trainingName, Student student, int previousFirstSemester,
+                  int previousSecondSemester, int firstSemester, int secondSemester) {
+        this.type = type;
+        this.trainingName = trainingName;
+        this.student = student;
+        this.previousFirstSemester = previousFirstSemester;
+        this.previousSecondSemester = previousSecondSemester;
+        this.firstSemester = firstSemester;
+        this.secondSemester = secondSemester;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getTrainingName() {
+        return trainingName;
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    public int getPreviousFirstSemester() {
+        return previousFirstSemester;
+    }
+
+    public int getPreviousSecondSemester() {
+        return previousSecondSemester;
+    }
+
+    public int getFirstSemester() {
+        return firstSemester;
+    }
+
+    public int getSecondSemester() {
+        return secondSemester;
+    }
+
+    /**
+     * @return whether the student had a grade before the change
+     */
+    public boolean hadGrade() {
+        return previousFirstSemester != GradeIterable.NO_MARK;
+    }
+
+    /**
+     * @return whether the student has a grade after the change
+     */
+    public boolean hasGrade() {
+        return firstSemester != GradeIterable.NO_MARK;
+    }
+
+    /**
+     * @return change of the sum of the student marks on the training, as used by the average mark reports
+     */
+    public int getMarkSumDelta() {
+        return (hasGrade() ? firstSemester + secondSemester : 0)
+                - (hadGrade() ? previousFirstSemester + previousSecondSemester : 0);
+    }
+
+    /**
+     * @return change of the number of the student marks on the training, as used by the average mark reports
+     */
+    public int getMarkCountDelta() {
+        return (hasGrade() ? 2 : 0) - (hadGrade() ? 2 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + student.getEmail() + " on " + trainingName
+                + " [" + previousFirstSemester + ", " + previousSecondSemester + "] -> ["
+                + firstSemester + ", " + secondSemester + "]";
+    }
+
+}
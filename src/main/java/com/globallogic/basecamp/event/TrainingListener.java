@@ -0,0 +1,25 @@
+package com.globallogic.basecamp.event;
+
+/**
+ * Receives the changes of the {@link ObservableTraining}s it is added to. Events are delivered on the thread
+ * making the change while it holds the lock of the training, in the order the changes were made, so the
+ * listener must be quick and must not change the training.
+ */
+@FunctionalInterface
+public interface TrainingListener {
+
+    /**
+     * Called once when the listener is added to a training, before the events replaying its roster
+     *
+     * @param trainingName name of the training
+     */
+    default void subscribed(String trainingName) {
+
+    }
+
+    /**
+     * @param event change of the training
+     */
+    void changed(TrainingEvent event);
+
+}
@@ -0,0 +1,54 @@
+package com.globallogic.basecamp.event;
+
+import com.globallogic.basecamp.TrainingUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Materialised {@link TrainingUtils#getTrainingsPerStudent(Stream)}: keeps the names of the
+ * {@link ObservableTraining}s every student attends, in the order the student was enrolled. An enrolment or a
+ * removal updates only the list of its student, which is as long as the number of trainings the student attends.
+ */
+public class TrainingsPerStudentView implements TrainingListener {
+
+    /**
+     * Student email -> names of the trainings the student attends
+     */
+    private final Map<String, List<String>> trainings = new HashMap<>();
+
+    @Override
+    public synchronized void changed(TrainingEvent event) {
+        final var email = event.getStudent().getEmail();
+        if (event.getType() == TrainingEvent.Type.ENROLLED) {
+            trainings.computeIfAbsent(email, key -> new ArrayList<>(2)).add(event.getTrainingName());
+        } else if (event.getType() == TrainingEvent.Type.REMOVED) {
+            final var names = trainings.get(email);
+            if (names != null && names.remove(event.getTrainingName()) && names.isEmpty()) {
+                trainings.remove(email);
+            }
+        }
+    }
+
+    /**
+     * @param email student email
+     * @return names of the trainings the student attends
+     */
+    public synchronized List<String> getTrainings(String email) {
+        final var names = trainings.get(email);
+        return names == null ? List.of() : List.copyOf(names);
+    }
+
+    /**
+     * @return map where keys are student emails and values are names of the trainings the student attends
+     */
+    public synchronized Map<String, List<String>> getTrainingsPerStudent() {
+        final var copy = new HashMap<String, List<String>>();
+        trainings.forEach((email, names) -> copy.put(email, List.copyOf(names)));
+        return copy;
+    }
+
+}
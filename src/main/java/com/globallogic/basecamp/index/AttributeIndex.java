@@ -0,0 +1,103 @@
+package com.globallogic.basecamp.index;
+
+import com.globallogic.basecamp.model.Student;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Secondary indexes of the {@link TrainingCatalog}: student ids by the value of every {@link StudentAttribute},
+ * in a hash map or an ordered map depending on the attribute. The values are read when a student is added, so
+ * the index stays consistent if the student object is changed later, and a changed student is found by its
+ * old values until it is added again. Not thread-safe, guarded by the catalog.
+ */
+final class AttributeIndex {
+
+    private final Map<StudentAttribute, Map<String, CompactBitmap>> indexes = new EnumMap<>(StudentAttribute.class);
+
+    /**
+     * Indexed attribute values by student id, null for students not in the index
+     */
+    private final List<String[]> values = new ArrayList<>();
+
+    private final CompactBitmap all = new CompactBitmap();
+
+    AttributeIndex() {
+        for (final var attribute : StudentAttribute.values()) {
+            indexes.put(attribute, attribute.isOrdered() ? new TreeMap<>() : new HashMap<>());
+        }
+    }
+
+    void add(int id, Student student) {
+        while (values.size() <= id) {
+            values.add(null);
+        }
+        final var attributes = StudentAttribute.values();
+        final var studentValues = new String[attributes.length];
+        for (final var attribute : attributes) {
+            final var value = attribute.valueOf(student);
+            studentValues[attribute.ordinal()] = value;
+            if (value != null) {
+                indexes.get(attribute).computeIfAbsent(value, key -> new CompactBitmap()).add(id);
+            }
+        }
+        values.set(id, studentValues);
+        all.add(id);
+    }
+
+    void remove(int id) {
+        final var studentValues = id < values.size() ? values.set(id, null) : null;
+        if (studentValues == null) {
+            return;
+        }
+        for (final var attribute : StudentAttribute.values()) {
+            final var value = studentValues[attribute.ordinal()];
+            if (value == null) {
+                continue;
+            }
+            final var index = indexes.get(attribute);
+            final var bitmap = index.get(value);
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                index.remove(value);
+            }
+        }
+        all.remove(id);
+    }
+
+    /**
+     * @return ids of all indexed students, not a copy
+     */
+    CompactBitmap all() {
+        return all;
+    }
+
+    /**
+     * @return ids of the students with the value, not a copy
+     */
+    CompactBitmap equalTo(StudentAttribute attribute, String value) {
+        final var bitmap = indexes.get(attribute).get(value);
+        return bitmap == null ? new CompactBitmap() : bitmap;
+    }
+
+    /**
+     * @return ids of the students with a value starting with the prefix, the attribute must be ordered
+     */
+    CompactBitmap startsWith(StudentAttribute attribute, String prefix) {
+        final var index = (NavigableMap<String, CompactBitmap>) indexes.get(attribute);
+        var result = new CompactBitmap();
+        for (final var entry : index.tailMap(prefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            result = result.or(entry.getValue());
+        }
+        return result;
+    }
+
+}
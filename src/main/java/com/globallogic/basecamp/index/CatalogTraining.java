@@ -0,0 +1,131 @@
+package com.globallogic.basecamp.index;
+
+import com.globallogic.basecamp.GradeIterable;
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.batch.BatchResult;
+import com.globallogic.basecamp.batch.BulkTraining;
+import com.globallogic.basecamp.batch.GradeBatch;
+import com.globallogic.basecamp.model.Grade;
+import com.globallogic.basecamp.model.Student;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Training decorator returned by {@link TrainingCatalog#register(Training)}. Reports enrolments and removals
+ * to the catalog index, every other call goes straight to the decorated training. Enrolment changes hold the
+ * catalog lock, so the index never disagrees with the rosters.
+ */
+class CatalogTraining implements Training, GradeIterable, BulkTraining {
+
+    final TrainingCatalog catalog;
+
+    final Training delegate;
+
+    final int id;
+
+    CatalogTraining(TrainingCatalog catalog, Training delegate, int id) {
+        this.catalog = catalog;
+        this.delegate = delegate;
+        this.id = id;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public List<Student> getStudents() {
+        return delegate.getStudents();
+    }
+
+    @Override
+    public boolean addStudent(Student student) {
+        synchronized (catalog) {
+            final var added = delegate.addStudent(student);
+            if (added) {
+                catalog.enrolled(id, student);
+            }
+            return added;
+        }
+    }
+
+    @Override
+    public boolean removeStudent(Student student) {
+        synchronized (catalog) {
+            final var removed = delegate.removeStudent(student);
+            if (removed) {
+                catalog.removed(id, student);
+            }
+            return removed;
+        }
+    }
+
+    @Override
+    public boolean rateFirstSemester(Student student, int mark) {
+        return delegate.rateFirstSemester(student, mark);
+    }
+
+    @Override
+    public boolean rateSecondSemester(Student student, int mark) {
+        return delegate.rateSecondSemester(student, mark);
+    }
+
+    @Override
+    public boolean isPresent(Student student) {
+        return delegate.isPresent(student);
+    }
+
+    @Override
+    public Optional<Grade> getStudentGrade(Student student) {
+        return delegate.getStudentGrade(student);
+    }
+
+    @Override
+    public void forEachGrade(BiConsumer<? super Student, ? super Grade> action) {
+        GradeIterable.forEachGrade(delegate, action);
+    }
+
+    @Override
+    public void forEachMark(MarkVisitor visitor) {
+        GradeIterable.forEachMark(delegate, visitor);
+    }
+
+    @Override
+    public BatchResult addStudents(List<Student> students) {
+        synchronized (catalog) {
+            final var result = BulkTraining.addStudents(delegate, students);
+            for (var i = 0; i < students.size(); i++) {
+                if (result.isApplied(i)) {
+                    catalog.enrolled(id, students.get(i));
+                }
+            }
+            return result;
+        }
+    }
+
+    @Override
+    public int removeStudentsIf(Predicate<? super Student> predicate) {
+        synchronized (catalog) {
+            final var removed = new ArrayList<Student>();
+            BulkTraining.removeStudentsIf(delegate, student -> predicate.test(student) && removed.add(student));
+            removed.forEach(student -> catalog.removed(id, student));
+            return removed.size();
+        }
+    }
+
+    @Override
+    public BatchResult rate(GradeBatch batch) {
+        return BulkTraining.rate(delegate, batch);
+    }
+
+    @Override
+    public boolean rate(Student student, int firstSemester, int secondSemester) {
+        return BulkTraining.rate(delegate, student, firstSemester, secondSemester);
+    }
+
+}
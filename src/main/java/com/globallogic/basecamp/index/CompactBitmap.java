@@ -0,0 +1,305 @@
+package com.globallogic.basecamp.index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * CompactBitmap is a set of non-negative ints that picks the smaller of two layouts for its contents.
+ * <p>
+ * Sparse sets are kept as a sorted {@code int[]}; once a plain bitset over the value range would take less
+ * memory the set switches to a {@code long[]} of words, and switches back when enough values are removed.
+ * Membership is a binary search over at most a few dozen values or a single word test, and set operations
+ * between two dense bitmaps run word by word. Not thread-safe.
+ */
+public class CompactBitmap {
+
+    private static final int[] NO_VALUES = new int[0];
+
+    private int[] values = NO_VALUES;
+
+    private long[] words;
+
+    private int cardinality;
+
+    public CompactBitmap() {
+
+    }
+
+    private CompactBitmap(long[] words) {
+        this.words = words;
+        for (final var word : words) {
+            cardinality += Long.bitCount(word);
+        }
+        compact();
+    }
+
+    /**
+     * Creates the bitmap containing the provided values
+     *
+     * @param values non-negative values
+     * @return bitmap
+     */
+    public static CompactBitmap of(int... values) {
+        final var bitmap = new CompactBitmap();
+        for (final var value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    /**
+     * @param value non-negative value
+     * @return true if the value was not present before
+     */
+    public boolean add(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+        if (words != null) {
+            final var word = value >>> 6;
+            if (word >= words.length) {
+                words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+            }
+            final var bit = 1L << value;
+            if ((words[word] & bit) != 0) {
+                return false;
+            }
+            words[word] |= bit;
+            cardinality++;
+            return true;
+        }
+        final var position = Arrays.binarySearch(values, 0, cardinality, value);
+        if (position >= 0) {
+            return false;
+        }
+        final var insertion = -position - 1;
+        if (cardinality == values.length) {
+            values = Arrays.copyOf(values, Math.max(4, cardinality * 2));
+        }
+        System.arraycopy(values, insertion, values, insertion + 1, cardinality - insertion);
+        values[insertion] = value;
+        cardinality++;
+        if (bitsetIsSmaller()) {
+            toWords();
+        }
+        return true;
+    }
+
+    /**
+     * @param value value to remove
+     * @return true if the value was present
+     */
+    public boolean remove(int value) {
+        if (value < 0) {
+            return false;
+        }
+        if (words != null) {
+            final var word = value >>> 6;
+            final var bit = 1L << value;
+            if (word >= words.length || (words[word] & bit) == 0) {
+                return false;
+            }
+            words[word] &= ~bit;
+            cardinality--;
+            compact();
+            return true;
+        }
+        final var position = Arrays.binarySearch(values, 0, cardinality, value);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(values, position + 1, values, position, cardinality - position - 1);
+        cardinality--;
+        return true;
+    }
+
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        if (words != null) {
+            final var word = value >>> 6;
+            return word < words.length && (words[word] & (1L << value)) != 0;
+        }
+        return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * Visits the values in ascending order
+     *
+     * @param action action receiving every value
+     */
+    public void forEach(IntConsumer action) {
+        if (words == null) {
+            for (var i = 0; i < cardinality; i++) {
+                action.accept(values[i]);
+            }
+            return;
+        }
+        for (var word = 0; word < words.length; word++) {
+            var bits = words[word];
+            while (bits != 0) {
+                action.accept((word << 6) + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    /**
+     * @return values in ascending order
+     */
+    public int[] toArray() {
+        if (words == null) {
+            return Arrays.copyOf(values, cardinality);
+        }
+        final var result = new int[cardinality];
+        final var position = new int[1];
+        forEach(value -> result[position[0]++] = value);
+        return result;
+    }
+
+    /**
+     * @param other bitmap to intersect with
+     * @return new bitmap with values present in both bitmaps
+     */
+    public CompactBitmap and(CompactBitmap other) {
+        if (words != null && other.words != null) {
+            final var length = Math.min(words.length, other.words.length);
+            final var result = new long[length];
+            for (var i = 0; i < length; i++) {
+                result[i] = words[i] & other.words[i];
+            }
+            return new CompactBitmap(result);
+        }
+        final var smaller = cardinality <= other.cardinality ? this : other;
+        final var larger = smaller == this ? other : this;
+        final var result = new CompactBitmap();
+        smaller.forEach(value -> {
+            if (larger.contains(value)) {
+                result.add(value);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @param other bitmap to unite with
+     * @return new bitmap with values present in any of the bitmaps
+     */
+    public CompactBitmap or(CompactBitmap other) {
+        if (words != null && other.words != null) {
+            final var longer = words.length >= other.words.length ? words : other.words;
+            final var shorter = longer == words ? other.words : words;
+            final var result = Arrays.copyOf(longer, longer.length);
+            for (var i = 0; i < shorter.length; i++) {
+                result[i] |= shorter[i];
+            }
+            return new CompactBitmap(result);
+        }
+        final var result = copy();
+        other.forEach(result::add);
+        return result;
+    }
+
+    /**
+     * @param other bitmap with values to exclude
+     * @return new bitmap with values of this bitmap not present in the other one
+     */
+    public CompactBitmap andNot(CompactBitmap other) {
+        if (words != null && other.words != null) {
+            final var result = Arrays.copyOf(words, words.length);
+            final var length = Math.min(words.length, other.words.length);
+            for (var i = 0; i < length; i++) {
+                result[i] &= ~other.words[i];
+            }
+            return new CompactBitmap(result);
+        }
+        final var result = new CompactBitmap();
+        forEach(value -> {
+            if (!other.contains(value)) {
+                result.add(value);
+            }
+        });
+        return result;
+    }
+
+    public CompactBitmap copy() {
+        if (words != null) {
+            return new CompactBitmap(Arrays.copyOf(words, words.length));
+        }
+        final var copy = new CompactBitmap();
+        copy.values = Arrays.copyOf(values, Math.max(cardinality, 4));
+        copy.cardinality = cardinality;
+        return copy;
+    }
+
+    /**
+     * Approximate heap size of the contents
+     *
+     * @return size in bytes
+     */
+    public long sizeInBytes() {
+        return words != null ? 8L * words.length : 4L * values.length;
+    }
+
+    private boolean bitsetIsSmaller() {
+        final var max = values[cardinality - 1];
+        return cardinality > 8 && 4L * cardinality > 8L * ((max >>> 6) + 1);
+    }
+
+    /**
+     * Falls back to the sorted array once it takes less than half of the bitset
+     */
+    private void compact() {
+        if (words == null) {
+            return;
+        }
+        var length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+        if (8L * cardinality < 8L * length) {
+            final var array = new int[Math.max(4, cardinality)];
+            final var position = new int[1];
+            forEach(value -> array[position[0]++] = value);
+            words = null;
+            values = array;
+        }
+    }
+
+    private void toWords() {
+        final var max = values[cardinality - 1];
+        final var bits = new long[(max >>> 6) + 1];
+        for (var i = 0; i < cardinality; i++) {
+            bits[values[i] >>> 6] |= 1L << values[i];
+        }
+        words = bits;
+        values = NO_VALUES;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Arrays.equals(toArray(), ((CompactBitmap) o).toArray());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+}
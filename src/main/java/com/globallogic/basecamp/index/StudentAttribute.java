@@ -0,0 +1,51 @@
+package com.globallogic.basecamp.index;
+
+import com.globallogic.basecamp.model.Address;
+import com.globallogic.basecamp.model.Student;
+
+import java.util.function.Function;
+
+/**
+ * Student and address fields the {@link TrainingCatalog} keeps secondary indexes for. Fields usually matched
+ * as a whole have a hash index; fields searched by prefix, like names and phone numbers, have an ordered one,
+ * which answers both exact and prefix {@link StudentQuery queries}.
+ */
+public enum StudentAttribute {
+
+    COUNTRY(false, student -> student.getAddress() == null ? null : student.getAddress().getCountry()),
+
+    CITY(false, student -> student.getAddress() == null ? null : student.getAddress().getCity()),
+
+    STREET(false, student -> student.getAddress() == null ? null : student.getAddress().getStreet()),
+
+    FIRST_NAME(true, Student::getFirstName),
+
+    LAST_NAME(true, Student::getLastName),
+
+    PHONE_NUMBER(true, Student::getPhoneNumber);
+
+    private final boolean ordered;
+
+    private final Function<Student, String> getter;
+
+    StudentAttribute(boolean ordered, Function<Student, String> getter) {
+        this.ordered = ordered;
+        this.getter = getter;
+    }
+
+    /**
+     * @return true if the index of the attribute is ordered and answers prefix queries
+     */
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    /**
+     * @param student student to read
+     * @return value of the attribute, null if the student or its {@link Address} does not have it
+     */
+    public String valueOf(Student student) {
+        return getter.apply(student);
+    }
+
+}
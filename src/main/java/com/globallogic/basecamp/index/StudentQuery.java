@@ -0,0 +1,275 @@
+package com.globallogic.basecamp.index;
+
+import com.globallogic.basecamp.model.Student;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * StudentQuery is a {@link Predicate} over {@link Student} and {@link com.globallogic.basecamp.model.Address}
+ * fields whose structure the {@link TrainingCatalog} can read, so it is answered from the catalog's
+ * {@link StudentAttribute attribute} indexes instead of testing every student.
+ * <p>
+ * Queries are built from exact and prefix matches of attributes, combined with {@link #and(Predicate)} and
+ * {@link #or(Predicate)}. Arbitrary predicates can be combined as well: an "and" with a lambda looks up the
+ * indexed part and tests only the students it finds, anything else falls back to testing every student. A query
+ * is still a plain predicate, so it can be passed wherever a {@code Predicate<Student>} is expected, e.g. to
+ * {@link com.globallogic.basecamp.TrainingUtils#getStudentEmailsByCondition}.
+ *
+ * <pre>{@code
+ * StudentQuery.livesIn("Country1", "City1").and(StudentQuery.lastNameStartsWith("Per"))
+ * }</pre>
+ */
+public abstract class StudentQuery implements Predicate<Student> {
+
+    private StudentQuery() {
+
+    }
+
+    /**
+     * @param attribute attribute to match
+     * @param value     value the attribute must be equal to
+     * @return query
+     */
+    public static StudentQuery equalTo(StudentAttribute attribute, String value) {
+        if (attribute == null || value == null) {
+            throw new IllegalArgumentException("Empty field found");
+        }
+        return new EqualTo(attribute, value);
+    }
+
+    /**
+     * Prefix match, looked up in the index when the attribute is {@link StudentAttribute#isOrdered() ordered}
+     *
+     * @param attribute attribute to match
+     * @param prefix    prefix the attribute must start with
+     * @return query
+     */
+    public static StudentQuery startsWith(StudentAttribute attribute, String prefix) {
+        if (attribute == null || prefix == null) {
+            throw new IllegalArgumentException("Empty field found");
+        }
+        return new StartsWith(attribute, prefix);
+    }
+
+    public static StudentQuery livesIn(String country) {
+        return equalTo(StudentAttribute.COUNTRY, country);
+    }
+
+    public static StudentQuery livesIn(String country, String city) {
+        return equalTo(StudentAttribute.COUNTRY, country).and(equalTo(StudentAttribute.CITY, city));
+    }
+
+    public static StudentQuery lastNameStartsWith(String prefix) {
+        return startsWith(StudentAttribute.LAST_NAME, prefix);
+    }
+
+    public static StudentQuery phoneNumberStartsWith(String prefix) {
+        return startsWith(StudentAttribute.PHONE_NUMBER, prefix);
+    }
+
+    /**
+     * @param predicate arbitrary condition
+     * @return query testing the predicate on every student it is asked about
+     */
+    public static StudentQuery matching(Predicate<? super Student> predicate) {
+        if (predicate == null) {
+            throw new IllegalArgumentException("Empty field found");
+        }
+        return predicate instanceof StudentQuery ? (StudentQuery) predicate : new Matching(predicate);
+    }
+
+    @Override
+    public StudentQuery and(Predicate<? super Student> other) {
+        return new AllOf(this, matching(other));
+    }
+
+    @Override
+    public StudentQuery or(Predicate<? super Student> other) {
+        return new AnyOf(this, matching(other));
+    }
+
+    @Override
+    public StudentQuery negate() {
+        return new Matching(student -> !test(student));
+    }
+
+    /**
+     * @return ids of the students that may match, or null if the query cannot be looked up and every student
+     * must be tested. The index holds the values read when the students were indexed, so the students returned
+     * are still tested. Indexed bitmaps may be returned as they are, they must not be changed
+     */
+    abstract CompactBitmap lookup(AttributeIndex index);
+
+    private static final class EqualTo extends StudentQuery {
+
+        private final StudentAttribute attribute;
+
+        private final String value;
+
+        private EqualTo(StudentAttribute attribute, String value) {
+            this.attribute = attribute;
+            this.value = value;
+        }
+
+        @Override
+        public boolean test(Student student) {
+            return value.equals(attribute.valueOf(student));
+        }
+
+        @Override
+        CompactBitmap lookup(AttributeIndex index) {
+            return index.equalTo(attribute, value);
+        }
+
+        @Override
+        public String toString() {
+            return attribute + " = " + value;
+        }
+    }
+
+    private static final class StartsWith extends StudentQuery {
+
+        private final StudentAttribute attribute;
+
+        private final String prefix;
+
+        private StartsWith(StudentAttribute attribute, String prefix) {
+            this.attribute = attribute;
+            this.prefix = prefix;
+        }
+
+        @Override
+        public boolean test(Student student) {
+            final var value = attribute.valueOf(student);
+            return value != null && value.startsWith(prefix);
+        }
+
+        @Override
+        CompactBitmap lookup(AttributeIndex index) {
+            return attribute.isOrdered() ? index.startsWith(attribute, prefix) : null;
+        }
+
+        @Override
+        public String toString() {
+            return attribute + " starts with " + prefix;
+        }
+    }
+
+    private static final class Matching extends StudentQuery {
+
+        private final Predicate<? super Student> predicate;
+
+        private Matching(Predicate<? super Student> predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean test(Student student) {
+            return predicate.test(student);
+        }
+
+        @Override
+        CompactBitmap lookup(AttributeIndex index) {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return "matching " + predicate;
+        }
+    }
+
+    /**
+     * Intersection of the lookups of the parts that can be looked up
+     */
+    private static final class AllOf extends StudentQuery {
+
+        private final List<StudentQuery> parts = new ArrayList<>();
+
+        private AllOf(StudentQuery... parts) {
+            for (final var part : parts) {
+                if (part instanceof AllOf) {
+                    this.parts.addAll(((AllOf) part).parts);
+                } else {
+                    this.parts.add(part);
+                }
+            }
+        }
+
+        @Override
+        public boolean test(Student student) {
+            for (final var part : parts) {
+                if (!part.test(student)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        CompactBitmap lookup(AttributeIndex index) {
+            CompactBitmap result = null;
+            for (final var part : parts) {
+                final var bitmap = part.lookup(index);
+                if (bitmap != null) {
+                    result = result == null ? bitmap : result.and(bitmap);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "all of " + parts;
+        }
+    }
+
+    /**
+     * Union of the lookups of the parts, if all of them can be looked up
+     */
+    private static final class AnyOf extends StudentQuery {
+
+        private final List<StudentQuery> parts = new ArrayList<>();
+
+        private AnyOf(StudentQuery... parts) {
+            for (final var part : parts) {
+                if (part instanceof AnyOf) {
+                    this.parts.addAll(((AnyOf) part).parts);
+                } else {
+                    this.parts.add(part);
+                }
+            }
+        }
+
+        @Override
+        public boolean test(Student student) {
+            for (final var part : parts) {
+                if (part.test(student)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        CompactBitmap lookup(AttributeIndex index) {
+            var result = new CompactBitmap();
+            for (final var part : parts) {
+                final var bitmap = part.lookup(index);
+                if (bitmap == null) {
+                    return null;
+                }
+                result = result.or(bitmap);
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "any of " + parts;
+        }
+    }
+
+}
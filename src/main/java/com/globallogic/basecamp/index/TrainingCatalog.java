@@ -0,0 +1,445 @@
+package com.globallogic.basecamp.index;
+
+import com.globallogic.basecamp.StudentRegistry;
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.model.Student;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * TrainingCatalog keeps an inverted index of the trainings every student attends.
+ * <p>
+ * Trainings are added with {@link #register(Training)}, which assigns a dense training id and returns a
+ * decorated training. Enrolling or removing students through the decorated training keeps two sets of
+ * {@link CompactBitmap}s up to date: training ids per student and student ids per training. Student ids come
+ * from the catalog's {@link StudentRegistry}.
+ * <p>
+ * Membership checks are then a bitmap lookup, "trainings per student" is a bitmap decode and questions like
+ * "students of A and B but not C" are bitmap operations. Changes made to the original, undecorated training
+ * are not seen by the catalog.
+ * <p>
+ * Students attending at least one training are also kept in an ordered index by last name, first name and
+ * email, the order of {@link com.globallogic.basecamp.comparator.StudentComparator StudentComparator}. A
+ * student enters the index with the first enrolment and leaves it with the last removal, so sorted listings,
+ * top-N results and range scans from a name onward cost O(log n + k) for k students instead of sorting all
+ * students on every call. Students without a name sort first.
+ * <p>
+ * The same students are indexed by their {@link StudentAttribute attributes}, so {@link StudentQuery queries}
+ * like "lives in country X" or "last name starts with Z" are bitmap lookups instead of testing every student.
+ * The students found are tested against the query once more, so a query never returns a student that does not
+ * match it now.
+ * <p>
+ * Names and attribute values are read when a student enters the index and when it is enrolled again as another
+ * object. A student whose fields are changed afterwards keeps its old position and is only found by queries
+ * matching its old values, until it is {@link #reindex(Student) reindexed}.
+ * <p>
+ * The catalog is thread-safe; index updates and queries are serialised on the catalog.
+ */
+public class TrainingCatalog {
+
+    private final StudentRegistry registry;
+
+    private final List<CatalogTraining> trainings = new ArrayList<>();
+
+    private final List<CompactBitmap> trainingsByStudent = new ArrayList<>();
+
+    private final List<CompactBitmap> studentsByTraining = new ArrayList<>();
+
+    private final List<Student> students = new ArrayList<>();
+
+    /**
+     * Sort key of every indexed student by student id, null for students not attending any training
+     */
+    private final List<SortKey> sortKeys = new ArrayList<>();
+
+    private final NavigableSet<SortKey> sorted = new TreeSet<>(SortKey.ORDER);
+
+    private final AttributeIndex attributes = new AttributeIndex();
+
+    public TrainingCatalog() {
+        this(new StudentRegistry());
+    }
+
+    public TrainingCatalog(StudentRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Adds the training to the catalog and indexes its current students
+     *
+     * @param training training to add
+     * @return decorated training that must be used for further changes
+     */
+    public synchronized Training register(Training training) {
+        if (training instanceof CatalogTraining && ((CatalogTraining) training).catalog == this) {
+            return training;
+        }
+        final var decorated = new CatalogTraining(this, training, trainings.size());
+        trainings.add(decorated);
+        studentsByTraining.add(new CompactBitmap());
+        for (final var student : training.getStudents()) {
+            enrolled(decorated.id, student);
+        }
+        return decorated;
+    }
+
+    /**
+     * @param trainings trainings to check
+     * @return catalog all the trainings are registered in, empty if there are none or they are not registered in
+     * the same catalog
+     */
+    public static Optional<TrainingCatalog> catalogOf(Collection<? extends Training> trainings) {
+        TrainingCatalog catalog = null;
+        for (final var training : trainings) {
+            if (!(training instanceof CatalogTraining)
+                    || catalog != null && ((CatalogTraining) training).catalog != catalog) {
+                return Optional.empty();
+            }
+            catalog = ((CatalogTraining) training).catalog;
+        }
+        return Optional.ofNullable(catalog);
+    }
+
+    public StudentRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * @return decorated trainings in registration order
+     */
+    public synchronized List<Training> getTrainings() {
+        return new ArrayList<>(trainings);
+    }
+
+    /**
+     * @param student student to check
+     * @return true if the student attends any training of the catalog
+     */
+    public synchronized boolean isPresentOnAnyTraining(Student student) {
+        final var bitmap = trainingBitmap(student);
+        return bitmap != null && !bitmap.isEmpty();
+    }
+
+    /**
+     * @param student  student to check
+     * @param training decorated training of this catalog
+     * @return true if the student attends the training
+     */
+    public synchronized boolean isPresent(Student student, Training training) {
+        final var trainingId = idOf(training);
+        final var bitmap = trainingBitmap(student);
+        return bitmap != null && bitmap.contains(trainingId);
+    }
+
+    /**
+     * @param student student to look up
+     * @return decorated trainings the student attends, in registration order
+     */
+    public synchronized List<Training> getTrainings(Student student) {
+        final var result = new ArrayList<Training>();
+        final var bitmap = trainingBitmap(student);
+        if (bitmap != null) {
+            bitmap.forEach(id -> result.add(trainings.get(id)));
+        }
+        return result;
+    }
+
+    /**
+     * Same result as {@link com.globallogic.basecamp.TrainingUtils#getTrainingsPerStudent} over all trainings
+     * of the catalog, decoded from the index
+     *
+     * @return map where keys are student emails and values are names of the trainings the student attends
+     */
+    public synchronized Map<String, List<String>> getTrainingsPerStudent() {
+        final var result = new HashMap<String, List<String>>();
+        for (var id = 0; id < trainingsByStudent.size(); id++) {
+            final var bitmap = trainingsByStudent.get(id);
+            if (bitmap == null || bitmap.isEmpty()) {
+                continue;
+            }
+            final var names = new ArrayList<String>(bitmap.cardinality());
+            bitmap.forEach(training -> names.add(trainings.get(training).getName()));
+            result.put(registry.emailOf(id), names);
+        }
+        return result;
+    }
+
+    /**
+     * @param training decorated training of this catalog
+     * @return copy of the bitmap of student ids attending the training
+     */
+    public synchronized CompactBitmap getStudentIds(Training training) {
+        return studentsByTraining.get(idOf(training)).copy();
+    }
+
+    /**
+     * Students attending every training of {@code included} and none of {@code excluded}
+     *
+     * @param included decorated trainings the students must attend, at least one
+     * @param excluded decorated trainings the students must not attend
+     * @return bitmap of student ids
+     */
+    public synchronized CompactBitmap getStudentIds(Collection<Training> included, Collection<Training> excluded) {
+        if (included.isEmpty()) {
+            throw new IllegalArgumentException("At least one training must be included");
+        }
+        CompactBitmap result = null;
+        for (final var training : included) {
+            final var bitmap = studentsByTraining.get(idOf(training));
+            result = result == null ? bitmap.copy() : result.and(bitmap);
+        }
+        for (final var training : excluded) {
+            result = result.andNot(studentsByTraining.get(idOf(training)));
+        }
+        return result;
+    }
+
+    /**
+     * @param studentIds bitmap of student ids returned by this catalog
+     * @return students with the provided ids
+     */
+    public synchronized List<Student> getStudents(CompactBitmap studentIds) {
+        final var result = new ArrayList<Student>(studentIds.cardinality());
+        studentIds.forEach(id -> result.add(students.get(id)));
+        return result;
+    }
+
+    /**
+     * Reads the names and attribute values of the student again, e.g. after its fields were changed
+     *
+     * @param student changed student
+     * @return true if the student attends any training of the catalog, false if there was nothing to reindex
+     */
+    public synchronized boolean reindex(Student student) {
+        final var id = registry.idOf(student.getEmail());
+        if (id == StudentRegistry.ABSENT || id >= sortKeys.size() || sortKeys.get(id) == null) {
+            return false;
+        }
+        index(id, student);
+        return true;
+    }
+
+    /**
+     * Looks the candidates up in the attribute indexes and tests each of them, so the result only holds students
+     * matching the query with their current values
+     *
+     * @param query condition on the student attributes
+     * @return bitmap of the ids of the students attending any training that match the query
+     */
+    public synchronized CompactBitmap getStudentIds(StudentQuery query) {
+        final var candidates = query.lookup(attributes);
+        final var result = new CompactBitmap();
+        (candidates == null ? attributes.all() : candidates).forEach(id -> {
+            if (query.test(students.get(id))) {
+                result.add(id);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @param query condition on the student attributes
+     * @return students attending any training that match the query, in id order
+     */
+    public synchronized List<Student> getStudents(StudentQuery query) {
+        return getStudents(getStudentIds(query));
+    }
+
+    /**
+     * Students of the trainings that match the query, looked up in the indexes and narrowed down to the
+     * trainings with their student bitmaps
+     *
+     * @param trainings decorated trainings of this catalog
+     * @param query     condition on the student attributes
+     * @return distinct students of the trainings that match the query, in id order
+     */
+    public synchronized List<Student> getStudents(Collection<? extends Training> trainings, StudentQuery query) {
+        var attending = new CompactBitmap();
+        for (final var training : trainings) {
+            attending = attending.or(studentsByTraining.get(idOf(training)));
+        }
+        return getStudents(getStudentIds(query).and(attending));
+    }
+
+    /**
+     * @return students attending any training of the catalog in the order of the
+     * {@link com.globallogic.basecamp.comparator.StudentComparator StudentComparator}
+     */
+    public synchronized List<Student> getStudentsSorted() {
+        return studentsOf(sorted, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param limit largest number of students to return
+     * @return first students in the order of the {@link com.globallogic.basecamp.comparator.StudentComparator}
+     */
+    public synchronized List<Student> getStudentsSorted(int limit) {
+        return studentsOf(sorted, limit);
+    }
+
+    /**
+     * Range scan starting at the name, e.g. everybody from "Perry" onward
+     *
+     * @param lastName  last name to start at, inclusive
+     * @param firstName first name to start at among students with the last name, inclusive, null for all
+     * @param limit     largest number of students to return
+     * @return students with the same or a later name, in sorted order
+     */
+    public synchronized List<Student> getStudentsSortedFrom(String lastName, String firstName, int limit) {
+        return studentsOf(sorted.tailSet(new SortKey(lastName, firstName, null, StudentRegistry.ABSENT), true),
+                limit);
+    }
+
+    /**
+     * Next page of a sorted listing: the students following the last student of the previous page
+     *
+     * @param student last student of the previous page
+     * @param limit   page size
+     * @return students following the student, in sorted order
+     */
+    public synchronized List<Student> getStudentsSortedAfter(Student student, int limit) {
+        final var id = registry.idOf(student.getEmail());
+        final var key = id == StudentRegistry.ABSENT || id >= sortKeys.size() || sortKeys.get(id) == null
+                ? new SortKey(student.getLastName(), student.getFirstName(), student.getEmail(), id)
+                : sortKeys.get(id);
+        return studentsOf(sorted.tailSet(key, false), limit);
+    }
+
+    /**
+     * Same result as {@link com.globallogic.basecamp.TrainingUtils#getStudentsSorted} over all trainings of the
+     * catalog. Full names are built once per student and kept in the index
+     *
+     * @return full names of the students attending any training, sorted
+     */
+    public synchronized List<String> getStudentNamesSorted() {
+        final var result = new ArrayList<String>(sorted.size());
+        for (final var key : sorted) {
+            result.add(key.getFullName());
+        }
+        return result;
+    }
+
+    private List<Student> studentsOf(Collection<SortKey> keys, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Negative limit");
+        }
+        final var result = new ArrayList<Student>(Math.min(limit, keys.size()));
+        for (final var key : keys) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(students.get(key.id));
+        }
+        return result;
+    }
+
+    private CompactBitmap trainingBitmap(Student student) {
+        final var id = registry.idOf(student.getEmail());
+        return id == StudentRegistry.ABSENT || id >= trainingsByStudent.size() ? null : trainingsByStudent.get(id);
+    }
+
+    private int idOf(Training training) {
+        if (!(training instanceof CatalogTraining) || ((CatalogTraining) training).catalog != this) {
+            throw new IllegalArgumentException("Training is not registered in this catalog: " + training.getName());
+        }
+        return ((CatalogTraining) training).id;
+    }
+
+    synchronized void enrolled(int trainingId, Student student) {
+        final var studentId = registry.register(student);
+        while (trainingsByStudent.size() <= studentId) {
+            trainingsByStudent.add(null);
+            students.add(null);
+            sortKeys.add(null);
+        }
+        var bitmap = trainingsByStudent.get(studentId);
+        if (bitmap == null) {
+            bitmap = new CompactBitmap();
+            trainingsByStudent.set(studentId, bitmap);
+        }
+        bitmap.add(trainingId);
+        if (students.get(studentId) != student || sortKeys.get(studentId) == null) {
+            index(studentId, student);
+        }
+        studentsByTraining.get(trainingId).add(studentId);
+    }
+
+    /**
+     * Puts the student into the sorted and the attribute indexes with its current values, replacing the values
+     * read before
+     */
+    private void index(int studentId, Student student) {
+        final var previous = sortKeys.get(studentId);
+        if (previous != null) {
+            sorted.remove(previous);
+            attributes.remove(studentId);
+        }
+        final var key = new SortKey(student.getLastName(), student.getFirstName(), student.getEmail(), studentId);
+        sortKeys.set(studentId, key);
+        sorted.add(key);
+        attributes.add(studentId, student);
+        students.set(studentId, student);
+    }
+
+    synchronized void removed(int trainingId, Student student) {
+        final var studentId = registry.idOf(student.getEmail());
+        if (studentId == StudentRegistry.ABSENT || studentId >= trainingsByStudent.size()) {
+            return;
+        }
+        final var bitmap = trainingsByStudent.get(studentId);
+        if (bitmap != null) {
+            bitmap.remove(trainingId);
+            if (bitmap.isEmpty() && sortKeys.get(studentId) != null) {
+                sorted.remove(sortKeys.set(studentId, null));
+                attributes.remove(studentId);
+            }
+        }
+        studentsByTraining.get(trainingId).remove(studentId);
+    }
+
+    /**
+     * Position of a student in the sorted index. The names are copied when the student is indexed, so the
+     * index stays consistent if the student object is changed later
+     */
+    private static final class SortKey {
+
+        private static final Comparator<String> NAMES = Comparator.nullsFirst(Comparator.naturalOrder());
+
+        static final Comparator<SortKey> ORDER = Comparator.<SortKey, String>comparing(key -> key.lastName, NAMES)
+                .thenComparing(key -> key.firstName, NAMES)
+                .thenComparing(key -> key.email, NAMES);
+
+        private final String lastName;
+
+        private final String firstName;
+
+        private final String email;
+
+        private final int id;
+
+        private String fullName;
+
+        private SortKey(String lastName, String firstName, String email, int id) {
+            this.lastName = lastName;
+            this.firstName = firstName;
+            this.email = email;
+            this.id = id;
+        }
+
+        private String getFullName() {
+            if (fullName == null) {
+                fullName = firstName.concat(" ").concat(lastName);
+            }
+            return fullName;
+        }
+    }
+
+}
@@ -0,0 +1,488 @@
+package com.globallogic.basecamp.io;
+
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.batch.BulkTraining;
+import com.globallogic.basecamp.batch.GradeBatch;
+import com.globallogic.basecamp.model.Address;
+import com.globallogic.basecamp.model.Semester;
+import com.globallogic.basecamp.model.Student;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * CsvImporter streams a roster export into trainings. Every row enrols one student into one training and
+ * optionally sets the marks of the student:
+ *
+ * <pre>
+ * training,email,firstName,lastName,phoneNumber,country,city,street,houseNumber,firstSemester,secondSemester
+ * Java Core,jerry.ferdy@email.com,Jerry,Ferdy,000-000-00-00,Country1,City1,"Street1, block 2",1,8,5
+ * </pre>
+ * <p>
+ * The input is read through a channel into one fixed buffer and split into fields byte by byte, quoted fields
+ * follow RFC 4180. Only the fields of the current row are kept, text fields become a {@link String} each and
+ * numbers are parsed straight from the bytes, so memory does not depend on the size of the input. Rows are
+ * collected per training and applied through {@link BulkTraining} once {@code batchSize} rows are pending:
+ * first the enrolments, then the marks.
+ * <p>
+ * Empty fields are read as null, empty marks leave the semester as it is. Rows with a wrong column count, an
+ * empty email, a mark outside 0..10, a house number that is not a number or a training the resolver does not
+ * know are skipped and counted in the {@link ImportStats}.
+ * <p>
+ * The importer is immutable and may be shared, every call keeps its own parsing state.
+ */
+public class CsvImporter {
+
+    /**
+     * Columns of the input in their order
+     */
+    public static final List<String> COLUMNS = List.of("training", "email", "firstName", "lastName",
+            "phoneNumber", "country", "city", "street", "houseNumber", "firstSemester", "secondSemester");
+
+    private static final int TRAINING = 0;
+
+    private static final int EMAIL = 1;
+
+    private static final int FIRST_NAME = 2;
+
+    private static final int LAST_NAME = 3;
+
+    private static final int PHONE_NUMBER = 4;
+
+    private static final int COUNTRY = 5;
+
+    private static final int CITY = 6;
+
+    private static final int STREET = 7;
+
+    private static final int HOUSE_NUMBER = 8;
+
+    private static final int FIRST_SEMESTER = 9;
+
+    private static final int SECOND_SEMESTER = 10;
+
+    /**
+     * Longest row accepted, protects against an unterminated quote swallowing the rest of the input
+     */
+    private static final int MAX_ROW_BYTES = 1 << 20;
+
+    private static final int NO_NUMBER = -1;
+
+    private static final int WRONG_NUMBER = -2;
+
+    private final int batchSize;
+
+    private final int bufferSize;
+
+    private final boolean header;
+
+    private CsvImporter(Builder builder) {
+        this.batchSize = builder.batchSize;
+        this.bufferSize = builder.bufferSize;
+        this.header = builder.header;
+    }
+
+    /**
+     * Allows to get the builder for the CsvImporter
+     *
+     * @return builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Imports the file
+     *
+     * @param path     CSV file, UTF-8 encoded
+     * @param resolver training by the name in the first column, null for unknown trainings
+     * @return summary of the import
+     * @throws IOException if the file cannot be read
+     */
+    public ImportStats importFile(Path path, Function<String, ? extends Training> resolver) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return importFrom(channel, resolver);
+        }
+    }
+
+    /**
+     * Imports everything the channel returns. The channel is not closed
+     *
+     * @param channel  CSV input, UTF-8 encoded
+     * @param resolver training by the name in the first column, null for unknown trainings
+     * @return summary of the import
+     * @throws IOException              if the channel cannot be read
+     * @throws IllegalArgumentException if a row is longer than 1 MB, rows before it are imported
+     */
+    public ImportStats importFrom(ReadableByteChannel channel, Function<String, ? extends Training> resolver)
+            throws IOException {
+        return new Run(resolver).read(channel);
+    }
+
+    /**
+     * Rows of one training waiting for the next batch
+     */
+    private static class Pending {
+
+        private final Training training;
+
+        private final List<Student> students = new ArrayList<>();
+
+        private GradeBatch.Builder grades = GradeBatch.builder();
+
+        private int gradeCount;
+
+        private Pending(Training training) {
+            this.training = training;
+        }
+    }
+
+    /**
+     * Parsing state of one import
+     */
+    private class Run {
+
+        private static final int FIELD_START = 0;
+
+        private static final int UNQUOTED = 1;
+
+        private static final int QUOTED = 2;
+
+        private static final int QUOTE = 3;
+
+        private final Function<String, ? extends Training> resolver;
+
+        private final Map<String, Pending> trainings = new HashMap<>();
+
+        private final int[] fieldStart = new int[COLUMNS.size()];
+
+        private final int[] fieldEnd = new int[COLUMNS.size()];
+
+        private byte[] row = new byte[256];
+
+        private int rowLength;
+
+        private int fieldCount;
+
+        private int currentFieldStart;
+
+        private int state = FIELD_START;
+
+        private boolean skipHeader = header;
+
+        private byte[] lastTrainingName = new byte[0];
+
+        private Pending lastTraining;
+
+        private int pendingRows;
+
+        private long line = 1;
+
+        private long rowLine = 1;
+
+        private long rowCount;
+
+        private long enrolledCount;
+
+        private long gradedCount;
+
+        private long rejectedCount;
+
+        private long firstRejectedLine;
+
+        private Run(Function<String, ? extends Training> resolver) {
+            this.resolver = resolver;
+        }
+
+        private ImportStats read(ReadableByteChannel channel) throws IOException {
+            final var start = System.nanoTime();
+            final var buffer = ByteBuffer.allocate(bufferSize);
+            final var data = buffer.array();
+            var bytes = 0L;
+            int read;
+            while ((read = channel.read(buffer)) != -1) {
+                bytes += read;
+                final var length = buffer.position();
+                for (var i = 0; i < length; i++) {
+                    accept(data[i]);
+                }
+                buffer.clear();
+            }
+            if (state != FIELD_START || rowLength > 0 || fieldCount > 0) {
+                endRow();
+            }
+            flush();
+            return new ImportStats(rowCount, enrolledCount, gradedCount, rejectedCount, firstRejectedLine, bytes,
+                    System.nanoTime() - start);
+        }
+
+        private void accept(byte b) {
+            switch (state) {
+                case FIELD_START:
+                    if (b == '"') {
+                        state = QUOTED;
+                    } else {
+                        unquoted(b);
+                    }
+                    break;
+                case UNQUOTED:
+                    unquoted(b);
+                    break;
+                case QUOTED:
+                    if (b == '"') {
+                        state = QUOTE;
+                    } else {
+                        if (b == '\n') {
+                            line++;
+                        }
+                        append(b);
+                    }
+                    break;
+                default:
+                    if (b == '"') {
+                        append(b);
+                        state = QUOTED;
+                    } else {
+                        unquoted(b);
+                    }
+            }
+        }
+
+        private void unquoted(byte b) {
+            if (b == ',') {
+                endField();
+                state = FIELD_START;
+            } else if (b == '\n') {
+                line++;
+                endRow();
+            } else if (b != '\r') {
+                append(b);
+                state = UNQUOTED;
+            }
+        }
+
+        private void append(byte b) {
+            if (rowLength == row.length) {
+                if (rowLength == MAX_ROW_BYTES) {
+                    // the rows before the long one are still imported
+                    flush();
+                    throw new IllegalArgumentException("Row at line " + rowLine + " is longer than "
+                            + MAX_ROW_BYTES + " bytes");
+                }
+                row = Arrays.copyOf(row, Math.min(rowLength * 2, MAX_ROW_BYTES));
+            }
+            row[rowLength++] = b;
+        }
+
+        private void endField() {
+            if (fieldCount < fieldStart.length) {
+                fieldStart[fieldCount] = currentFieldStart;
+                fieldEnd[fieldCount] = rowLength;
+            }
+            fieldCount++;
+            currentFieldStart = rowLength;
+        }
+
+        private void endRow() {
+            endField();
+            if (fieldCount > 1 || rowLength > 0) {
+                if (skipHeader) {
+                    skipHeader = false;
+                } else {
+                    rowCount++;
+                    if (!importRow()) {
+                        if (rejectedCount++ == 0) {
+                            firstRejectedLine = rowLine;
+                        }
+                    }
+                }
+            }
+            rowLength = 0;
+            fieldCount = 0;
+            currentFieldStart = 0;
+            state = FIELD_START;
+            rowLine = line;
+        }
+
+        /**
+         * @return false if the row was rejected
+         */
+        private boolean importRow() {
+            if (fieldCount != COLUMNS.size()) {
+                return false;
+            }
+            final var pending = trainingOf();
+            final var email = string(EMAIL);
+            final var firstSemester = number(FIRST_SEMESTER, 2);
+            final var secondSemester = number(SECOND_SEMESTER, 2);
+            final var houseNumber = number(HOUSE_NUMBER, 9);
+            if (pending.training == null || email == null
+                    || firstSemester == WRONG_NUMBER || firstSemester > 10
+                    || secondSemester == WRONG_NUMBER || secondSemester > 10
+                    || houseNumber == WRONG_NUMBER) {
+                return false;
+            }
+            final var student = Student.builder(email)
+                    .setFirstName(string(FIRST_NAME))
+                    .setLastName(string(LAST_NAME))
+                    .setPhoneNumber(string(PHONE_NUMBER))
+                    .setAddress(address(houseNumber))
+                    .build();
+            pending.students.add(student);
+            if (firstSemester != NO_NUMBER) {
+                pending.grades.rate(student, Semester.FIRST, firstSemester);
+                pending.gradeCount++;
+            }
+            if (secondSemester != NO_NUMBER) {
+                pending.grades.rate(student, Semester.SECOND, secondSemester);
+                pending.gradeCount++;
+            }
+            if (++pendingRows >= batchSize) {
+                flush();
+            }
+            return true;
+        }
+
+        /**
+         * Rows of an export are usually grouped by training, so the name is compared with the one of the
+         * previous row before a string is made of it
+         */
+        private Pending trainingOf() {
+            final var start = fieldStart[TRAINING];
+            final var end = fieldEnd[TRAINING];
+            if (lastTraining != null
+                    && Arrays.equals(row, start, end, lastTrainingName, 0, lastTrainingName.length)) {
+                return lastTraining;
+            }
+            final var name = new String(row, start, end - start, StandardCharsets.UTF_8);
+            lastTrainingName = Arrays.copyOfRange(row, start, end);
+            lastTraining = trainings.computeIfAbsent(name, key -> new Pending(resolver.apply(key)));
+            return lastTraining;
+        }
+
+        private Address address(int houseNumber) {
+            final var country = string(COUNTRY);
+            final var city = string(CITY);
+            final var street = string(STREET);
+            if (country == null && city == null && street == null && houseNumber == NO_NUMBER) {
+                return null;
+            }
+            return Address.builder()
+                    .setCountry(country)
+                    .setCity(city)
+                    .setStreet(street)
+                    .setHouseNumber(houseNumber == NO_NUMBER ? null : houseNumber)
+                    .build();
+        }
+
+        private String string(int field) {
+            final var length = fieldEnd[field] - fieldStart[field];
+            return length == 0 ? null : new String(row, fieldStart[field], length, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * @return non-negative number, {@link #NO_NUMBER} for an empty field or {@link #WRONG_NUMBER}
+         */
+        private int number(int field, int maxDigits) {
+            final var start = fieldStart[field];
+            final var end = fieldEnd[field];
+            if (start == end) {
+                return NO_NUMBER;
+            }
+            if (end - start > maxDigits) {
+                return WRONG_NUMBER;
+            }
+            var value = 0;
+            for (var i = start; i < end; i++) {
+                final var digit = row[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    return WRONG_NUMBER;
+                }
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+
+        private void flush() {
+            for (var pending : trainings.values()) {
+                if (!pending.students.isEmpty()) {
+                    enrolledCount += BulkTraining.addStudents(pending.training, pending.students)
+                            .getAppliedCount();
+                    pending.students.clear();
+                }
+                if (pending.gradeCount > 0) {
+                    gradedCount += BulkTraining.rate(pending.training, pending.grades.build()).getAppliedCount();
+                    pending.grades = GradeBatch.builder();
+                    pending.gradeCount = 0;
+                }
+            }
+            pendingRows = 0;
+        }
+    }
+
+    /**
+     * Builder class is a part of the builder pattern implementation
+     * Needed to configure the importer
+     */
+    public static class Builder {
+
+        private int batchSize = 4096;
+
+        private int bufferSize = 1 << 16;
+
+        private boolean header = true;
+
+        private Builder() {
+
+        }
+
+        /**
+         * @param batchSize number of rows applied to the trainings at once, 4096 by default
+         * @return builder
+         */
+        public Builder setBatchSize(int batchSize) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("Non-positive batch size");
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * @param bufferSize number of bytes read from the channel at once, 64 KB by default
+         * @return builder
+         */
+        public Builder setBufferSize(int bufferSize) {
+            if (bufferSize <= 0) {
+                throw new IllegalArgumentException("Non-positive buffer size");
+            }
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * @param header true if the first row holds the column names and is skipped, true by default
+         * @return builder
+         */
+        public Builder setHeader(boolean header) {
+            this.header = header;
+            return this;
+        }
+
+        public CsvImporter build() {
+            return new CsvImporter(this);
+        }
+    }
+
+}
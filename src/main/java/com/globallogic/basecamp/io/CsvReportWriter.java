@@ -0,0 +1,93 @@
+package com.globallogic.basecamp.io;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/**
+ * {@link ReportWriter} of {@code report,key,value} rows, fields are quoted as in RFC 4180 when they need to be
+ */
+class CsvReportWriter extends ReportWriter {
+
+    private boolean header = true;
+
+    CsvReportWriter(WritableByteChannel channel) {
+        super(channel);
+    }
+
+    @Override
+    public void averageMarkPerStudent(String email, double average) throws IOException {
+        startRow("averageMarkPerStudent", email);
+        writeDouble(average);
+        writeByte('\n');
+    }
+
+    @Override
+    public void averageMarkPerTraining(String training, double average) throws IOException {
+        startRow("averageMarkPerTraining", training);
+        writeDouble(average);
+        writeByte('\n');
+    }
+
+    @Override
+    public void trainingsPerStudent(String email, List<String> trainings) throws IOException {
+        for (var training : trainings) {
+            startRow("trainingsPerStudent", email);
+            writeField(training);
+            writeByte('\n');
+        }
+    }
+
+    @Override
+    public void studentWithMaxMark(String email) throws IOException {
+        startRow("studentsWithMaxMark", email);
+        writeByte('\n');
+    }
+
+    @Override
+    public void studentWithMarkLowerThan(String email) throws IOException {
+        startRow("studentsWithMarkLowerThan", email);
+        writeByte('\n');
+    }
+
+    private void startRow(String report, String key) throws IOException {
+        if (header) {
+            header = false;
+            writeAscii("report,key,value\n");
+        }
+        writeAscii(report);
+        writeByte(',');
+        writeField(key);
+        writeByte(',');
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!needsQuotes(value)) {
+            writeUtf8(value);
+            return;
+        }
+        writeByte('"');
+        var start = 0;
+        for (var quote = value.indexOf('"'); quote >= 0; quote = value.indexOf('"', start)) {
+            writeUtf8(value, start, quote + 1);
+            writeByte('"');
+            start = quote + 1;
+        }
+        writeUtf8(value, start, value.length());
+        writeByte('"');
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (var i = 0; i < value.length(); i++) {
+            final var c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.globallogic.basecamp.io;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * ImportStats is the immutable summary of one {@link CsvImporter} run: how many rows were read, enrolled,
+ * graded and rejected, and how fast the input was read.
+ */
+public class ImportStats {
+
+    private final long rowCount;
+
+    private final long enrolledCount;
+
+    private final long gradedCount;
+
+    private final long rejectedCount;
+
+    private final long firstRejectedLine;
+
+    private final long bytes;
+
+    private final long elapsedNanos;
+
+    ImportStats(long rowCount, long enrolledCount, long gradedCount, long rejectedCount, long firstRejectedLine,
+                long bytes, long elapsedNanos) {
+        this.rowCount = rowCount;
+        this.enrolledCount = enrolledCount;
+        this.gradedCount = gradedCount;
+        this.rejectedCount = rejectedCount;
+        this.firstRejectedLine = firstRejectedLine;
+        this.bytes = bytes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return number of data rows read, without the header and blank lines
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return number of students enrolled, rows of students who already attended the training are not counted
+     */
+    public long getEnrolledCount() {
+        return enrolledCount;
+    }
+
+    /**
+     * @return number of semester marks set
+     */
+    public long getGradedCount() {
+        return gradedCount;
+    }
+
+    /**
+     * @return number of rows skipped because of a wrong column count, an empty email, a wrong mark or house
+     * number, or an unknown training
+     */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * @return line the first rejected row starts at, counting from 1, or empty if no row was rejected
+     */
+    public OptionalLong getFirstRejectedLine() {
+        return rejectedCount == 0 ? OptionalLong.empty() : OptionalLong.of(firstRejectedLine);
+    }
+
+    /**
+     * @return number of bytes read
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    public Duration getElapsed() {
+        return Duration.ofNanos(elapsedNanos);
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : rowCount * 1e9 / elapsedNanos;
+    }
+
+    public double getMegabytesPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : bytes * 1e9 / elapsedNanos / (1 << 20);
+    }
+
+    @Override
+    public String toString() {
+        return "ImportStats{" +
+                "rowCount=" + rowCount +
+                ", enrolledCount=" + enrolledCount +
+                ", gradedCount=" + gradedCount +
+                ", rejectedCount=" + rejectedCount +
+                ", bytes=" + bytes +
+                ", elapsed=" + getElapsed() +
+                ", rowsPerSecond=" + String.format("%.0f", getRowsPerSecond()) +
+                ", megabytesPerSecond=" + String.format("%.1f", getMegabytesPerSecond()) +
+                '}';
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.globallogic.basecamp.io;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/**
+ * {@link ReportWriter} of one JSON object per line
+ */
+class JsonLinesReportWriter extends ReportWriter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    JsonLinesReportWriter(WritableByteChannel channel) {
+        super(channel);
+    }
+
+    @Override
+    public void averageMarkPerStudent(String email, double average) throws IOException {
+        writeAscii("{\"report\":\"averageMarkPerStudent\",\"email\":");
+        writeString(email);
+        writeAscii(",\"average\":");
+        writeDouble(average);
+        writeAscii("}\n");
+    }
+
+    @Override
+    public void averageMarkPerTraining(String training, double average) throws IOException {
+        writeAscii("{\"report\":\"averageMarkPerTraining\",\"training\":");
+        writeString(training);
+        writeAscii(",\"average\":");
+        writeDouble(average);
+        writeAscii("}\n");
+    }
+
+    @Override
+    public void trainingsPerStudent(String email, List<String> trainings) throws IOException {
+        writeAscii("{\"report\":\"trainingsPerStudent\",\"email\":");
+        writeString(email);
+        writeAscii(",\"trainings\":[");
+        for (var i = 0; i < trainings.size(); i++) {
+            if (i > 0) {
+                writeByte(',');
+            }
+            writeString(trainings.get(i));
+        }
+        writeAscii("]}\n");
+    }
+
+    @Override
+    public void studentWithMaxMark(String email) throws IOException {
+        writeAscii("{\"report\":\"studentsWithMaxMark\",\"email\":");
+        writeString(email);
+        writeAscii("}\n");
+    }
+
+    @Override
+    public void studentWithMarkLowerThan(String email) throws IOException {
+        writeAscii("{\"report\":\"studentsWithMarkLowerThan\",\"email\":");
+        writeString(email);
+        writeAscii("}\n");
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeAscii("null");
+            return;
+        }
+        writeByte('"');
+        var start = 0;
+        for (var i = 0; i < value.length(); i++) {
+            final var c = value.charAt(i);
+            if (c == '"' || c == '\\' || c < 0x20) {
+                writeUtf8(value, start, i);
+                writeEscape(c);
+                start = i + 1;
+            }
+        }
+        writeUtf8(value, start, value.length());
+        writeByte('"');
+    }
+
+    private void writeEscape(char c) throws IOException {
+        writeByte('\\');
+        switch (c) {
+            case '"':
+            case '\\':
+                writeByte(c);
+                break;
+            case '\n':
+                writeByte('n');
+                break;
+            case '\r':
+                writeByte('r');
+                break;
+            case '\t':
+                writeByte('t');
+                break;
+            default:
+                writeAscii("u00");
+                writeByte(HEX[c >> 4]);
+                writeByte(HEX[c & 0xF]);
+        }
+    }
+
+}
@@ -0,0 +1,171 @@
+package com.globallogic.basecamp.io;
+
+import com.globallogic.basecamp.aggregation.ReportSink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * ReportWriter is a {@link ReportSink} that encodes report entries as UTF-8 text straight into one fixed
+ * buffer and writes the buffer to a channel whenever it fills up, so memory does not depend on the size of
+ * the report.
+ *
+ * <pre>{@code
+ * try (ReportWriter writer = ReportWriter.jsonLines(Path.of("report.jsonl"))) {
+ *     TrainingAggregator.builder().withAverageMarkPerStudent().build().export(trainings.stream(), writer);
+ * }
+ * }</pre>
+ *
+ * @see #csv(WritableByteChannel)
+ * @see #jsonLines(WritableByteChannel)
+ */
+public abstract class ReportWriter implements ReportSink, Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final WritableByteChannel channel;
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    ReportWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Writes {@code report,key,value} rows after a header row. Students of the "max mark" and "lower than"
+     * reports have an empty value, trainings of a student are written one row per training
+     *
+     * @param channel channel to write to, closed with the writer
+     * @return writer
+     */
+    public static ReportWriter csv(WritableByteChannel channel) {
+        return new CsvReportWriter(channel);
+    }
+
+    /**
+     * Creates or replaces the file and writes CSV rows to it
+     *
+     * @param path file to write
+     * @return writer
+     * @throws IOException if the file cannot be opened
+     * @see #csv(WritableByteChannel)
+     */
+    public static ReportWriter csv(Path path) throws IOException {
+        return csv(open(path));
+    }
+
+    /**
+     * Writes one JSON object per line, e.g. {@code {"report":"averageMarkPerStudent","email":"...","average":7.5}}
+     *
+     * @param channel channel to write to, closed with the writer
+     * @return writer
+     */
+    public static ReportWriter jsonLines(WritableByteChannel channel) {
+        return new JsonLinesReportWriter(channel);
+    }
+
+    /**
+     * Creates or replaces the file and writes JSON lines to it
+     *
+     * @param path file to write
+     * @return writer
+     * @throws IOException if the file cannot be opened
+     * @see #jsonLines(WritableByteChannel)
+     */
+    public static ReportWriter jsonLines(Path path) throws IOException {
+        return jsonLines(open(path));
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Writes the text, which must only contain ASCII characters
+     */
+    void writeAscii(String text) throws IOException {
+        for (var i = 0; i < text.length(); i++) {
+            writeByte(text.charAt(i));
+        }
+    }
+
+    void writeByte(int b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.put((byte) b);
+    }
+
+    /**
+     * Writes the text encoded as UTF-8, an unpaired surrogate is written as {@code ?}
+     */
+    void writeUtf8(String text) throws IOException {
+        writeUtf8(text, 0, text.length());
+    }
+
+    /**
+     * Writes the characters of the text from {@code start} inclusive to {@code end} exclusive as UTF-8
+     */
+    void writeUtf8(String text, int start, int end) throws IOException {
+        for (var i = start; i < end; i++) {
+            final var c = text.charAt(i);
+            if (c < 0x80) {
+                writeByte(c);
+            } else if (c < 0x800) {
+                writeByte(0xC0 | c >> 6);
+                writeByte(0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < end
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                final var codePoint = Character.toCodePoint(c, text.charAt(++i));
+                writeByte(0xF0 | codePoint >> 18);
+                writeByte(0x80 | codePoint >> 12 & 0x3F);
+                writeByte(0x80 | codePoint >> 6 & 0x3F);
+                writeByte(0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                writeByte('?');
+            } else {
+                writeByte(0xE0 | c >> 12);
+                writeByte(0x80 | c >> 6 & 0x3F);
+                writeByte(0x80 | c & 0x3F);
+            }
+        }
+    }
+
+    void writeDouble(double value) throws IOException {
+        writeAscii(Double.toString(value));
+    }
+
+    /**
+     * Writes the buffered bytes to the channel
+     *
+     * @throws IOException if the channel cannot be written
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes the buffered bytes and closes the channel
+     *
+     * @throws IOException if the channel cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+}
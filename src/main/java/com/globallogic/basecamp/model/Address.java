@@ -1,17 +1,25 @@
 package com.globallogic.basecamp.model;
 
+import java.util.Objects;
+
 /**
  * Address is a representation of the {@link com.globallogic.basecamp.model.Student Student} home address.
+ * <p>
+ * Addresses are immutable values: two addresses are equal when all their fields are equal. {@link Builder#build()}
+ * returns the instance already in use for an equal address, so students living at the same address share one
+ * object and one set of strings, no matter whether they were built by hand, imported or read from a snapshot.
  */
 public class Address {
 
-    private String country;
+    private final String country;
+
+    private final String city;
 
-    private String city;
+    private final String street;
 
-    private String street;
+    private final Integer houseNumber;
 
-    private Integer houseNumber;
+    private final int hash;
 
     public String getCountry() {
         return country;
@@ -52,6 +60,29 @@ public class Address {
         this.city = builder.city;
         this.street = builder.street;
         this.houseNumber = builder.houseNumber;
+        this.hash = Objects.hash(country, city, street, houseNumber);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Address address = (Address) o;
+        return hash == address.hash
+                && Objects.equals(country, address.country)
+                && Objects.equals(city, address.city)
+                && Objects.equals(street, address.street)
+                && Objects.equals(houseNumber, address.houseNumber);
+    }
+
+    /**
+     * Computed once when the address is built, as the pool hashes every address it is asked for
+     *
+     * @return object hash code
+     */
+    @Override
+    public int hashCode() {
+        return hash;
     }
 
     /**
@@ -95,8 +126,13 @@ public class Address {
             this.houseNumber = houseNumber;
             return this;
         }
+        /**
+         * Builds the address, or returns the instance in use for an equal address
+         *
+         * @return address
+         */
         public Address build(){
-            return new Address(this);
+            return AddressPool.intern(new Address(this));
         }
     }
 }
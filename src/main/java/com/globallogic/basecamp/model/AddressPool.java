@@ -0,0 +1,52 @@
+package com.globallogic.basecamp.model;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Canonical instances of the addresses built so far. Entries are weak, an address nobody refers to any more is
+ * dropped from the pool by the garbage collector.
+ * <p>
+ * The pool is split into stripes by the address hash, each guarded by its own lock, so parallel imports do not
+ * all wait for one lock.
+ */
+final class AddressPool {
+
+    private static final int STRIPES = 16;
+
+    private static final List<Map<Address, WeakReference<Address>>> POOL = createStripes();
+
+    private AddressPool() {
+
+    }
+
+    private static List<Map<Address, WeakReference<Address>>> createStripes() {
+        final var stripes = new ArrayList<Map<Address, WeakReference<Address>>>(STRIPES);
+        for (var i = 0; i < STRIPES; i++) {
+            stripes.add(new WeakHashMap<>());
+        }
+        return List.copyOf(stripes);
+    }
+
+    /**
+     * @param address freshly built address
+     * @return instance in use for an address equal to the provided one, or the provided address itself
+     */
+    static Address intern(Address address) {
+        final var hash = address.hashCode();
+        final var stripe = POOL.get((hash ^ hash >>> 16) & STRIPES - 1);
+        synchronized (stripe) {
+            final var existing = stripe.get(address);
+            final var canonical = existing == null ? null : existing.get();
+            if (canonical != null) {
+                return canonical;
+            }
+            stripe.put(address, new WeakReference<>(address));
+            return address;
+        }
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.globallogic.basecamp.model;
+
+/**
+ * Semester of the training year, every {@link Grade} holds one mark per semester
+ */
+public enum Semester {
+
+    FIRST,
+
+    SECOND;
+
+    /**
+     * @param grade grade to read
+     * @return mark of this semester
+     */
+    public int getMark(Grade grade) {
+        return this == FIRST ? grade.getFirstSemester() : grade.getSecondSemester();
+    }
+
+}
@@ -75,12 +75,15 @@ public class Student {
 
     /**
      * TODO: implement hashCode() method for this class using email field
+     * <p>
+     * Delegates to the email hash code, which {@link String} computes once and caches. Unlike
+     * {@code Objects.hash(email)} it does not allocate a varargs array on every call.
      *
      * @return object hash code
      */
     @Override
     public int hashCode() {
-        return Objects.hash(email);
+        return Objects.hashCode(email);
     }
 
     /**
@@ -0,0 +1,20 @@
+package com.globallogic.basecamp.shard;
+
+import com.globallogic.basecamp.Training;
+
+import java.util.List;
+
+/**
+ * Capability of a {@link Training} whose roster is split into independent partitions. Every student is in
+ * exactly one partition, and every partition is a thread-safe training with the name of the whole training.
+ * {@link com.globallogic.basecamp.aggregation.TrainingAggregator#aggregateParallel TrainingAggregator} scatters
+ * the work over the partitions and merges their partial results.
+ */
+public interface PartitionedTraining {
+
+    /**
+     * @return partitions of the training, together holding all of its students
+     */
+    List<? extends Training> getPartitions();
+
+}
@@ -0,0 +1,349 @@
+package com.globallogic.basecamp.shard;
+
+import com.globallogic.basecamp.GlobalLogicTraining;
+import com.globallogic.basecamp.GradeIterable;
+import com.globallogic.basecamp.Grades;
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.batch.BatchResult;
+import com.globallogic.basecamp.batch.BulkTraining;
+import com.globallogic.basecamp.batch.GradeBatch;
+import com.globallogic.basecamp.model.Grade;
+import com.globallogic.basecamp.model.Student;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * ShardedTraining is a {@link Training} whose students are partitioned by email hash across independent
+ * shards. Every shard is a training of its own, created by the {@link Builder#setShardFactory(Function) shard
+ * factory} and guarded by its own lock, so the roster is not limited to one map and changes of students on
+ * different shards do not wait for each other.
+ * <p>
+ * Single-student calls are routed to the shard of the student. Batches are split by shard and applied to every
+ * shard at once. Roster walks visit the shards one after another, so they see every shard consistent but not
+ * all shards at the same point in time.
+ * <p>
+ * The shards are the {@link PartitionedTraining partitions} of the training, so
+ * {@link com.globallogic.basecamp.aggregation.TrainingAggregator#aggregateParallel TrainingAggregator} computes
+ * reports scatter-gather: each shard is aggregated on its own and the partial results are merged.
+ *
+ * <pre>{@code
+ * ShardedTraining training = ShardedTraining.builder("Java Core").setShardCount(8).build();
+ * TrainingAggregator.builder().withAll(5).build().aggregateParallel(List.of(training));
+ * }</pre>
+ */
+public class ShardedTraining implements Training, GradeIterable, BulkTraining, PartitionedTraining {
+
+    private final String name;
+
+    private final List<Shard> shards;
+
+    private ShardedTraining(Builder builder) {
+        this.name = builder.name;
+        this.shards = new ArrayList<>(builder.shardCount);
+        for (var i = 0; i < builder.shardCount; i++) {
+            shards.add(new Shard(builder.shardFactory.apply(name)));
+        }
+    }
+
+    /**
+     * @param name training name
+     * @return builder
+     */
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    /**
+     * @return number of shards
+     */
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * @return shards of the training, thread-safe trainings with the name of this training. Changes made
+     * through a shard are changes of this training, a shard must only be given students it owns
+     */
+    @Override
+    public List<Training> getPartitions() {
+        return List.copyOf(shards);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public List<Student> getStudents() {
+        final var students = new ArrayList<Student>();
+        for (final var shard : shards) {
+            students.addAll(shard.getStudents());
+        }
+        return students;
+    }
+
+    @Override
+    public boolean addStudent(Student student) {
+        return shardOf(student).addStudent(student);
+    }
+
+    @Override
+    public boolean removeStudent(Student student) {
+        return shardOf(student).removeStudent(student);
+    }
+
+    @Override
+    public boolean rateFirstSemester(Student student, int mark) {
+        return shardOf(student).rateFirstSemester(student, mark);
+    }
+
+    @Override
+    public boolean rateSecondSemester(Student student, int mark) {
+        return shardOf(student).rateSecondSemester(student, mark);
+    }
+
+    @Override
+    public boolean isPresent(Student student) {
+        return shardOf(student).isPresent(student);
+    }
+
+    @Override
+    public Optional<Grade> getStudentGrade(Student student) {
+        return shardOf(student).getStudentGrade(student);
+    }
+
+    @Override
+    public void forEachGrade(BiConsumer<? super Student, ? super Grade> action) {
+        shards.forEach(shard -> shard.forEachGrade(action));
+    }
+
+    @Override
+    public void forEachMark(MarkVisitor visitor) {
+        shards.forEach(shard -> shard.forEachMark(visitor));
+    }
+
+    @Override
+    public BatchResult addStudents(List<Student> students) {
+        final var indexes = split(students.size(), students::get);
+        final var result = BatchResult.builder(students.size());
+        for (var s = 0; s < shards.size(); s++) {
+            if (indexes.get(s).isEmpty()) {
+                continue;
+            }
+            final var part = new ArrayList<Student>(indexes.get(s).size());
+            indexes.get(s).forEach(i -> part.add(students.get(i)));
+            final var partResult = shards.get(s).addStudents(part);
+            for (var i = 0; i < part.size(); i++) {
+                result.setApplied(indexes.get(s).get(i), partResult.isApplied(i));
+            }
+        }
+        return result.build();
+    }
+
+    @Override
+    public BatchResult rate(GradeBatch batch) {
+        final var indexes = split(batch.size(), batch::getStudent);
+        final var result = BatchResult.builder(batch.size());
+        for (var s = 0; s < shards.size(); s++) {
+            if (indexes.get(s).isEmpty()) {
+                continue;
+            }
+            final var part = GradeBatch.builder();
+            indexes.get(s).forEach(i -> part.rate(batch.getStudent(i), batch.getSemester(i), batch.getMark(i)));
+            final var partResult = shards.get(s).rate(part.build());
+            for (var i = 0; i < indexes.get(s).size(); i++) {
+                result.setApplied(indexes.get(s).get(i), partResult.isApplied(i));
+            }
+        }
+        return result.build();
+    }
+
+    @Override
+    public boolean rate(Student student, int firstSemester, int secondSemester) {
+        return shardOf(student).rate(student, firstSemester, secondSemester);
+    }
+
+    /**
+     * Purges the shards one after another, so the predicate is never tested from two threads at once
+     *
+     * @param predicate condition whether to remove a student
+     * @return number of removed students
+     */
+    @Override
+    public int removeStudentsIf(Predicate<? super Student> predicate) {
+        var removed = 0;
+        for (final var shard : shards) {
+            removed += shard.removeStudentsIf(predicate);
+        }
+        return removed;
+    }
+
+    private Shard shardOf(Student student) {
+        return shards.get(shardIndex(student));
+    }
+
+    /**
+     * @return index of the shard owning the student, students are equal by email so the email hash decides
+     */
+    private int shardIndex(Student student) {
+        if (student == null) {
+            return 0;
+        }
+        final var hash = student.hashCode();
+        return Math.floorMod(hash ^ hash >>> 16, shards.size());
+    }
+
+    /**
+     * @return indexes of the records per shard, in record order
+     */
+    private List<List<Integer>> split(int size, IntFunction<Student> studentAt) {
+        final var indexes = new ArrayList<List<Integer>>(shards.size());
+        for (var s = 0; s < shards.size(); s++) {
+            indexes.add(new ArrayList<>());
+        }
+        for (var i = 0; i < size; i++) {
+            indexes.get(shardIndex(studentAt.apply(i))).add(i);
+        }
+        return indexes;
+    }
+
+    /**
+     * One partition of the roster. Every call holds the lock of the shard, so grades are returned as copies
+     * that {@link Grades#writingThrough rate} the student on the shard when they are changed
+     */
+    private static final class Shard implements Training, GradeIterable, BulkTraining {
+
+        private final Training delegate;
+
+        private Shard(Training delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public synchronized List<Student> getStudents() {
+            return delegate.getStudents();
+        }
+
+        @Override
+        public synchronized boolean addStudent(Student student) {
+            return delegate.addStudent(student);
+        }
+
+        @Override
+        public synchronized boolean removeStudent(Student student) {
+            return delegate.removeStudent(student);
+        }
+
+        @Override
+        public synchronized boolean rateFirstSemester(Student student, int mark) {
+            return delegate.rateFirstSemester(student, mark);
+        }
+
+        @Override
+        public synchronized boolean rateSecondSemester(Student student, int mark) {
+            return delegate.rateSecondSemester(student, mark);
+        }
+
+        @Override
+        public synchronized boolean isPresent(Student student) {
+            return delegate.isPresent(student);
+        }
+
+        @Override
+        public synchronized Optional<Grade> getStudentGrade(Student student) {
+            return delegate.getStudentGrade(student).map(grade -> Grades.writingThrough(grade, this, student));
+        }
+
+        /**
+         * Visits the shard holding its lock, so the action may only change the training through the grades
+         */
+        @Override
+        public synchronized void forEachGrade(BiConsumer<? super Student, ? super Grade> action) {
+            GradeIterable.forEachGrade(delegate, (student, grade) ->
+                    action.accept(student, grade == null ? null : Grades.writingThrough(grade, this, student)));
+        }
+
+        @Override
+        public synchronized void forEachMark(MarkVisitor visitor) {
+            GradeIterable.forEachMark(delegate, visitor);
+        }
+
+        @Override
+        public synchronized BatchResult addStudents(List<Student> students) {
+            return BulkTraining.addStudents(delegate, students);
+        }
+
+        @Override
+        public synchronized BatchResult rate(GradeBatch batch) {
+            return BulkTraining.rate(delegate, batch);
+        }
+
+        @Override
+        public synchronized boolean rate(Student student, int firstSemester, int secondSemester) {
+            return BulkTraining.rate(delegate, student, firstSemester, secondSemester);
+        }
+
+        @Override
+        public synchronized int removeStudentsIf(Predicate<? super Student> predicate) {
+            return BulkTraining.removeStudentsIf(delegate, predicate);
+        }
+    }
+
+    public static class Builder {
+
+        private final String name;
+
+        private int shardCount = Runtime.getRuntime().availableProcessors();
+
+        private Function<String, ? extends Training> shardFactory = GlobalLogicTraining::new;
+
+        private Builder(String name) {
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("Empty field found");
+            }
+            this.name = name;
+        }
+
+        /**
+         * @param shardCount number of shards, the number of processors by default
+         * @return builder
+         */
+        public Builder setShardCount(int shardCount) {
+            if (shardCount < 1) {
+                throw new IllegalArgumentException("Shard count must be positive");
+            }
+            this.shardCount = shardCount;
+            return this;
+        }
+
+        /**
+         * @param shardFactory creates an empty shard from the training name, {@link GlobalLogicTraining} by
+         *                     default. The shards are guarded by their own locks, they need not be thread-safe
+         * @return builder
+         */
+        public Builder setShardFactory(Function<String, ? extends Training> shardFactory) {
+            if (shardFactory == null) {
+                throw new IllegalArgumentException("Empty field found");
+            }
+            this.shardFactory = shardFactory;
+            return this;
+        }
+
+        public ShardedTraining build() {
+            return new ShardedTraining(this);
+        }
+    }
+
+}
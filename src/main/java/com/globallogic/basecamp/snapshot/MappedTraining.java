@@ -0,0 +1,153 @@
+package com.globallogic.basecamp.snapshot;
+
+import com.globallogic.basecamp.GlobalLogicTraining;
+import com.globallogic.basecamp.GradeIterable;
+import com.globallogic.basecamp.StudentRegistry;
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.model.Grade;
+import com.globallogic.basecamp.model.Student;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * Read-only training backed by a {@link TrainingSnapshot}. Its entries are sorted by student id, so a student
+ * is found with the snapshot email index and a binary search. Returned grades are copies.
+ */
+class MappedTraining implements Training, GradeIterable {
+
+    private final TrainingSnapshot snapshot;
+
+    private final String name;
+
+    private final int start;
+
+    private final int size;
+
+    MappedTraining(TrainingSnapshot snapshot, int training) {
+        this.snapshot = snapshot;
+        this.name = snapshot.string(snapshot.trainingField(training, SnapshotLayout.TRAINING_NAME));
+        this.start = snapshot.trainingField(training, SnapshotLayout.TRAINING_START);
+        this.size = snapshot.trainingField(training, SnapshotLayout.TRAINING_SIZE);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public List<Student> getStudents() {
+        final var students = new ArrayList<Student>(size);
+        for (var entry = start; entry < start + size; entry++) {
+            students.add(snapshot.getStudent(snapshot.entryStudent(entry)));
+        }
+        return students;
+    }
+
+    @Override
+    public boolean addStudent(Student student) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean removeStudent(Student student) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean rateFirstSemester(Student student, int mark) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean rateSecondSemester(Student student, int mark) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean isPresent(Student student) {
+        return entryOf(student) >= 0;
+    }
+
+    @Override
+    public Optional<Grade> getStudentGrade(Student student) {
+        final var entry = entryOf(student);
+        if (entry < 0) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(grade(snapshot.entryMarks(entry)));
+    }
+
+    @Override
+    public void forEachGrade(BiConsumer<? super Student, ? super Grade> action) {
+        for (var entry = start; entry < start + size; entry++) {
+            action.accept(snapshot.getStudent(snapshot.entryStudent(entry)), grade(snapshot.entryMarks(entry)));
+        }
+    }
+
+    @Override
+    public void forEachMark(MarkVisitor visitor) {
+        for (var entry = start; entry < start + size; entry++) {
+            final var marks = snapshot.entryMarks(entry);
+            final var student = snapshot.getStudent(snapshot.entryStudent(entry));
+            if (marks == SnapshotLayout.NO_GRADE) {
+                visitor.visit(student, NO_MARK, NO_MARK);
+            } else {
+                visitor.visit(student, marks & 0x0F, (marks >>> 4) & 0x0F);
+            }
+        }
+    }
+
+    GlobalLogicTraining materialize() {
+        final var training = new GlobalLogicTraining(name);
+        training.addStudents(getStudents());
+        forEachMark((student, first, second) -> {
+            if (first != NO_MARK) {
+                training.rate(student, first, second);
+            }
+        });
+        return training;
+    }
+
+    /**
+     * @return position of the student in the entry columns, or a negative value if the student is absent
+     */
+    private int entryOf(Student student) {
+        final var id = student == null ? StudentRegistry.ABSENT : snapshot.idOf(student.getEmail());
+        if (id == StudentRegistry.ABSENT) {
+            return -1;
+        }
+        var low = start;
+        var high = start + size - 1;
+        while (low <= high) {
+            final var middle = (low + high) >>> 1;
+            final var middleId = snapshot.entryStudent(middle);
+            if (middleId < id) {
+                low = middle + 1;
+            } else if (middleId > id) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private static Grade grade(byte marks) {
+        if (marks == SnapshotLayout.NO_GRADE) {
+            return null;
+        }
+        final var grade = new Grade();
+        grade.setFirstSemester(marks & 0x0F);
+        grade.setSecondSemester((marks >>> 4) & 0x0F);
+        return grade;
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Snapshot trainings are read-only");
+    }
+
+}
@@ -0,0 +1,156 @@
+package com.globallogic.basecamp.snapshot;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary layout of a training snapshot file. All numbers are big-endian ints except the mark column.
+ * <pre>
+ * header         magic, version, string count, string bytes, student count, training count, entry count,
+ *                index slots
+ * string offsets int[string count + 1], string i is bytes offsets[i] until offsets[i + 1] of the string data
+ * string data    UTF-8 bytes of all distinct strings
+ * students       int[student count][STUDENT_FIELDS], string ids or NULL, see the field constants
+ * trainings      int[training count][TRAINING_FIELDS]: name string id, first entry, entry count
+ * email index    int[index slots], open addressing table of student id + 1 by email hash, 0 is an empty slot
+ * entry students int[entry count], student ids, ascending within every training
+ * entry marks    byte[entry count], low nibble is the first semester, high nibble the second, or NO_GRADE
+ * </pre>
+ * Every section position follows from the header, so a reader seeks directly to any record.
+ */
+class SnapshotLayout {
+
+    static final int MAGIC = 0x474C5453;
+
+    static final int VERSION = 1;
+
+    static final int HEADER_BYTES = 32;
+
+    /**
+     * Missing string or house number
+     */
+    static final int NULL = -1;
+
+    static final byte NO_GRADE = (byte) 0xFF;
+
+    static final int EMAIL = 0;
+
+    static final int FIRST_NAME = 1;
+
+    static final int LAST_NAME = 2;
+
+    static final int PHONE_NUMBER = 3;
+
+    static final int COUNTRY = 4;
+
+    static final int CITY = 5;
+
+    static final int STREET = 6;
+
+    static final int HOUSE_NUMBER = 7;
+
+    /**
+     * 1 if the student has an address, 0 otherwise
+     */
+    static final int HAS_ADDRESS = 8;
+
+    static final int STUDENT_FIELDS = 9;
+
+    static final int TRAINING_NAME = 0;
+
+    static final int TRAINING_START = 1;
+
+    static final int TRAINING_SIZE = 2;
+
+    static final int TRAINING_FIELDS = 3;
+
+    final int stringCount;
+
+    final int stringBytes;
+
+    final int studentCount;
+
+    final int trainingCount;
+
+    final int entryCount;
+
+    final int indexSlots;
+
+    SnapshotLayout(int stringCount, int stringBytes, int studentCount, int trainingCount, int entryCount,
+                   int indexSlots) {
+        this.stringCount = stringCount;
+        this.stringBytes = stringBytes;
+        this.studentCount = studentCount;
+        this.trainingCount = trainingCount;
+        this.entryCount = entryCount;
+        this.indexSlots = indexSlots;
+    }
+
+    static SnapshotLayout read(ByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a training snapshot");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported snapshot version: " + buffer.getInt(4));
+        }
+        final var layout = new SnapshotLayout(buffer.getInt(8), buffer.getInt(12), buffer.getInt(16),
+                buffer.getInt(20), buffer.getInt(24), buffer.getInt(28));
+        if (layout.size() != buffer.capacity()) {
+            throw new IllegalArgumentException("Truncated training snapshot");
+        }
+        return layout;
+    }
+
+    void write(ByteBuffer buffer) {
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(stringCount).putInt(stringBytes).putInt(studentCount)
+                .putInt(trainingCount).putInt(entryCount).putInt(indexSlots);
+    }
+
+    /**
+     * Number of email index slots for the number of students, a power of two at most half full
+     */
+    static int indexSlots(int studentCount) {
+        var slots = 2;
+        while (slots < 2L * studentCount) {
+            slots <<= 1;
+        }
+        return slots;
+    }
+
+    static int hash(String email) {
+        final var hash = email.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    long stringOffsets() {
+        return HEADER_BYTES;
+    }
+
+    long stringData() {
+        return stringOffsets() + 4L * (stringCount + 1);
+    }
+
+    long students() {
+        return stringData() + stringBytes;
+    }
+
+    long trainings() {
+        return students() + 4L * STUDENT_FIELDS * studentCount;
+    }
+
+    long index() {
+        return trainings() + 4L * TRAINING_FIELDS * trainingCount;
+    }
+
+    long entryStudents() {
+        return index() + 4L * indexSlots;
+    }
+
+    long entryMarks() {
+        return entryStudents() + 4L * entryCount;
+    }
+
+    long size() {
+        return entryMarks() + entryCount;
+    }
+
+}
@@ -0,0 +1,240 @@
+package com.globallogic.basecamp.snapshot;
+
+import com.globallogic.basecamp.GradeIterable;
+import com.globallogic.basecamp.StudentRegistry;
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.model.Student;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SnapshotWriter saves trainings, their students with addresses and the grades into a binary file that
+ * {@link TrainingSnapshot} maps into memory. See {@link SnapshotLayout} for the format.
+ * <p>
+ * Every distinct string is stored once, students are stored once no matter how many trainings they attend,
+ * and a grade costs five bytes. The file is written through a {@link FileChannel} into a temporary file that
+ * is forced to disk and then moved over the target, so a crash never leaves a half-written snapshot behind.
+ * A student attending several trainings is stored as it was first met. Snapshots are limited to 2 GB, the
+ * size of one mapped buffer.
+ */
+public class SnapshotWriter {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final StudentRegistry registry = new StudentRegistry();
+
+    private final List<Student> students = new ArrayList<>();
+
+    private final Map<String, Integer> stringIds = new HashMap<>();
+
+    private final List<byte[]> strings = new ArrayList<>();
+
+    private final List<String> trainingNames = new ArrayList<>();
+
+    private final List<long[]> trainingEntries = new ArrayList<>();
+
+    private int stringBytes;
+
+    private int entryCount;
+
+    private SnapshotWriter() {
+
+    }
+
+    /**
+     * Writes the snapshot of the trainings, replacing the file if it exists
+     *
+     * @param path      snapshot file
+     * @param trainings trainings to save
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path path, Collection<? extends Training> trainings) throws IOException {
+        final var writer = new SnapshotWriter();
+        trainings.forEach(writer::add);
+        writer.writeTo(path);
+    }
+
+    private void add(Training training) {
+        trainingNames.add(training.getName());
+        final var entries = new long[1][16];
+        final var size = new int[1];
+        GradeIterable.forEachMark(training, (student, first, second) -> {
+            final var id = registry.register(student);
+            if (id == students.size()) {
+                students.add(student);
+            }
+            final var marks = first == GradeIterable.NO_MARK
+                    ? SnapshotLayout.NO_GRADE & 0xFF
+                    : first | second << 4;
+            if (size[0] == entries[0].length) {
+                entries[0] = Arrays.copyOf(entries[0], size[0] * 2);
+            }
+            entries[0][size[0]++] = (long) id << 8 | marks;
+        });
+        final var sorted = Arrays.copyOf(entries[0], size[0]);
+        Arrays.sort(sorted);
+        trainingEntries.add(sorted);
+        entryCount += sorted.length;
+    }
+
+    private int stringId(String value) {
+        if (value == null) {
+            return SnapshotLayout.NULL;
+        }
+        return stringIds.computeIfAbsent(value, key -> {
+            final var bytes = key.getBytes(StandardCharsets.UTF_8);
+            strings.add(bytes);
+            stringBytes = Math.addExact(stringBytes, bytes.length);
+            return strings.size() - 1;
+        });
+    }
+
+    private int[] studentRecords() {
+        final var records = new int[students.size() * SnapshotLayout.STUDENT_FIELDS];
+        for (var id = 0; id < students.size(); id++) {
+            final var student = students.get(id);
+            final var offset = id * SnapshotLayout.STUDENT_FIELDS;
+            final var address = student.getAddress();
+            records[offset + SnapshotLayout.EMAIL] = stringId(student.getEmail());
+            records[offset + SnapshotLayout.FIRST_NAME] = stringId(student.getFirstName());
+            records[offset + SnapshotLayout.LAST_NAME] = stringId(student.getLastName());
+            records[offset + SnapshotLayout.PHONE_NUMBER] = stringId(student.getPhoneNumber());
+            records[offset + SnapshotLayout.COUNTRY] = stringId(address == null ? null : address.getCountry());
+            records[offset + SnapshotLayout.CITY] = stringId(address == null ? null : address.getCity());
+            records[offset + SnapshotLayout.STREET] = stringId(address == null ? null : address.getStreet());
+            records[offset + SnapshotLayout.HOUSE_NUMBER] = address == null || address.getHouseNumber() == null
+                    ? SnapshotLayout.NULL
+                    : address.getHouseNumber();
+            records[offset + SnapshotLayout.HAS_ADDRESS] = address == null ? 0 : 1;
+        }
+        return records;
+    }
+
+    private int[] emailIndex(int slots) {
+        final var index = new int[slots];
+        for (var id = 0; id < students.size(); id++) {
+            var slot = SnapshotLayout.hash(students.get(id).getEmail()) & (slots - 1);
+            while (index[slot] != 0) {
+                slot = (slot + 1) & (slots - 1);
+            }
+            index[slot] = id + 1;
+        }
+        return index;
+    }
+
+    private void writeTo(Path path) throws IOException {
+        final var trainingRecords = new int[trainingNames.size() * SnapshotLayout.TRAINING_FIELDS];
+        var start = 0;
+        for (var training = 0; training < trainingNames.size(); training++) {
+            final var offset = training * SnapshotLayout.TRAINING_FIELDS;
+            trainingRecords[offset + SnapshotLayout.TRAINING_NAME] = stringId(trainingNames.get(training));
+            trainingRecords[offset + SnapshotLayout.TRAINING_START] = start;
+            trainingRecords[offset + SnapshotLayout.TRAINING_SIZE] = trainingEntries.get(training).length;
+            start += trainingEntries.get(training).length;
+        }
+        final var studentRecords = studentRecords();
+        final var slots = SnapshotLayout.indexSlots(students.size());
+        final var layout = new SnapshotLayout(strings.size(), stringBytes, students.size(), trainingNames.size(),
+                entryCount, slots);
+        if (layout.size() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Snapshot exceeds 2 GB: " + layout.size() + " bytes");
+        }
+
+        final var temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            final var output = new Output(channel);
+            layout.write(output.reserve(SnapshotLayout.HEADER_BYTES));
+            var offset = 0;
+            output.putInt(offset);
+            for (final var bytes : strings) {
+                offset += bytes.length;
+                output.putInt(offset);
+            }
+            for (final var bytes : strings) {
+                output.put(bytes);
+            }
+            output.putInts(studentRecords);
+            output.putInts(trainingRecords);
+            output.putInts(emailIndex(slots));
+            for (final var entries : trainingEntries) {
+                for (final var entry : entries) {
+                    output.putInt((int) (entry >>> 8));
+                }
+            }
+            for (final var entries : trainingEntries) {
+                for (final var entry : entries) {
+                    output.reserve(1).put((byte) entry);
+                }
+            }
+            output.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Buffered channel writer
+     */
+    private static class Output {
+
+        private final FileChannel channel;
+
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        ByteBuffer reserve(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+            return buffer;
+        }
+
+        void putInt(int value) throws IOException {
+            reserve(4).putInt(value);
+        }
+
+        void putInts(int[] values) throws IOException {
+            for (final var value : values) {
+                putInt(value);
+            }
+        }
+
+        void put(byte[] bytes) throws IOException {
+            var offset = 0;
+            while (offset < bytes.length) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                final var length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+}
@@ -0,0 +1,198 @@
+package com.globallogic.basecamp.snapshot;
+
+import com.globallogic.basecamp.GlobalLogicTraining;
+import com.globallogic.basecamp.StudentRegistry;
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.model.Address;
+import com.globallogic.basecamp.model.Student;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * TrainingSnapshot is a read-only view of a snapshot file written by {@link SnapshotWriter}.
+ * <p>
+ * Opening a snapshot maps the file into memory and reads its header, nothing else. The trainings returned by
+ * {@link #getTrainings()} answer {@link Training#isPresent(Student)} and {@link Training#getStudentGrade(Student)}
+ * with an email hash lookup and a binary search in the mapped file, and walk their marks through
+ * {@link com.globallogic.basecamp.GradeIterable GradeIterable} straight from the mapped columns, so queries are
+ * served right after a restart. {@link Student} objects are decoded on first use and cached.
+ * <p>
+ * The mapped trainings reject changes; {@link #materialize()} copies the snapshot into regular trainings.
+ * The snapshot is thread-safe. The mapping stays valid until the snapshot is garbage collected.
+ */
+public class TrainingSnapshot {
+
+    private final ByteBuffer buffer;
+
+    private final SnapshotLayout layout;
+
+    private final AtomicReferenceArray<Student> students;
+
+    private final List<Training> trainings;
+
+    private TrainingSnapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.layout = SnapshotLayout.read(buffer);
+        this.students = new AtomicReferenceArray<>(layout.studentCount);
+        final var trainings = new ArrayList<Training>(layout.trainingCount);
+        for (var training = 0; training < layout.trainingCount; training++) {
+            trainings.add(new MappedTraining(this, training));
+        }
+        this.trainings = Collections.unmodifiableList(trainings);
+    }
+
+    /**
+     * Maps the snapshot file into memory
+     *
+     * @param path snapshot file
+     * @return snapshot
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a complete snapshot
+     */
+    public static TrainingSnapshot open(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Not a training snapshot: " + path);
+            }
+            return new TrainingSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public int getStudentCount() {
+        return layout.studentCount;
+    }
+
+    public int getTrainingCount() {
+        return layout.trainingCount;
+    }
+
+    /**
+     * @return read-only trainings backed by the mapped file, in the order they were written
+     */
+    public List<Training> getTrainings() {
+        return trainings;
+    }
+
+    /**
+     * Copies the snapshot into regular trainings. A student saved without a grade gets an empty one
+     *
+     * @return trainings in the order they were written
+     */
+    public List<GlobalLogicTraining> materialize() {
+        final var result = new ArrayList<GlobalLogicTraining>(layout.trainingCount);
+        for (final var training : trainings) {
+            result.add(((MappedTraining) training).materialize());
+        }
+        return result;
+    }
+
+    /**
+     * @param id student id from 0 to student count - 1
+     * @return student with its address
+     */
+    public Student getStudent(int id) {
+        final var cached = students.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        final var decoded = decodeStudent(id);
+        return students.compareAndSet(id, null, decoded) ? decoded : students.get(id);
+    }
+
+    /**
+     * @param email student email
+     * @return student id, or {@link StudentRegistry#ABSENT}
+     */
+    public int idOf(String email) {
+        if (email == null) {
+            return StudentRegistry.ABSENT;
+        }
+        final var bytes = email.getBytes(StandardCharsets.UTF_8);
+        final var mask = layout.indexSlots - 1;
+        for (var slot = SnapshotLayout.hash(email) & mask; ; slot = (slot + 1) & mask) {
+            final var entry = intAt(layout.index(), slot);
+            if (entry == 0) {
+                return StudentRegistry.ABSENT;
+            }
+            final var emailId = studentField(entry - 1, SnapshotLayout.EMAIL);
+            if (emailId != SnapshotLayout.NULL && stringEquals(emailId, bytes)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    private Student decodeStudent(int id) {
+        Address address = null;
+        if (studentField(id, SnapshotLayout.HAS_ADDRESS) != 0) {
+            final var houseNumber = studentField(id, SnapshotLayout.HOUSE_NUMBER);
+            address = Address.builder()
+                    .setCountry(string(studentField(id, SnapshotLayout.COUNTRY)))
+                    .setCity(string(studentField(id, SnapshotLayout.CITY)))
+                    .setStreet(string(studentField(id, SnapshotLayout.STREET)))
+                    .setHouseNumber(houseNumber == SnapshotLayout.NULL ? null : houseNumber)
+                    .build();
+        }
+        return Student.builder(string(studentField(id, SnapshotLayout.EMAIL)))
+                .setFirstName(string(studentField(id, SnapshotLayout.FIRST_NAME)))
+                .setLastName(string(studentField(id, SnapshotLayout.LAST_NAME)))
+                .setPhoneNumber(string(studentField(id, SnapshotLayout.PHONE_NUMBER)))
+                .setAddress(address)
+                .build();
+    }
+
+    int studentField(int id, int field) {
+        return intAt(layout.students(), id * SnapshotLayout.STUDENT_FIELDS + field);
+    }
+
+    int trainingField(int training, int field) {
+        return intAt(layout.trainings(), training * SnapshotLayout.TRAINING_FIELDS + field);
+    }
+
+    int entryStudent(int entry) {
+        return intAt(layout.entryStudents(), entry);
+    }
+
+    byte entryMarks(int entry) {
+        return buffer.get((int) layout.entryMarks() + entry);
+    }
+
+    String string(int id) {
+        if (id == SnapshotLayout.NULL) {
+            return null;
+        }
+        final var start = intAt(layout.stringOffsets(), id);
+        final var bytes = new byte[intAt(layout.stringOffsets(), id + 1) - start];
+        final var view = buffer.duplicate();
+        view.position((int) layout.stringData() + start);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean stringEquals(int id, byte[] bytes) {
+        final var start = intAt(layout.stringOffsets(), id);
+        if (intAt(layout.stringOffsets(), id + 1) - start != bytes.length) {
+            return false;
+        }
+        final var position = (int) layout.stringData() + start;
+        for (var i = 0; i < bytes.length; i++) {
+            if (buffer.get(position + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int intAt(long section, int index) {
+        return buffer.getInt((int) section + 4 * index);
+    }
+
+}
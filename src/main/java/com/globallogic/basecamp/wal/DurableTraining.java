@@ -0,0 +1,244 @@
+package com.globallogic.basecamp.wal;
+
+import com.globallogic.basecamp.GradeIterable;
+import com.globallogic.basecamp.Grades;
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.batch.BatchResult;
+import com.globallogic.basecamp.batch.BulkTraining;
+import com.globallogic.basecamp.batch.GradeBatch;
+import com.globallogic.basecamp.model.Grade;
+import com.globallogic.basecamp.model.Semester;
+import com.globallogic.basecamp.model.Student;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * DurableTraining is a {@link Training} decorator that writes every successful change of the decorated
+ * training to a {@link WriteAheadLog} and returns only once the log made it durable.
+ * <p>
+ * Holding the decorator lock, a change is validated, appended to the log and only then applied to the decorated
+ * training, so a change the log refused, e.g. because it was closed, is never applied and the log keeps the
+ * order the changes were applied in. The decorator waits for the log outside the lock, and threads changing any
+ * training of the same log meanwhile share one write and one force. If the log fails while the caller waits,
+ * the call throws but the change stays applied in memory. Calls that change nothing, e.g. rating a student who
+ * does not attend the training, are not logged. Only the decorator may change the decorated training, as it
+ * predicts the outcome of every change from the roster. Changes must go through the decorator, so the
+ * grades it returns are copies whose setters {@link Grades#writingThrough rate} the student on the decorator
+ * and are logged like any other rating.
+ * <p>
+ * On restart the log is {@link WriteAheadLog#replay replayed} onto the undecorated trainings before they are
+ * decorated again, otherwise the replayed changes would be logged twice.
+ */
+public class DurableTraining implements Training, GradeIterable, BulkTraining {
+
+    private final Training delegate;
+
+    private final WriteAheadLog log;
+
+    /**
+     * Decorates the training, the changes it already has are not logged
+     *
+     * @param delegate training to decorate
+     * @param log      log to write changes to, may be shared by several trainings
+     */
+    public DurableTraining(Training delegate, WriteAheadLog log) {
+        this.delegate = delegate;
+        this.log = log;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public List<Student> getStudents() {
+        return delegate.getStudents();
+    }
+
+    @Override
+    public boolean addStudent(Student student) {
+        if (student == null) {
+            throw new IllegalArgumentException("Empty field found");
+        }
+        final long sequence;
+        synchronized (this) {
+            if (delegate.isPresent(student)) {
+                return false;
+            }
+            sequence = log.append(LogRecord.addStudent(getName(), student));
+            delegate.addStudent(student);
+        }
+        log.await(sequence);
+        return true;
+    }
+
+    @Override
+    public boolean removeStudent(Student student) {
+        final long sequence;
+        synchronized (this) {
+            if (!delegate.isPresent(student)) {
+                return false;
+            }
+            sequence = log.append(LogRecord.removeStudent(getName(), student));
+            delegate.removeStudent(student);
+        }
+        log.await(sequence);
+        return true;
+    }
+
+    @Override
+    public boolean rateFirstSemester(Student student, int mark) {
+        checkMark(mark);
+        final long sequence;
+        synchronized (this) {
+            if (!delegate.isPresent(student)) {
+                return false;
+            }
+            sequence = log.append(LogRecord.rateFirstSemester(getName(), student, mark));
+            delegate.rateFirstSemester(student, mark);
+        }
+        log.await(sequence);
+        return true;
+    }
+
+    @Override
+    public boolean rateSecondSemester(Student student, int mark) {
+        checkMark(mark);
+        final long sequence;
+        synchronized (this) {
+            if (!delegate.isPresent(student)) {
+                return false;
+            }
+            sequence = log.append(LogRecord.rateSecondSemester(getName(), student, mark));
+            delegate.rateSecondSemester(student, mark);
+        }
+        log.await(sequence);
+        return true;
+    }
+
+    @Override
+    public boolean rate(Student student, int firstSemester, int secondSemester) {
+        checkMark(firstSemester);
+        checkMark(secondSemester);
+        final long sequence;
+        synchronized (this) {
+            if (!delegate.isPresent(student)) {
+                return false;
+            }
+            log.append(LogRecord.rateFirstSemester(getName(), student, firstSemester));
+            sequence = log.append(LogRecord.rateSecondSemester(getName(), student, secondSemester));
+            BulkTraining.rate(delegate, student, firstSemester, secondSemester);
+        }
+        log.await(sequence);
+        return true;
+    }
+
+    /**
+     * Enrols the students and waits once for the whole batch
+     *
+     * @param students students to enrol
+     * @return per-record result
+     */
+    @Override
+    public BatchResult addStudents(List<Student> students) {
+        if (students.contains(null)) {
+            throw new IllegalArgumentException("Empty field found");
+        }
+        final BatchResult result;
+        var sequence = 0L;
+        synchronized (this) {
+            final var enrolled = new HashSet<Student>();
+            for (final var student : students) {
+                if (!delegate.isPresent(student) && enrolled.add(student)) {
+                    sequence = log.append(LogRecord.addStudent(getName(), student));
+                }
+            }
+            result = BulkTraining.addStudents(delegate, students);
+        }
+        log.await(sequence);
+        return result;
+    }
+
+    /**
+     * Removes the matching students and waits once for all of their records. The predicate is tested once per
+     * student before anything is logged
+     *
+     * @param predicate condition whether to remove a student
+     * @return number of removed students
+     */
+    @Override
+    public int removeStudentsIf(Predicate<? super Student> predicate) {
+        final var removed = new HashSet<Student>();
+        var sequence = 0L;
+        synchronized (this) {
+            for (final var student : delegate.getStudents()) {
+                if (predicate.test(student)) {
+                    removed.add(student);
+                    sequence = log.append(LogRecord.removeStudent(getName(), student));
+                }
+            }
+            if (!removed.isEmpty()) {
+                BulkTraining.removeStudentsIf(delegate, removed::contains);
+            }
+        }
+        log.await(sequence);
+        return removed.size();
+    }
+
+    /**
+     * Applies the batch and waits once for all of its applied records
+     *
+     * @param batch validated grade updates
+     * @return per-record result
+     */
+    @Override
+    public BatchResult rate(GradeBatch batch) {
+        final BatchResult result;
+        var sequence = 0L;
+        synchronized (this) {
+            for (var i = 0; i < batch.size(); i++) {
+                if (delegate.isPresent(batch.getStudent(i))) {
+                    sequence = log.append(batch.getSemester(i) == Semester.FIRST
+                            ? LogRecord.rateFirstSemester(getName(), batch.getStudent(i), batch.getMark(i))
+                            : LogRecord.rateSecondSemester(getName(), batch.getStudent(i), batch.getMark(i)));
+                }
+            }
+            result = BulkTraining.rate(delegate, batch);
+        }
+        log.await(sequence);
+        return result;
+    }
+
+    @Override
+    public boolean isPresent(Student student) {
+        return delegate.isPresent(student);
+    }
+
+    @Override
+    public Optional<Grade> getStudentGrade(Student student) {
+        return delegate.getStudentGrade(student).map(grade -> Grades.writingThrough(grade, this, student));
+    }
+
+    @Override
+    public void forEachGrade(BiConsumer<? super Student, ? super Grade> action) {
+        GradeIterable.forEachGrade(delegate, (student, grade) ->
+                action.accept(student, grade == null ? null : Grades.writingThrough(grade, this, student)));
+    }
+
+    @Override
+    public void forEachMark(MarkVisitor visitor) {
+        GradeIterable.forEachMark(delegate, visitor);
+    }
+
+    private static void checkMark(int mark) {
+        if (mark < 0 || mark > 10) {
+            throw new IllegalArgumentException("wrong mark");
+        }
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.globallogic.basecamp.wal;
+
+/**
+ * When the {@link WriteAheadLog} forces written records to the storage device
+ */
+public enum FsyncPolicy {
+
+    /**
+     * Every group commit is forced before its writers return. A change survives a power failure once the
+     * call that made it returned
+     */
+    ALWAYS,
+
+    /**
+     * A group commit is forced when the sync interval passed since the last force, and on close. A background
+     * thread of the log also writes and forces the records left unforced once per interval, so an idle log does
+     * not keep an unforced tail. Changes of the last interval may be lost on a power failure, but not when only
+     * the process crashes
+     */
+    INTERVAL,
+
+    /**
+     * Records are written to the file and forced only on close, the operating system decides when they reach
+     * the device
+     */
+    NEVER
+
+}
@@ -0,0 +1,181 @@
+package com.globallogic.basecamp.wal;
+
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.model.Address;
+import com.globallogic.basecamp.model.Student;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * LogRecord is one change of a training kept in the {@link WriteAheadLog}: an enrolment with the full student
+ * data, a removal or a mark.
+ */
+public class LogRecord {
+
+    public enum Type {
+        ADD_STUDENT,
+        REMOVE_STUDENT,
+        RATE_FIRST_SEMESTER,
+        RATE_SECOND_SEMESTER
+    }
+
+    private final Type type;
+
+    private final String trainingName;
+
+    private final Student student;
+
+    private final int mark;
+
+    private LogRecord(Type type, String trainingName, Student student, int mark) {
+        this.type = type;
+        this.trainingName = trainingName;
+        this.student = student;
+        this.mark = mark;
+    }
+
+    public static LogRecord addStudent(String trainingName, Student student) {
+        return new LogRecord(Type.ADD_STUDENT, trainingName, student, 0);
+    }
+
+    public static LogRecord removeStudent(String trainingName, Student student) {
+        return new LogRecord(Type.REMOVE_STUDENT, trainingName, student, 0);
+    }
+
+    public static LogRecord rateFirstSemester(String trainingName, Student student, int mark) {
+        return new LogRecord(Type.RATE_FIRST_SEMESTER, trainingName, student, mark);
+    }
+
+    public static LogRecord rateSecondSemester(String trainingName, Student student, int mark) {
+        return new LogRecord(Type.RATE_SECOND_SEMESTER, trainingName, student, mark);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getTrainingName() {
+        return trainingName;
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    public int getMark() {
+        return mark;
+    }
+
+    /**
+     * Repeats the change on the training
+     *
+     * @param training training with the name of the record
+     * @return result of the repeated call
+     */
+    public boolean applyTo(Training training) {
+        switch (type) {
+            case ADD_STUDENT:
+                return training.addStudent(student);
+            case REMOVE_STUDENT:
+                return training.removeStudent(student);
+            case RATE_FIRST_SEMESTER:
+                return training.rateFirstSemester(student, mark);
+            default:
+                return training.rateSecondSemester(student, mark);
+        }
+    }
+
+    byte[] encode() {
+        final var bytes = new ByteArrayOutputStream(64);
+        try (var output = new DataOutputStream(bytes)) {
+            output.writeByte(type.ordinal());
+            output.writeUTF(trainingName);
+            writeString(output, student.getEmail());
+            if (type == Type.ADD_STUDENT) {
+                writeStudent(output);
+            } else if (type != Type.REMOVE_STUDENT) {
+                output.writeByte(mark);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static LogRecord decode(byte[] payload) throws IOException {
+        final var input = new DataInputStream(new ByteArrayInputStream(payload));
+        final var type = Type.values()[input.readUnsignedByte()];
+        final var trainingName = input.readUTF();
+        final var email = readString(input);
+        if (type == Type.ADD_STUDENT) {
+            return new LogRecord(type, trainingName, readStudent(input, email), 0);
+        }
+        final var student = Student.builder(email).build();
+        final var mark = type == Type.REMOVE_STUDENT ? 0 : input.readByte();
+        return new LogRecord(type, trainingName, student, mark);
+    }
+
+    private void writeStudent(DataOutput output) throws IOException {
+        writeString(output, student.getFirstName());
+        writeString(output, student.getLastName());
+        writeString(output, student.getPhoneNumber());
+        final var address = student.getAddress();
+        output.writeBoolean(address != null);
+        if (address != null) {
+            writeString(output, address.getCountry());
+            writeString(output, address.getCity());
+            writeString(output, address.getStreet());
+            output.writeBoolean(address.getHouseNumber() != null);
+            if (address.getHouseNumber() != null) {
+                output.writeInt(address.getHouseNumber());
+            }
+        }
+    }
+
+    private static Student readStudent(DataInput input, String email) throws IOException {
+        final var builder = Student.builder(email)
+                .setFirstName(readString(input))
+                .setLastName(readString(input))
+                .setPhoneNumber(readString(input));
+        if (input.readBoolean()) {
+            final var address = Address.builder()
+                    .setCountry(readString(input))
+                    .setCity(readString(input))
+                    .setStreet(readString(input));
+            if (input.readBoolean()) {
+                address.setHouseNumber(input.readInt());
+            }
+            builder.setAddress(address.build());
+        }
+        return builder.build();
+    }
+
+    private static void writeString(DataOutput output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+
+    @Override
+    public String toString() {
+        return "LogRecord{" +
+                "type=" + type +
+                ", trainingName='" + trainingName + '\'' +
+                ", email='" + student.getEmail() + '\'' +
+                ", mark=" + mark +
+                '}';
+    }
+
+}
@@ -0,0 +1,450 @@
+package com.globallogic.basecamp.wal;
+
+import com.globallogic.basecamp.Training;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * WriteAheadLog is an append-only file of {@link LogRecord}s that makes training changes survive a crash.
+ * <p>
+ * Every record is framed with its length and a CRC-32 checksum. Writing is split into two steps:
+ * {@link #append(LogRecord)} only copies the record into an in-memory batch and returns its sequence number,
+ * {@link #await(long)} blocks until the record is durable. The first waiting thread becomes the leader: it
+ * takes the whole batch, writes it with one call and forces it to the device according to the
+ * {@link FsyncPolicy}, while the other waiting threads wait for the leader. Records appended in the
+ * meantime form the next batch, so concurrent writers share one fsync instead of paying one each. With the
+ * {@link FsyncPolicy#INTERVAL} policy a background thread of the log writes and forces whatever was left
+ * unforced once per sync interval.
+ * <p>
+ * On startup {@link #replay(Path, Function)} repeats the logged changes. A record torn by a crash, i.e. cut
+ * short or with a wrong checksum, ends the replay, and opening the log for writing cuts such a tail off.
+ *
+ * <pre>{@code
+ * WriteAheadLog.replay(path, trainings::get);
+ * WriteAheadLog log = WriteAheadLog.builder(path).setFsyncPolicy(FsyncPolicy.ALWAYS).build();
+ * Training durable = new DurableTraining(trainings.get("Java Core"), log);
+ * }</pre>
+ */
+public class WriteAheadLog implements AutoCloseable {
+
+    private static final int FRAME_HEADER_BYTES = 8;
+
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    private final FileChannel channel;
+
+    private final FsyncPolicy fsyncPolicy;
+
+    private final long syncIntervalNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition committed = lock.newCondition();
+
+    private final ScheduledExecutorService flusher;
+
+    private ByteBuffer pending = ByteBuffer.allocate(1 << 16);
+
+    private ByteBuffer spare = ByteBuffer.allocate(1 << 16);
+
+    private long appended;
+
+    private long durable;
+
+    private long synced;
+
+    private boolean flushing;
+
+    private boolean closed;
+
+    private IOException failure;
+
+    private long lastSync = System.nanoTime();
+
+    private long groupCommits;
+
+    private long syncs;
+
+    private WriteAheadLog(Builder builder) throws IOException {
+        this.fsyncPolicy = builder.fsyncPolicy;
+        this.syncIntervalNanos = builder.syncInterval.toNanos();
+        final var validLength = Files.exists(builder.path) ? scan(builder.path, record -> { }) : 0;
+        this.channel = FileChannel.open(builder.path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(validLength);
+        channel.position(validLength);
+        if (fsyncPolicy == FsyncPolicy.INTERVAL && syncIntervalNanos > 0) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+                final var thread = new Thread(task, "write-ahead-log-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushIdle, syncIntervalNanos, syncIntervalNanos,
+                    TimeUnit.NANOSECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * Allows to get the builder for the WriteAheadLog
+     *
+     * @param path log file, created if it does not exist
+     * @return builder
+     */
+    public static Builder builder(Path path) {
+        return new Builder(path);
+    }
+
+    /**
+     * Repeats every complete record of the log on the trainings returned by the resolver. Records of trainings
+     * the resolver returns null for are skipped
+     *
+     * @param path     log file
+     * @param resolver training by its name
+     * @return number of records read
+     * @throws IOException if the file cannot be read
+     */
+    public static long replay(Path path, Function<String, ? extends Training> resolver) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        final var count = new long[1];
+        scan(path, record -> {
+            count[0]++;
+            final var training = resolver.apply(record.getTrainingName());
+            if (training != null) {
+                record.applyTo(training);
+            }
+        });
+        return count[0];
+    }
+
+    /**
+     * Reads the complete records of the log. A frame that is cut short, fails its checksum or does not decode to a
+     * record ends the log, as does an empty frame: a zero-filled tail left by a crash passes the checksum, since
+     * the CRC-32 of no bytes is 0
+     *
+     * @return length of the log up to the end of the last complete record
+     */
+    private static long scan(Path path, Consumer<LogRecord> action) throws IOException {
+        var length = 0L;
+        final var checksum = new CRC32();
+        try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            while (true) {
+                final int size;
+                final int crc;
+                final byte[] payload;
+                try {
+                    size = input.readInt();
+                    crc = input.readInt();
+                    if (size <= 0 || size > MAX_RECORD_BYTES) {
+                        return length;
+                    }
+                    payload = input.readNBytes(size);
+                } catch (EOFException e) {
+                    return length;
+                }
+                checksum.reset();
+                checksum.update(payload);
+                if (payload.length != size || (int) checksum.getValue() != crc) {
+                    return length;
+                }
+                final LogRecord record;
+                try {
+                    record = LogRecord.decode(payload);
+                } catch (IOException | RuntimeException e) {
+                    return length;
+                }
+                action.accept(record);
+                length += FRAME_HEADER_BYTES + size;
+            }
+        }
+    }
+
+    /**
+     * Adds the record to the current batch without waiting for it to be written
+     *
+     * @param record record to append
+     * @return sequence number to pass to {@link #await(long)}
+     */
+    public long append(LogRecord record) {
+        final var payload = record.encode();
+        final var checksum = new CRC32();
+        checksum.update(payload);
+        lock.lock();
+        try {
+            checkUsable();
+            if (pending.remaining() < FRAME_HEADER_BYTES + payload.length) {
+                final var grown = ByteBuffer.allocate(
+                        Math.max(pending.capacity() * 2, pending.position() + FRAME_HEADER_BYTES + payload.length));
+                pending.flip();
+                pending = grown.put(pending);
+            }
+            pending.putInt(payload.length).putInt((int) checksum.getValue()).put(payload);
+            return ++appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the record with the sequence number, and every record before it, is written and forced
+     * according to the fsync policy. The calling thread may write the batch of other threads as well
+     *
+     * @param sequence sequence number returned by {@link #append(LogRecord)}
+     * @throws UncheckedIOException if the log could not be written
+     */
+    public void await(long sequence) {
+        lock.lock();
+        try {
+            while (durable < sequence) {
+                if (failure != null) {
+                    throw new UncheckedIOException("Write-ahead log failed", failure);
+                }
+                if (flushing) {
+                    committed.awaitUninterruptibly();
+                } else {
+                    commit(false);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends the record and waits until it is durable
+     *
+     * @param record record to write
+     */
+    public void write(LogRecord record) {
+        await(append(record));
+    }
+
+    /**
+     * Writes and forces the records left unforced since the last tick of the {@link FsyncPolicy#INTERVAL} flusher
+     */
+    private void flushIdle() {
+        lock.lock();
+        try {
+            if (!closed && failure == null && !flushing && synced < appended) {
+                commit(true);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the pending batch as the leader. Called holding the lock, which is released during the I/O
+     *
+     * @param force whether to force the file regardless of the policy
+     */
+    private void commit(boolean force) {
+        flushing = true;
+        final var batch = pending;
+        final var batchEnd = appended;
+        pending = spare;
+        final var sync = force || fsyncPolicy == FsyncPolicy.ALWAYS
+                || fsyncPolicy == FsyncPolicy.INTERVAL && System.nanoTime() - lastSync >= syncIntervalNanos;
+        lock.unlock();
+        IOException error = null;
+        try {
+            batch.flip();
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            if (sync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            error = e;
+        } finally {
+            lock.lock();
+        }
+        batch.clear();
+        spare = batch;
+        if (error != null) {
+            failure = error;
+        } else {
+            durable = batchEnd;
+            groupCommits++;
+            if (sync) {
+                synced = batchEnd;
+                syncs++;
+                lastSync = System.nanoTime();
+            }
+        }
+        flushing = false;
+        committed.signalAll();
+    }
+
+    /**
+     * Discards every record, e.g. after the trainings were saved to a
+     * {@link com.globallogic.basecamp.snapshot.SnapshotWriter snapshot}. Records appended but not yet written
+     * are committed first, so every writer still waiting is told its record was written before it was discarded
+     *
+     * @throws IOException if the file cannot be truncated
+     * @throws UncheckedIOException if the pending records could not be written
+     */
+    public void reset() throws IOException {
+        lock.lock();
+        try {
+            checkUsable();
+            while (durable < appended || flushing) {
+                if (failure != null) {
+                    throw new UncheckedIOException("Write-ahead log failed", failure);
+                }
+                if (flushing) {
+                    committed.awaitUninterruptibly();
+                } else {
+                    commit(false);
+                }
+            }
+            channel.truncate(0);
+            channel.force(true);
+            synced = appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of batches written so far, lower than the number of records when writers were grouped
+     */
+    public long getGroupCommits() {
+        lock.lock();
+        try {
+            return groupCommits;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of times the file was forced to the device, lower than the number of group commits
+     * unless the policy is {@link FsyncPolicy#ALWAYS}
+     */
+    public long getSyncs() {
+        lock.lock();
+        try {
+            return syncs;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the pending records, forces the file regardless of the policy and closes it
+     *
+     * @throws IOException if the log could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        final long last;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            last = appended;
+        } finally {
+            lock.unlock();
+        }
+        if (flusher != null) {
+            // the flusher must not touch the channel once it is closed, and interrupting it would close it early
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            await(last);
+            channel.force(true);
+        } finally {
+            lock.lock();
+            try {
+                closed = true;
+            } finally {
+                lock.unlock();
+            }
+            channel.close();
+        }
+    }
+
+    private void checkUsable() {
+        if (closed) {
+            throw new IllegalStateException("Write-ahead log is closed");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Write-ahead log failed", failure);
+        }
+    }
+
+    /**
+     * Builder class is a part of the builder pattern implementation
+     * Needed to configure the durability of the log
+     */
+    public static class Builder {
+
+        private final Path path;
+
+        private FsyncPolicy fsyncPolicy = FsyncPolicy.ALWAYS;
+
+        private Duration syncInterval = Duration.ofMillis(100);
+
+        private Builder(Path path) {
+            this.path = path;
+        }
+
+        public Builder setFsyncPolicy(FsyncPolicy fsyncPolicy) {
+            this.fsyncPolicy = fsyncPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the longest time between two forces of the {@link FsyncPolicy#INTERVAL} policy
+         *
+         * @param syncInterval interval, 100 ms by default
+         * @return builder
+         */
+        public Builder setSyncInterval(Duration syncInterval) {
+            if (syncInterval.isNegative()) {
+                throw new IllegalArgumentException("Negative sync interval");
+            }
+            this.syncInterval = syncInterval;
+            return this;
+        }
+
+        /**
+         * Opens the log for appending, cutting off a torn tail left by a crash
+         *
+         * @return log
+         * @throws IOException if the file cannot be opened
+         */
+        public WriteAheadLog build() throws IOException {
+            return new WriteAheadLog(this);
+        }
+    }
+
+}
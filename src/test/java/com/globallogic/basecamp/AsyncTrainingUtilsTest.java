@@ -0,0 +1,187 @@
+package com.globallogic.basecamp;
+
+import com.globallogic.basecamp.data.Filler;
+import com.globallogic.basecamp.model.Grade;
+import com.globallogic.basecamp.model.Student;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+class AsyncTrainingUtilsTest {
+
+    @Test
+    void testSameResultsAsTrainingUtils() throws Exception {
+        final var trainings = Filler.createTrainings();
+        final var slow = slow(trainings, 5, new AtomicInteger(), new AtomicInteger());
+        try (var async = AsyncTrainingUtils.builder().setMaxConcurrency(4).build()) {
+            Assertions.assertEquals(TrainingUtils.getAverageMarkPerStudent(trainings.stream()),
+                    async.getAverageMarkPerStudent(slow.stream()).get(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(TrainingUtils.getAverageMarkPerTraining(trainings.stream()),
+                    async.getAverageMarkPerTraining(slow.stream()).get(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(TrainingUtils.getTrainingsPerStudent(trainings.stream()),
+                    async.getTrainingsPerStudent(slow.stream()).get(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(TrainingUtils.getStudentsSorted(trainings.stream()),
+                    async.getStudentsSorted(slow.stream()).get(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(new HashSet<>(TrainingUtils.getStudentsWithMaxMark(trainings.stream())),
+                    new HashSet<>(async.getStudentsWithMaxMark(slow.stream()).get(5, TimeUnit.SECONDS)));
+            Assertions.assertEquals(new HashSet<>(TrainingUtils.getStudentsWithMarkLowerThan(trainings.stream(), 5)),
+                    new HashSet<>(async.getStudentsWithMarkLowerThan(slow.stream(), 5).get(5, TimeUnit.SECONDS)));
+            Assertions.assertEquals(List.of("amanda.perry@email.com", "danny.perry@email.com"),
+                    async.getStudentEmailsByCondition(slow.stream(),
+                            student -> student.getLastName().equals("Perry")).get(5, TimeUnit.SECONDS).stream()
+                            .sorted()
+                            .collect(Collectors.toList()));
+            Assertions.assertTrue(async.isStudentPresentOnTrainings(slow.stream(),
+                    Student.builder("rob.johnson@email.com").build()).get(5, TimeUnit.SECONDS));
+            Assertions.assertFalse(async.isStudentPresentOnTrainings(slow.stream(),
+                    Student.builder("nobody@email.com").build()).get(5, TimeUnit.SECONDS));
+            Assertions.assertThrows(UnsupportedOperationException.class,
+                    () -> async.fetch(slow.stream()).join().get(0).addStudent(null));
+        }
+    }
+
+    @Test
+    void testLatencyFollowsTheSlowestTraining() throws Exception {
+        final var trainings = Filler.createTrainings();
+        final var slow = slow(List.of(trainings.get(0), trainings.get(1), trainings.get(2),
+                trainings.get(0), trainings.get(1), trainings.get(2)), 100, new AtomicInteger(), new AtomicInteger());
+        try (var async = AsyncTrainingUtils.builder().setMaxConcurrency(32).build()) {
+            final var start = System.nanoTime();
+            async.getAverageMarkPerTraining(slow.stream()).get(5, TimeUnit.SECONDS);
+            final var elapsed = Duration.ofNanos(System.nanoTime() - start);
+            // sequentially: 6 rosters and 16 grade lookups of 100 ms each
+            Assertions.assertTrue(elapsed.toMillis() < 1_000, elapsed::toString);
+        }
+    }
+
+    @Test
+    void testConcurrencyLimit() throws Exception {
+        final var running = new AtomicInteger();
+        final var maxRunning = new AtomicInteger();
+        final var slow = slow(Filler.createTrainings(), 20, running, maxRunning);
+        try (var async = AsyncTrainingUtils.builder().setMaxConcurrency(2).build()) {
+            async.getAverageMarkPerStudent(slow.stream()).get(5, TimeUnit.SECONDS);
+        }
+        Assertions.assertEquals(2, maxRunning.get());
+    }
+
+    @Test
+    void testTimeoutExcludesWaitForFreeSlot() throws Exception {
+        final var training = new GlobalLogicTraining("Java Core");
+        for (var i = 0; i < 2_000; i++) {
+            training.addStudent(Student.builder("student" + i + "@email.com").build());
+        }
+        final var slow = slow(List.of(training), 1, new AtomicInteger(), new AtomicInteger());
+        // the lookups take about a second in total, far longer than any single call may take
+        try (var async = AsyncTrainingUtils.builder().setMaxConcurrency(2).setTimeout(Duration.ofMillis(200)).build()) {
+            Assertions.assertEquals(2_000,
+                    async.fetch(slow.stream()).get(10, TimeUnit.SECONDS).get(0).getStudents().size());
+        }
+    }
+
+    @Test
+    void testTimeout() {
+        final var slow = slow(Filler.createTrainings(), 2_000, new AtomicInteger(), new AtomicInteger());
+        try (var async = AsyncTrainingUtils.builder().setTimeout(Duration.ofMillis(50)).build()) {
+            final var error = Assertions.assertThrows(ExecutionException.class,
+                    () -> async.getTrainingsPerStudent(slow.stream()).get(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(error.getCause() instanceof TimeoutException, error::toString);
+        }
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> AsyncTrainingUtils.builder().setMaxConcurrency(0));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> AsyncTrainingUtils.builder().setTimeout(Duration.ZERO));
+    }
+
+    private static List<Training> slow(List<Training> trainings, long latencyMillis, AtomicInteger running,
+                                       AtomicInteger maxRunning) {
+        return trainings.stream()
+                .map(training -> new SlowTraining(training, latencyMillis, running, maxRunning))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Training stub answering every read after a delay, like a training backed by a remote store
+     */
+    private static final class SlowTraining implements Training {
+
+        private final Training delegate;
+
+        private final long latencyMillis;
+
+        private final AtomicInteger running;
+
+        private final AtomicInteger maxRunning;
+
+        private SlowTraining(Training delegate, long latencyMillis, AtomicInteger running, AtomicInteger maxRunning) {
+            this.delegate = delegate;
+            this.latencyMillis = latencyMillis;
+            this.running = running;
+            this.maxRunning = maxRunning;
+        }
+
+        private void delay() {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public List<Student> getStudents() {
+            delay();
+            return delegate.getStudents();
+        }
+
+        @Override
+        public boolean addStudent(Student student) {
+            return delegate.addStudent(student);
+        }
+
+        @Override
+        public boolean removeStudent(Student student) {
+            return delegate.removeStudent(student);
+        }
+
+        @Override
+        public boolean rateFirstSemester(Student student, int mark) {
+            return delegate.rateFirstSemester(student, mark);
+        }
+
+        @Override
+        public boolean rateSecondSemester(Student student, int mark) {
+            return delegate.rateSecondSemester(student, mark);
+        }
+
+        @Override
+        public boolean isPresent(Student student) {
+            delay();
+            return delegate.isPresent(student);
+        }
+
+        @Override
+        public Optional<Grade> getStudentGrade(Student student) {
+            delay();
+            return delegate.getStudentGrade(student);
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.globallogic.basecamp;
+
+import com.globallogic.basecamp.model.Student;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class ConcurrentTrainingTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    void testConstructWithWrongName() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ConcurrentTraining(null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ConcurrentTraining(" "));
+    }
+
+    @Test
+    void testSingleThreadedContract() {
+        final var training = new ConcurrentTraining("Java Camp");
+        final var student = Student.builder("jerry.ferdy@email.com").build();
+        Assertions.assertFalse(training.rateFirstSemester(student, 5));
+        Assertions.assertTrue(training.addStudent(student));
+        Assertions.assertFalse(training.addStudent(student));
+        Assertions.assertTrue(training.rateFirstSemester(student, 10));
+        Assertions.assertTrue(training.rateSecondSemester(student, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> training.rateFirstSemester(student, 11));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> training.rateSecondSemester(student, -1));
+
+        final var grade = training.getStudentGrade(student).orElseThrow();
+        Assertions.assertEquals(10, grade.getFirstSemester());
+        Assertions.assertEquals(0, grade.getSecondSemester());
+        Assertions.assertTrue(training.removeStudent(student));
+        Assertions.assertFalse(training.removeStudent(student));
+        Assertions.assertTrue(training.getStudentGrade(student).isEmpty());
+    }
+
+    @Test
+    void testConcurrentEnrolment() throws Exception {
+        final var training = new ConcurrentTraining("Java Camp");
+        final var perThread = 2_000;
+        final var added = runConcurrently(thread -> {
+            var count = 0;
+            for (var i = 0; i < perThread; i++) {
+                // every student is enrolled by two threads, only one of them may succeed
+                final var email = "student" + ((thread / 2) * perThread + i) + "@email.com";
+                if (training.addStudent(Student.builder(email).build())) {
+                    count++;
+                }
+            }
+            return count;
+        });
+        Assertions.assertEquals(THREADS / 2 * perThread, added);
+        Assertions.assertEquals(THREADS / 2 * perThread, training.getStudents().size());
+    }
+
+    @Test
+    void testConcurrentRatingKeepsBothSemesters() throws Exception {
+        final var training = new ConcurrentTraining("Java Camp");
+        final var student = Student.builder("jerry.ferdy@email.com").build();
+        training.addStudent(student);
+        runConcurrently(thread -> {
+            for (var i = 0; i < 10_000; i++) {
+                final var mark = i % 11;
+                if (thread % 2 == 0) {
+                    training.rateFirstSemester(student, mark);
+                } else {
+                    training.rateSecondSemester(student, mark);
+                }
+            }
+            return 0;
+        });
+        final var grade = training.getStudentGrade(student).orElseThrow();
+        Assertions.assertEquals(9_999 % 11, grade.getFirstSemester());
+        Assertions.assertEquals(9_999 % 11, grade.getSecondSemester());
+    }
+
+    @Test
+    void testReadsDuringWritesSeeWholeGrades() throws Exception {
+        final var training = new ConcurrentTraining("Java Camp");
+        final var student = Student.builder("jerry.ferdy@email.com").build();
+        training.addStudent(student);
+        final var mismatches = runConcurrently(thread -> {
+            var count = 0;
+            for (var i = 0; i < 10_000; i++) {
+                if (thread % 2 == 0) {
+                    training.rate(student, i % 11, i % 11);
+                } else {
+                    final var grade = training.getStudentGrade(student).orElseThrow();
+                    if (grade.getFirstSemester() != grade.getSecondSemester()) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        });
+        Assertions.assertEquals(0, mismatches);
+    }
+
+    private interface Worker {
+        int run(int thread);
+    }
+
+    private static int runConcurrently(Worker worker) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final var start = new CountDownLatch(1);
+            final List<Future<Integer>> futures = new ArrayList<>();
+            for (var i = 0; i < THREADS; i++) {
+                final var thread = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return worker.run(thread);
+                }));
+            }
+            start.countDown();
+            var total = 0;
+            for (final var future : futures) {
+                total += future.get(30, TimeUnit.SECONDS);
+            }
+            return total;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.globallogic.basecamp;
+
+import com.globallogic.basecamp.analytics.AggregatingTraining;
+import com.globallogic.basecamp.data.Filler;
+import com.globallogic.basecamp.event.ObservableTraining;
+import com.globallogic.basecamp.event.TrainingEvent;
+import com.globallogic.basecamp.model.Grade;
+import com.globallogic.basecamp.model.Student;
+import com.globallogic.basecamp.shard.ShardedTraining;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+class GradeIterableTest {
+
+    @Test
+    void testMarksMatchGrades() {
+        for (final var training : Filler.createTrainings()) {
+            final var expected = new HashMap<String, List<Integer>>();
+            for (final var student : training.getStudents()) {
+                final var grade = training.getStudentGrade(student).orElseThrow();
+                expected.put(student.getEmail(), List.of(grade.getFirstSemester(), grade.getSecondSemester()));
+            }
+            final var concurrent = new ConcurrentTraining(training.getName());
+            training.getStudents().forEach(student -> {
+                final var grade = training.getStudentGrade(student).orElseThrow();
+                concurrent.addStudent(student);
+                concurrent.rate(student, grade.getFirstSemester(), grade.getSecondSemester());
+            });
+            Assertions.assertEquals(expected, marks(training));
+            Assertions.assertEquals(expected, marks(concurrent));
+            Assertions.assertEquals(expected, marks(new AggregatingTraining(training)));
+        }
+    }
+
+    @Test
+    void testVisitsGradesInPlace() {
+        final var training = new GlobalLogicTraining("Java Core");
+        final var jerry = Student.builder("jerry.ferdy@email.com").build();
+        training.addStudent(jerry);
+        training.forEachGrade((student, grade) -> grade.setFirstSemester(9));
+        Assertions.assertEquals(9, training.getStudentGrade(jerry).orElseThrow().getFirstSemester());
+
+        final var aggregating = new AggregatingTraining(training);
+        aggregating.forEachGrade((student, grade) -> grade.setFirstSemester(1));
+        Assertions.assertEquals(1, training.getStudentGrade(jerry).orElseThrow().getFirstSemester());
+        Assertions.assertEquals(1, aggregating.getMarkStatistics().getSum());
+    }
+
+    @Test
+    void testGradesOfDecoratorsWriteThrough() {
+        final var jerry = Student.builder("jerry.ferdy@email.com").build();
+        final var aggregating = new AggregatingTraining(new GlobalLogicTraining("Java Core"));
+        final var observable = new ObservableTraining(new GlobalLogicTraining("Java Advanced"));
+        final var sharded = ShardedTraining.builder("Java Frameworks").setShardCount(2).build();
+        final var events = new ArrayList<TrainingEvent>();
+        observable.addListener(events::add);
+        final List<Training> trainings = List.of(aggregating, observable, sharded);
+        trainings.forEach(training -> training.addStudent(jerry));
+
+        TrainingUtils.forEachGrade(trainings.stream(), grade -> grade.setSecondSemester(7));
+        trainings.forEach(training -> training.getStudentGrade(jerry).orElseThrow().setFirstSemester(4));
+        for (final var training : trainings) {
+            final var grade = training.getStudentGrade(jerry).orElseThrow();
+            Assertions.assertEquals(4, grade.getFirstSemester(), training::getName);
+            Assertions.assertEquals(7, grade.getSecondSemester(), training::getName);
+        }
+        Assertions.assertEquals(11, aggregating.getMarkStatistics().getSum());
+        Assertions.assertEquals(List.of(TrainingEvent.Type.ENROLLED, TrainingEvent.Type.SECOND_SEMESTER_RATED,
+                TrainingEvent.Type.FIRST_SEMESTER_RATED),
+                events.stream().map(TrainingEvent::getType).collect(Collectors.toList()));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> aggregating.getStudentGrade(jerry).orElseThrow().setFirstSemester(11));
+    }
+
+    @Test
+    void testFallbackForPlainTrainings() {
+        final var delegate = new GlobalLogicTraining("Java Core");
+        final var jerry = Student.builder("jerry.ferdy@email.com").build();
+        delegate.addStudent(jerry);
+        final Training plain = new Training() {
+            @Override
+            public String getName() {
+                return delegate.getName();
+            }
+
+            @Override
+            public List<Student> getStudents() {
+                return delegate.getStudents();
+            }
+
+            @Override
+            public boolean addStudent(Student student) {
+                return delegate.addStudent(student);
+            }
+
+            @Override
+            public boolean removeStudent(Student student) {
+                return delegate.removeStudent(student);
+            }
+
+            @Override
+            public boolean rateFirstSemester(Student student, int mark) {
+                return delegate.rateFirstSemester(student, mark);
+            }
+
+            @Override
+            public boolean rateSecondSemester(Student student, int mark) {
+                return delegate.rateSecondSemester(student, mark);
+            }
+
+            @Override
+            public boolean isPresent(Student student) {
+                return delegate.isPresent(student);
+            }
+
+            @Override
+            public Optional<Grade> getStudentGrade(Student student) {
+                return Optional.empty();
+            }
+        };
+        final var visited = new HashMap<Student, Grade>();
+        GradeIterable.forEachGrade(plain, visited::put);
+        Assertions.assertEquals(1, visited.size());
+        Assertions.assertNull(visited.get(jerry));
+        GradeIterable.forEachMark(plain, (student, first, second) -> {
+            Assertions.assertEquals(GradeIterable.NO_MARK, first);
+            Assertions.assertEquals(GradeIterable.NO_MARK, second);
+        });
+    }
+
+    private static Map<String, List<Integer>> marks(Training training) {
+        final var marks = new HashMap<String, List<Integer>>();
+        GradeIterable.forEachMark(training,
+                (student, first, second) -> marks.put(student.getEmail(), List.of(first, second)));
+        return marks;
+    }
+
+}
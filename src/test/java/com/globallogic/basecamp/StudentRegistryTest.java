@@ -0,0 +1,71 @@
+package com.globallogic.basecamp;
+
+import com.globallogic.basecamp.model.Student;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+class StudentRegistryTest {
+
+    @Test
+    void testIdsAreDenseAndStable() {
+        final var registry = new StudentRegistry();
+        Assertions.assertEquals(0, registry.register("jerry.ferdy@email.com"));
+        Assertions.assertEquals(1, registry.register(Student.builder("amanda.perry@email.com").build()));
+        Assertions.assertEquals(0, registry.register(new String("jerry.ferdy@email.com")));
+        Assertions.assertEquals(1, registry.idOf("amanda.perry@email.com"));
+        Assertions.assertEquals(StudentRegistry.ABSENT, registry.idOf("rob.johnson@email.com"));
+        Assertions.assertEquals("amanda.perry@email.com", registry.emailOf(1));
+        Assertions.assertEquals(2, registry.size());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> registry.emailOf(2));
+    }
+
+    @Test
+    void testAdd() {
+        final var registry = new StudentRegistry();
+        Assertions.assertTrue(registry.add("jerry.ferdy@email.com"));
+        Assertions.assertFalse(registry.add("jerry.ferdy@email.com"));
+    }
+
+    @Test
+    void testGrowth() {
+        final var registry = new StudentRegistry(1);
+        for (var i = 0; i < 100_000; i++) {
+            Assertions.assertEquals(i, registry.register("student" + i + "@email.com"));
+        }
+        for (var i = 0; i < 100_000; i++) {
+            Assertions.assertEquals(i, registry.idOf("student" + i + "@email.com"));
+        }
+    }
+
+    @Test
+    void testConcurrentRegistration() {
+        final var registry = new StudentRegistry();
+        final var ids = new ConcurrentHashMap<String, Integer>();
+        IntStream.range(0, 200_000).parallel().forEach(i -> {
+            final var email = "student" + (i % 50_000) + "@email.com";
+            final var id = registry.register(email);
+            final var previous = ids.putIfAbsent(email, id);
+            Assertions.assertTrue(previous == null || previous == id);
+        });
+        Assertions.assertEquals(50_000, registry.size());
+        ids.forEach((email, id) -> Assertions.assertEquals(email, registry.emailOf(id)));
+    }
+
+    @Test
+    void testLookupsDuringGrowth() {
+        final var registry = new StudentRegistry(1);
+        IntStream.range(0, 400_000).parallel().forEach(i -> {
+            if (i % 4 == 0) {
+                registry.register("student" + i + "@email.com");
+            } else {
+                final var id = registry.idOf("student" + (i & ~3) + "@email.com");
+                Assertions.assertTrue(id == StudentRegistry.ABSENT || id < registry.size());
+            }
+        });
+        Assertions.assertEquals(100_000, registry.size());
+    }
+
+}
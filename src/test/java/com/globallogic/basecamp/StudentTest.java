@@ -46,4 +46,32 @@ class StudentTest {
         Assertions.assertNotEquals(student1, student2);
     }
 
-}
\ No newline at end of file
+    @Test
+    void testAddressEquality() {
+        final var address1 = Address.builder().setCountry("Country").setCity("City").setHouseNumber(1000).build();
+        final var address2 = new Address.Builder("Country", "City", null, 1000).build();
+        final var address3 = Address.builder().setCountry("Country").setCity("City").setHouseNumber(1001).build();
+        Assertions.assertEquals(address1, address2);
+        Assertions.assertEquals(address1.hashCode(), address2.hashCode());
+        Assertions.assertNotEquals(address1, address3);
+    }
+
+    @Test
+    void testAddressesAreShared() {
+        final var address1 = Address.builder()
+                .setCountry(new String("Country"))
+                .setCity(new String("City"))
+                .setStreet(new String("Street"))
+                .setHouseNumber(1)
+                .build();
+        final var address2 = Address.builder()
+                .setCountry(new String("Country"))
+                .setCity(new String("City"))
+                .setStreet(new String("Street"))
+                .setHouseNumber(1)
+                .build();
+        Assertions.assertSame(address1, address2);
+        Assertions.assertSame(address1.getCity(), address2.getCity());
+    }
+
+}
@@ -1,11 +1,16 @@
 package com.globallogic.basecamp;
 
 import com.globallogic.basecamp.data.Filler;
+import com.globallogic.basecamp.index.StudentQuery;
+import com.globallogic.basecamp.index.TrainingCatalog;
 import com.globallogic.basecamp.model.Student;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 class TrainingUtilsTest {
 
@@ -65,6 +70,37 @@ class TrainingUtilsTest {
         }
     }
 
+    @Test
+    void testRemoveStudentsIfCountsAndTestsOncePerStudent() {
+        final var trainingsList = Filler.createTrainings();
+        final var tested = new ConcurrentHashMap<String, Integer>();
+        final var removed = TrainingUtils.removeStudentsIf(trainingsList.stream(), student -> {
+            tested.merge(student.getEmail(), 1, Integer::sum);
+            return student.getLastName().equals("Perry");
+        });
+        Assertions.assertEquals(Map.of("Java Frameworks", 0, "Java Core", 2, "Java Advanced", 2), removed);
+        Assertions.assertEquals(Map.of("jerry.ferdy@email.com", 1, "amanda.perry@email.com", 1,
+                "danny.perry@email.com", 1, "rob.johnson@email.com", 1), tested);
+        Assertions.assertEquals(4, trainingsList.stream().mapToInt(training -> training.getStudents().size()).sum());
+    }
+
+    @Test
+    void testRemoveStudentsIfLooksQueryUpOncePerCatalog() {
+        final var catalog = new TrainingCatalog();
+        final var trainingsList = Filler.createTrainings().stream()
+                .map(catalog::register)
+                .collect(Collectors.toList());
+        final var tested = new ConcurrentHashMap<String, Integer>();
+        final var removed = TrainingUtils.removeStudentsIf(trainingsList.stream(),
+                StudentQuery.lastNameStartsWith("Per").and(student -> {
+                    tested.merge(student.getEmail(), 1, Integer::sum);
+                    return true;
+                }));
+        Assertions.assertEquals(Map.of("Java Frameworks", 0, "Java Core", 2, "Java Advanced", 2), removed);
+        Assertions.assertEquals(Map.of("amanda.perry@email.com", 1, "danny.perry@email.com", 1), tested);
+        Assertions.assertTrue(catalog.getStudents(StudentQuery.lastNameStartsWith("Per")).isEmpty());
+    }
+
     @Test
     void testGetStudentsWithMaxMark() {
         final var result = TrainingUtils.getStudentsWithMaxMark(trainings.stream());
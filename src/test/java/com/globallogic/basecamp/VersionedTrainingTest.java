@@ -0,0 +1,177 @@
+package com.globallogic.basecamp;
+
+import com.globallogic.basecamp.batch.GradeBatch;
+import com.globallogic.basecamp.model.Semester;
+import com.globallogic.basecamp.model.Student;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class VersionedTrainingTest {
+
+    private final Student jerry = Student.builder("jerry.ferdy@email.com").build();
+
+    private final Student amanda = Student.builder("amanda.perry@email.com").build();
+
+    @Test
+    void testConstructWithWrongName() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new VersionedTraining(null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new VersionedTraining(" "));
+    }
+
+    @Test
+    void testSingleThreadedContract() {
+        final var training = new VersionedTraining("Java Camp");
+        Assertions.assertFalse(training.rateFirstSemester(jerry, 5));
+        Assertions.assertTrue(training.addStudent(jerry));
+        Assertions.assertFalse(training.addStudent(jerry));
+        Assertions.assertTrue(training.rateFirstSemester(jerry, 10));
+        Assertions.assertTrue(training.rateSecondSemester(jerry, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> training.rateFirstSemester(jerry, 11));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> training.addStudent(null));
+
+        final var grade = training.getStudentGrade(jerry).orElseThrow();
+        Assertions.assertEquals(10, grade.getFirstSemester());
+        Assertions.assertEquals(0, grade.getSecondSemester());
+        Assertions.assertEquals(3, training.getVersion());
+        Assertions.assertTrue(training.removeStudent(jerry));
+        Assertions.assertFalse(training.removeStudent(jerry));
+        Assertions.assertFalse(training.isPresent(jerry));
+        Assertions.assertEquals(4, training.getVersion());
+    }
+
+    @Test
+    void testSnapshotIsFrozen() {
+        final var training = new VersionedTraining("Java Camp");
+        training.addStudent(jerry);
+        training.rate(jerry, 7, 8);
+        try (var snapshot = training.snapshot()) {
+            training.rateFirstSemester(jerry, 1);
+            training.addStudent(amanda);
+            training.removeStudent(jerry);
+            training.addStudent(jerry);
+
+            Assertions.assertEquals(List.of(jerry), snapshot.getStudents());
+            Assertions.assertFalse(snapshot.isPresent(amanda));
+            final var grade = snapshot.getStudentGrade(jerry).orElseThrow();
+            Assertions.assertEquals(7, grade.getFirstSemester());
+            Assertions.assertEquals(8, grade.getSecondSemester());
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.addStudent(amanda));
+
+            Assertions.assertEquals(0, training.getStudentGrade(jerry).orElseThrow().getFirstSemester());
+            Assertions.assertEquals(2, training.getStudents().size());
+        }
+    }
+
+    @Test
+    void testBatchesAreOneVersion() {
+        final var training = new VersionedTraining("Java Camp");
+        training.addStudents(List.of(jerry, amanda));
+        Assertions.assertEquals(1, training.getVersion());
+        try (var snapshot = training.snapshot()) {
+            final var result = training.rate(GradeBatch.builder()
+                    .rate(jerry, Semester.FIRST, 9)
+                    .rate(jerry, Semester.SECOND, 6)
+                    .rate(amanda, Semester.FIRST, 4)
+                    .rate(Student.builder("rob.johnson@email.com").build(), Semester.FIRST, 2)
+                    .build());
+            Assertions.assertEquals(3, result.getAppliedCount());
+            Assertions.assertEquals(2, training.getVersion());
+            Assertions.assertEquals(0, snapshot.getStudentGrade(jerry).orElseThrow().getFirstSemester());
+            Assertions.assertEquals(6, training.getStudentGrade(jerry).orElseThrow().getSecondSemester());
+            Assertions.assertEquals(9, training.getStudentGrade(jerry).orElseThrow().getFirstSemester());
+        }
+    }
+
+    @Test
+    void testClosedSnapshot() {
+        final var training = new VersionedTraining("Java Camp");
+        final var snapshot = training.snapshot();
+        snapshot.close();
+        snapshot.close();
+        Assertions.assertThrows(IllegalStateException.class, snapshot::getStudents);
+    }
+
+    @Test
+    void testVacuumDropsRemovedStudents() {
+        final var training = new VersionedTraining("Java Camp");
+        training.addStudent(jerry);
+        final var snapshot = training.snapshot();
+        training.removeStudent(jerry);
+        training.vacuum();
+        Assertions.assertTrue(snapshot.isPresent(jerry));
+        snapshot.close();
+        training.vacuum();
+        Assertions.assertFalse(training.isPresent(jerry));
+        Assertions.assertTrue(training.getStudents().isEmpty());
+        Assertions.assertTrue(training.addStudent(jerry));
+    }
+
+    @Test
+    void testSnapshotsStayConsistentUnderWriters() throws Exception {
+        final var training = new VersionedTraining("Java Camp");
+        final var students = new ArrayList<Student>();
+        for (var i = 0; i < 200; i++) {
+            students.add(Student.builder("student" + i + "@email.com").build());
+        }
+        training.addStudents(students);
+        final var done = new AtomicBoolean();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final var start = new CountDownLatch(1);
+            final List<Future<Integer>> readers = new ArrayList<>();
+            final var writer = executor.submit(() -> {
+                start.await();
+                for (var round = 0; round < 2_000; round++) {
+                    // every batch rates all students with the same marks
+                    final var batch = GradeBatch.builder();
+                    students.forEach(student -> batch.rate(student, 5, 5));
+                    final var mark = round % 11;
+                    students.forEach(student -> batch.rate(student, mark, mark));
+                    training.rate(batch.build());
+                }
+                done.set(true);
+                return null;
+            });
+            for (var i = 0; i < 3; i++) {
+                readers.add(executor.submit(() -> {
+                    start.await();
+                    var mismatches = 0;
+                    while (!done.get()) {
+                        try (var snapshot = training.snapshot()) {
+                            final var marks = new int[]{-2};
+                            final var inconsistent = new boolean[1];
+                            snapshot.forEachMark((student, first, second) -> {
+                                if (first != second || marks[0] != -2 && marks[0] != first) {
+                                    inconsistent[0] = true;
+                                }
+                                marks[0] = first;
+                            });
+                            if (inconsistent[0]) {
+                                mismatches++;
+                            }
+                        }
+                    }
+                    return mismatches;
+                }));
+            }
+            start.countDown();
+            writer.get(60, TimeUnit.SECONDS);
+            for (final var reader : readers) {
+                Assertions.assertEquals(0, reader.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.assertEquals(1_999 % 11, training.getStudentGrade(students.get(0)).orElseThrow().getFirstSemester());
+    }
+
+}
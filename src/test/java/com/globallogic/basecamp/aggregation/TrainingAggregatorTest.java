@@ -0,0 +1,161 @@
+package com.globallogic.basecamp.aggregation;
+
+import com.globallogic.basecamp.GlobalLogicTraining;
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.TrainingUtils;
+import com.globallogic.basecamp.data.Filler;
+import com.globallogic.basecamp.model.Grade;
+import com.globallogic.basecamp.model.Student;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+class TrainingAggregatorTest {
+
+    final List<Training> trainings = Filler.createTrainings();
+
+    @Test
+    void testAllReportsInOnePass() {
+        final var result = TrainingAggregator.builder().withAll(4).build().aggregate(trainings.stream());
+
+        Assertions.assertEquals(6.75, result.getAverageMarkPerStudent().get("jerry.ferdy@email.com"), 0.01);
+        Assertions.assertEquals(7.75, result.getAverageMarkPerStudent().get("amanda.perry@email.com"), 0.01);
+        Assertions.assertEquals(5.75, result.getAverageMarkPerTraining().get("Java Frameworks"), 0.01);
+        Assertions.assertEquals(7.667, result.getAverageMarkPerTraining().get("Java Advanced"), 0.01);
+        Assertions.assertEquals(List.of("Java Frameworks", "Java Core"),
+                result.getTrainingsPerStudent().get("jerry.ferdy@email.com"));
+        Assertions.assertEquals(List.of("amanda.perry@email.com", "rob.johnson@email.com"),
+                result.getStudentsWithMaxMark().stream().sorted().collect(Collectors.toList()));
+        Assertions.assertEquals(List.of("amanda.perry@email.com"), result.getStudentsWithMarkLowerThan());
+    }
+
+    @Test
+    void testReportNotRequested() {
+        final var result = TrainingAggregator.builder().withAverageMarkPerTraining().build()
+                .aggregate(trainings.stream());
+        Assertions.assertThrows(IllegalStateException.class, result::getAverageMarkPerStudent);
+    }
+
+    @Test
+    void testSingleLookupPerStudentGrade() {
+        final var counting = trainings.stream().map(CountingTraining::new).collect(Collectors.toList());
+        TrainingAggregator.builder().withAll(4).build().aggregate(counting.stream().map(Training.class::cast));
+        for (final var training : counting) {
+            Assertions.assertEquals(1, training.studentCalls.get());
+            Assertions.assertEquals(training.getStudents().size(), training.gradeCalls.get());
+        }
+    }
+
+    @Test
+    void testParallelStreamMatchesSequential() {
+        final var large = createTrainings(40, 500);
+        final var aggregator = TrainingAggregator.builder().withAll(3).build();
+        assertSameResult(aggregator.aggregate(large.stream()), aggregator.aggregate(large.parallelStream()));
+        Assertions.assertEquals(TrainingUtils.getAverageMarkPerStudent(large.stream()),
+                TrainingUtils.getAverageMarkPerStudent(large.parallelStream()));
+        Assertions.assertEquals(TrainingUtils.getStudentsSorted(large.stream()),
+                TrainingUtils.getStudentsSorted(large.parallelStream()));
+        Assertions.assertEquals(
+                new HashSet<>(TrainingUtils.getStudentEmailsByCondition(large.stream(), s -> s.getEmail().contains("7"))),
+                new HashSet<>(TrainingUtils.getStudentEmailsByCondition(large.parallelStream(),
+                        s -> s.getEmail().contains("7"))));
+    }
+
+    @Test
+    void testForkJoinModeMatchesSequential() {
+        final var large = createTrainings(9, 1000);
+        final var aggregator = TrainingAggregator.builder().withAll(3).setChunkSize(64).build();
+        assertSameResult(aggregator.aggregate(large.stream()), aggregator.aggregateParallel(large));
+    }
+
+    private static void assertSameResult(AggregationResult expected, AggregationResult actual) {
+        Assertions.assertEquals(expected.getAverageMarkPerStudent().keySet(), actual.getAverageMarkPerStudent().keySet());
+        expected.getAverageMarkPerStudent().forEach((email, average) ->
+                Assertions.assertEquals(average, actual.getAverageMarkPerStudent().get(email), 1e-9));
+        Assertions.assertEquals(expected.getAverageMarkPerTraining(), actual.getAverageMarkPerTraining());
+        Assertions.assertEquals(expected.getTrainingsPerStudent(), actual.getTrainingsPerStudent());
+        Assertions.assertEquals(new HashSet<>(expected.getStudentsWithMaxMark()),
+                new HashSet<>(actual.getStudentsWithMaxMark()));
+        Assertions.assertEquals(new HashSet<>(expected.getStudentsWithMarkLowerThan()),
+                new HashSet<>(actual.getStudentsWithMarkLowerThan()));
+    }
+
+    private static List<Training> createTrainings(int trainingCount, int studentsPerTraining) {
+        final var trainings = new ArrayList<Training>();
+        for (var t = 0; t < trainingCount; t++) {
+            final var training = new GlobalLogicTraining("Training " + t);
+            for (var i = 0; i < studentsPerTraining; i++) {
+                final var id = (t * 37 + i * 11) % (studentsPerTraining * 3);
+                final var student = Student.builder("student" + id + "@email.com")
+                        .setFirstName("First" + id % 17).setLastName("Last" + id % 23).build();
+                training.addStudent(student);
+                training.rateFirstSemester(student, (id + t) % 11);
+                training.rateSecondSemester(student, (id * 3 + t) % 10);
+            }
+            trainings.add(training);
+        }
+        return trainings;
+    }
+
+    private static class CountingTraining implements Training {
+
+        private final Training delegate;
+
+        private final AtomicInteger studentCalls = new AtomicInteger();
+
+        private final AtomicInteger gradeCalls = new AtomicInteger();
+
+        CountingTraining(Training delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public List<Student> getStudents() {
+            studentCalls.incrementAndGet();
+            return delegate.getStudents();
+        }
+
+        @Override
+        public boolean addStudent(Student student) {
+            return delegate.addStudent(student);
+        }
+
+        @Override
+        public boolean removeStudent(Student student) {
+            return delegate.removeStudent(student);
+        }
+
+        @Override
+        public boolean rateFirstSemester(Student student, int mark) {
+            return delegate.rateFirstSemester(student, mark);
+        }
+
+        @Override
+        public boolean rateSecondSemester(Student student, int mark) {
+            return delegate.rateSecondSemester(student, mark);
+        }
+
+        @Override
+        public boolean isPresent(Student student) {
+            return delegate.isPresent(student);
+        }
+
+        @Override
+        public Optional<Grade> getStudentGrade(Student student) {
+            gradeCalls.incrementAndGet();
+            return delegate.getStudentGrade(student);
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.globallogic.basecamp.analytics;
+
+import com.globallogic.basecamp.GlobalLogicTraining;
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.TrainingUtils;
+import com.globallogic.basecamp.aggregation.TrainingAggregator;
+import com.globallogic.basecamp.data.Filler;
+import com.globallogic.basecamp.model.Semester;
+import com.globallogic.basecamp.model.Student;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+class AggregatingTrainingTest {
+
+    @Test
+    void testReadsExistingMarks() {
+        final var trainings = Filler.createTrainings();
+        for (final var training : trainings) {
+            final var aggregating = new AggregatingTraining(training);
+            Assertions.assertEquals(MarkStatistics.of(training), aggregating.getMarkStatistics());
+        }
+        final var frameworks = new AggregatingTraining(trainings.get(0)).getMarkStatistics();
+        Assertions.assertEquals(4, frameworks.getCount());
+        Assertions.assertEquals(5.75, frameworks.getAverage(), 0.01);
+        Assertions.assertEquals(OptionalInt.of(8), frameworks.getMax());
+    }
+
+    @Test
+    void testFollowsChanges() {
+        final var random = new Random(3);
+        final var plain = new GlobalLogicTraining("Java Core");
+        final var training = new AggregatingTraining(plain);
+        final var students = new ArrayList<Student>();
+        for (var i = 0; i < 50; i++) {
+            students.add(Student.builder("student" + i + "@email.com").build());
+        }
+        Assertions.assertEquals(OptionalInt.empty(), training.getMarkStatistics().getMin());
+        for (var round = 0; round < 5_000; round++) {
+            final var student = students.get(random.nextInt(students.size()));
+            switch (random.nextInt(4)) {
+                case 0:
+                    training.addStudent(student);
+                    break;
+                case 1:
+                    training.removeStudent(student);
+                    break;
+                case 2:
+                    training.rateFirstSemester(student, random.nextInt(11));
+                    break;
+                default:
+                    training.rateSecondSemester(student, random.nextInt(11));
+            }
+            Assertions.assertEquals(MarkStatistics.of(plain), training.getMarkStatistics());
+        }
+    }
+
+    @Test
+    void testReturnedGradeRatesThroughDecorator() {
+        final var training = new AggregatingTraining(new GlobalLogicTraining("Java Core"));
+        final var jerry = Student.builder("jerry.ferdy@email.com").build();
+        training.addStudent(jerry);
+        training.rateFirstSemester(jerry, 7);
+        training.getStudentGrade(jerry).orElseThrow().setFirstSemester(2);
+        Assertions.assertEquals(2, training.getStudentGrade(jerry).orElseThrow().getFirstSemester());
+        Assertions.assertEquals(0, training.getMarkStatistics().getCount(7));
+        Assertions.assertEquals(1, training.getMarkStatistics().getCount(2));
+    }
+
+    @Test
+    void testMarkBuckets() {
+        final var trainings = Filler.createTrainings();
+        final var aggregating = trainings.stream().map(AggregatingTraining::new).collect(Collectors.toList());
+        for (var i = 0; i < trainings.size(); i++) {
+            final List<Training> plain = List.of(trainings.get(i));
+            final var training = aggregating.get(i);
+            Assertions.assertEquals(sorted(TrainingUtils.getStudentsWithMarkLowerThan(plain.stream(), 5)),
+                    sorted(emails(training.getStudentsWithMarkLowerThan(5))));
+            Assertions.assertEquals(sorted(TrainingUtils.getStudentsWithMaxMark(plain.stream())),
+                    sorted(emails(training.getStudentsWithMaxMark())));
+        }
+        final var core = aggregating.get(1);
+        final var jerry = Student.builder("jerry.ferdy@email.com").build();
+        core.rateSecondSemester(jerry, 10);
+        Assertions.assertTrue(core.getStudentsWithMaxMark().contains(jerry));
+        core.removeStudent(jerry);
+        Assertions.assertFalse(core.getStudentsWithMaxMark().contains(jerry));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> core.forEachStudentWithMark(Semester.FIRST, 11, student -> { }));
+    }
+
+    @Test
+    void testIndexedReportsSkipRoster() {
+        final var rosterReads = new AtomicInteger();
+        final List<Training> trainings = Filler.createTrainings().stream()
+                .map(training -> new AggregatingTraining(training) {
+                    @Override
+                    public List<Student> getStudents() {
+                        rosterReads.incrementAndGet();
+                        return super.getStudents();
+                    }
+
+                    @Override
+                    public void forEachMark(MarkVisitor visitor) {
+                        rosterReads.incrementAndGet();
+                        super.forEachMark(visitor);
+                    }
+                })
+                .collect(Collectors.toList());
+        final var expected = TrainingUtils.getAverageMarkPerTraining(Filler.createTrainings().stream());
+
+        Assertions.assertEquals(expected, TrainingUtils.getAverageMarkPerTraining(trainings.stream()));
+        Assertions.assertEquals(expected, TrainingAggregator.builder().withAverageMarkPerTraining().build()
+                .aggregateParallel(trainings).getAverageMarkPerTraining());
+        for (var mark = 0; mark <= 11; mark++) {
+            Assertions.assertEquals(
+                    sorted(TrainingUtils.getStudentsWithMarkLowerThan(Filler.createTrainings().stream(), mark)),
+                    sorted(TrainingUtils.getStudentsWithMarkLowerThan(trainings.stream(), mark)));
+        }
+        final var indexed = TrainingAggregator.builder().withStudentsWithMaxMark().withStudentsWithMarkLowerThan(6)
+                .build().aggregateParallel(trainings);
+        Assertions.assertEquals(sorted(TrainingUtils.getStudentsWithMaxMark(Filler.createTrainings().stream())),
+                sorted(indexed.getStudentsWithMaxMark()));
+        Assertions.assertEquals(0, rosterReads.get());
+
+        TrainingUtils.getAverageMarkPerStudent(trainings.stream());
+        Assertions.assertEquals(trainings.size(), rosterReads.get());
+    }
+
+    private static List<String> emails(List<Student> students) {
+        return students.stream().map(Student::getEmail).collect(Collectors.toList());
+    }
+
+    private static List<String> sorted(List<String> emails) {
+        return emails.stream().sorted().collect(Collectors.toList());
+    }
+
+}
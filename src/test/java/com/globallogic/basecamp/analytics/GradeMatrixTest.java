@@ -0,0 +1,63 @@
+package com.globallogic.basecamp.analytics;
+
+import com.globallogic.basecamp.GlobalLogicTraining;
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.TrainingUtils;
+import com.globallogic.basecamp.data.DatasetGenerator;
+import com.globallogic.basecamp.data.Filler;
+import com.globallogic.basecamp.model.Student;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class GradeMatrixTest {
+
+    final List<Training> trainings = Filler.createTrainings();
+
+    @Test
+    void testShape() {
+        final var matrix = GradeMatrix.of(trainings);
+        Assertions.assertEquals(4, matrix.getStudentCount());
+        Assertions.assertEquals(3, matrix.getTrainingCount());
+        Assertions.assertEquals(8, matrix.getEntryCount());
+        Assertions.assertEquals("Java Frameworks", matrix.getTrainingName(0));
+    }
+
+    @Test
+    void testReportsMatchTrainingUtils() {
+        final List<Training> large = new ArrayList<>(DatasetGenerator.builder().setSeed(3).setStudentCount(2_000)
+                .setTrainingCount(30).setStudentsPerTraining(300).build().buildTrainings());
+        for (final var data : List.of(trainings, large)) {
+            final var matrix = GradeMatrix.of(data);
+            Assertions.assertEquals(TrainingUtils.getAverageMarkPerStudent(data.stream()),
+                    matrix.averageMarkPerStudent());
+            Assertions.assertEquals(TrainingUtils.getAverageMarkPerTraining(data.stream()),
+                    matrix.averageMarkPerTraining());
+            Assertions.assertEquals(TrainingUtils.getTrainingsPerStudent(data.stream()),
+                    matrix.trainingsPerStudent());
+            Assertions.assertEquals(new HashSet<>(TrainingUtils.getStudentsWithMaxMark(data.stream())),
+                    new HashSet<>(matrix.studentsWithMaxMark()));
+            Assertions.assertEquals(new HashSet<>(TrainingUtils.getStudentsWithMarkLowerThan(data.stream(), 4)),
+                    new HashSet<>(matrix.studentsWithMarkLowerThan(4)));
+        }
+    }
+
+    @Test
+    void testForEachGradeVisitsUnratedStudentWithZeroMarks() {
+        final var training = new GlobalLogicTraining("Java Camp");
+        training.addStudent(Student.builder("jerry.ferdy@email.com").build());
+        final var matrix = GradeMatrix.of(List.of(training));
+        final var visited = new AtomicInteger();
+        matrix.forEachGrade((student, trainingId, first, second) -> {
+            Assertions.assertEquals(0, first);
+            Assertions.assertEquals(0, second);
+            visited.incrementAndGet();
+        });
+        Assertions.assertEquals(1, visited.get());
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.globallogic.basecamp.batch;
+
+import com.globallogic.basecamp.ConcurrentTraining;
+import com.globallogic.basecamp.GlobalLogicTraining;
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.VersionedTraining;
+import com.globallogic.basecamp.analytics.AggregatingTraining;
+import com.globallogic.basecamp.analytics.MarkStatistics;
+import com.globallogic.basecamp.index.TrainingCatalog;
+import com.globallogic.basecamp.model.Semester;
+import com.globallogic.basecamp.model.Student;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class BulkTrainingTest {
+
+    private final Student jerry = Student.builder("jerry.ferdy@email.com").build();
+
+    private final Student amanda = Student.builder("amanda.perry@email.com").build();
+
+    private final Student rob = Student.builder("rob.johnson@email.com").build();
+
+    @Test
+    void testBatchesMatchSingleRecordCalls() {
+        final var catalog = new TrainingCatalog();
+        final List<Training> trainings = List.of(new GlobalLogicTraining("Java Core"),
+                new ConcurrentTraining("Java Core"),
+                new AggregatingTraining(new GlobalLogicTraining("Java Core")),
+                catalog.register(new GlobalLogicTraining("Java Core")));
+        for (final var training : trainings) {
+            final var enrolled = BulkTraining.addStudents(training, List.of(jerry, amanda, jerry));
+            Assertions.assertEquals(List.of(true, true, false), outcomes(enrolled));
+
+            final var batch = GradeBatch.builder()
+                    .rate(jerry, Semester.FIRST, 4)
+                    .rate(rob, Semester.FIRST, 9)
+                    .rate(amanda, 7, 8)
+                    .rate(jerry, Semester.FIRST, 6)
+                    .build();
+            final var rated = BulkTraining.rate(training, batch);
+            Assertions.assertEquals(List.of(true, false, true, true, true), outcomes(rated));
+            Assertions.assertArrayEquals(new int[]{1}, rated.getRejectedIndexes());
+            Assertions.assertEquals(6, training.getStudentGrade(jerry).orElseThrow().getFirstSemester());
+            Assertions.assertEquals(8, training.getStudentGrade(amanda).orElseThrow().getSecondSemester());
+
+            Assertions.assertTrue(BulkTraining.rate(training, jerry, 10, 2));
+            Assertions.assertFalse(BulkTraining.rate(training, rob, 10, 2));
+            Assertions.assertEquals(2, training.getStudentGrade(jerry).orElseThrow().getSecondSemester());
+        }
+        final var aggregating = (AggregatingTraining) trainings.get(2);
+        Assertions.assertEquals(MarkStatistics.of(trainings.get(0)), aggregating.getMarkStatistics());
+        Assertions.assertTrue(catalog.isPresent(amanda, trainings.get(3)));
+    }
+
+    @Test
+    void testRemovesMatchingStudentsInPlace() {
+        final var catalog = new TrainingCatalog();
+        final List<Training> trainings = List.of(new GlobalLogicTraining("Java Core"),
+                new ConcurrentTraining("Java Core"),
+                new VersionedTraining("Java Core"),
+                new AggregatingTraining(new GlobalLogicTraining("Java Core")),
+                catalog.register(new GlobalLogicTraining("Java Core")));
+        for (final var training : trainings) {
+            BulkTraining.addStudents(training, List.of(jerry, amanda, rob));
+            BulkTraining.rate(training, amanda, 3, 4);
+            final var tested = new ArrayList<Student>();
+            final var removed = BulkTraining.removeStudentsIf(training, student -> {
+                tested.add(student);
+                return student.getEmail().endsWith(".perry@email.com") || student.equals(rob);
+            });
+            Assertions.assertEquals(2, removed);
+            Assertions.assertEquals(3, tested.size());
+            Assertions.assertEquals(List.of(jerry), training.getStudents());
+            Assertions.assertEquals(0, BulkTraining.removeStudentsIf(training, student -> false));
+        }
+        final var aggregating = (AggregatingTraining) trainings.get(3);
+        Assertions.assertEquals(MarkStatistics.of(trainings.get(0)), aggregating.getMarkStatistics());
+        Assertions.assertFalse(catalog.isPresentOnAnyTraining(amanda));
+        Assertions.assertTrue(catalog.isPresentOnAnyTraining(jerry));
+    }
+
+    @Test
+    void testInvalidBatchIsNeverBuilt() {
+        final var builder = GradeBatch.builder().rate(jerry, Semester.FIRST, 4).rate(amanda, Semester.SECOND, 11);
+        Assertions.assertThrows(IllegalArgumentException.class, builder::build);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> GradeBatch.builder().rate(null, Semester.FIRST, 4).build());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new GlobalLogicTraining("Java Core").rate(jerry, 5, -1));
+    }
+
+    @Test
+    void testGrowsBeyondInitialCapacity() {
+        final var training = new GlobalLogicTraining("Java Core");
+        final var students = new ArrayList<Student>();
+        final var batch = GradeBatch.builder();
+        for (var i = 0; i < 100; i++) {
+            final var student = Student.builder("student" + i + "@email.com").build();
+            students.add(student);
+            batch.rate(student, Semester.SECOND, i % 11);
+        }
+        Assertions.assertEquals(100, training.addStudents(students).getAppliedCount());
+        final var result = training.rate(batch.build());
+        Assertions.assertEquals(100, result.size());
+        Assertions.assertEquals(0, result.getRejectedCount());
+        Assertions.assertEquals(10, training.getStudentGrade(students.get(98)).orElseThrow().getSecondSemester());
+    }
+
+    private static List<Boolean> outcomes(BatchResult result) {
+        final var outcomes = new ArrayList<Boolean>();
+        for (var i = 0; i < result.size(); i++) {
+            outcomes.add(result.isApplied(i));
+        }
+        return outcomes;
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.globallogic.basecamp.comparator;
+
+import com.globallogic.basecamp.data.DatasetGenerator;
+import com.globallogic.basecamp.model.Student;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+class StudentSorterTest {
+
+    @Test
+    void testMatchesComparatorOnTrickyNames() {
+        final var names = new String[]{"", "a", "ab", "a\u0000", "a\u0000b", "A", "~", "\u007F", "\u0080",
+                "\u00e9", "\u03a9", "\u03a9a", "\ud83d\ude00", "\uffff", "Perry", "Perry ", "Perr"};
+        final var random = new SplittableRandom(19);
+        final var students = new Student[2_000];
+        for (var i = 0; i < students.length; i++) {
+            students[i] = Student.builder("student" + i + "@email.com")
+                    .setLastName(names[random.nextInt(names.length)])
+                    .setFirstName(names[random.nextInt(names.length)])
+                    .build();
+        }
+        assertSameOrder(students);
+    }
+
+    @Test
+    void testMatchesComparatorOnGeneratedStudents() {
+        final var generator = DatasetGenerator.builder().setSeed(19).setStudentCount(50_000).build();
+        assertSameOrder(generator.students().toArray(Student[]::new));
+    }
+
+    @Test
+    void testSmallInputs() {
+        final var jerry = Student.builder("jerry.ferdy@email.com").setFirstName("Jerry").setLastName("Ferdy").build();
+        final var rob = Student.builder("rob.johnson@email.com").setFirstName("Rob").setLastName("Johnson").build();
+        Assertions.assertEquals(List.of(), StudentSorter.sorted(List.of()));
+        Assertions.assertEquals(List.of(jerry, rob), StudentSorter.sorted(List.of(rob, jerry)));
+        Assertions.assertThrows(NullPointerException.class,
+                () -> StudentSorter.sorted(List.of(rob, Student.builder("nameless@email.com").build())));
+    }
+
+    private static void assertSameOrder(Student[] students) {
+        final var expected = students.clone();
+        Arrays.sort(expected, new StudentComparator());
+        final var actual = students.clone();
+        StudentSorter.sort(actual);
+        Assertions.assertEquals(emails(expected), emails(actual));
+    }
+
+    private static List<String> emails(Student[] students) {
+        return Arrays.stream(students).map(Student::getEmail).collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.globallogic.basecamp.data;
+
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.model.Student;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+class DatasetGeneratorTest {
+
+    private static DatasetGenerator.Builder generator() {
+        return DatasetGenerator.builder()
+                .setSeed(7)
+                .setStudentCount(5_000)
+                .setTrainingCount(20)
+                .setStudentsPerTraining(200);
+    }
+
+    @Test
+    void testDeterministicForSeed() {
+        final var first = generator().build();
+        final var second = generator().build();
+        final var student = first.student(1234);
+        final var same = second.student(1234);
+        Assertions.assertEquals(student, same);
+        Assertions.assertEquals(student.getLastName(), same.getLastName());
+        Assertions.assertEquals(student.getPhoneNumber(), same.getPhoneNumber());
+        Assertions.assertEquals(student.getAddress().getStreet(), same.getAddress().getStreet());
+        Assertions.assertEquals(snapshot(first.training(3)), snapshot(second.training(3)));
+        Assertions.assertNotEquals(snapshot(first.training(3)),
+                snapshot(generator().setSeed(8).build().training(3)));
+    }
+
+    @Test
+    void testParallelGenerationMatchesSequential() {
+        final var generator = generator().build();
+        final var sequential = generator.trainings().map(DatasetGeneratorTest::snapshot).collect(Collectors.toList());
+        final var parallel = generator.buildTrainings().stream().map(DatasetGeneratorTest::snapshot)
+                .collect(Collectors.toList());
+        Assertions.assertEquals(sequential, parallel);
+        Assertions.assertEquals(5_000, generator.students().parallel().distinct().count());
+    }
+
+    @Test
+    void testNoOverlapGivesDisjointRosters() {
+        final var generator = generator().setOverlap(0).build();
+        final var seen = new HashSet<Student>();
+        generator.trainings().forEach(training -> {
+            Assertions.assertEquals(200, training.getStudents().size());
+            training.getStudents().forEach(student -> Assertions.assertTrue(seen.add(student)));
+        });
+    }
+
+    @Test
+    void testFullOverlapSharesStudents() {
+        final var generator = generator().setStudentCount(300).setOverlap(1).build();
+        final var first = new HashSet<>(generator.training(0).getStudents());
+        first.retainAll(generator.training(1).getStudents());
+        Assertions.assertFalse(first.isEmpty());
+    }
+
+    @Test
+    void testBuiltTrainingsShareStudentObjects() {
+        final var trainings = generator().setStudentCount(300).setOverlap(1).build().buildTrainings();
+        final var byEmail = new HashMap<String, Student>();
+        for (final var training : trainings) {
+            for (final var student : training.getStudents()) {
+                Assertions.assertSame(byEmail.computeIfAbsent(student.getEmail(), email -> student), student);
+            }
+        }
+        // 20 random rosters of 200 places draw every one of the 300 students
+        Assertions.assertEquals(300, byEmail.size());
+    }
+
+    @Test
+    void testMarkDistribution() {
+        final var generator = generator().setMarkDistribution(MarkDistribution.constant(7)).build();
+        final var training = generator.training(0);
+        training.getStudents().forEach(student -> {
+            final var grade = training.getStudentGrade(student).orElseThrow();
+            Assertions.assertEquals(7, grade.getFirstSemester());
+            Assertions.assertEquals(7, grade.getSecondSemester());
+        });
+        final var normal = generator().setMarkDistribution(MarkDistribution.normal(5, 4)).build().training(0);
+        normal.getStudents().forEach(student -> {
+            final var mark = normal.getStudentGrade(student).orElseThrow().getFirstSemester();
+            Assertions.assertTrue(mark >= 0 && mark <= 10);
+        });
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MarkDistribution.constant(11));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MarkDistribution.weighted(1, 2));
+    }
+
+    private static List<String> snapshot(Training training) {
+        return training.getStudents().stream()
+                .map(student -> {
+                    final var grade = training.getStudentGrade(student).orElseThrow();
+                    return student.getEmail() + ":" + grade.getFirstSemester() + ":" + grade.getSecondSemester();
+                })
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+}
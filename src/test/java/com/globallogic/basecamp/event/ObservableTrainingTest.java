@@ -0,0 +1,127 @@
+package com.globallogic.basecamp.event;
+
+import com.globallogic.basecamp.GlobalLogicTraining;
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.TrainingUtils;
+import com.globallogic.basecamp.batch.GradeBatch;
+import com.globallogic.basecamp.data.Filler;
+import com.globallogic.basecamp.model.Semester;
+import com.globallogic.basecamp.model.Student;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class ObservableTrainingTest {
+
+    @Test
+    void testPublishesChanges() {
+        final var training = new ObservableTraining(new GlobalLogicTraining("Java Core"));
+        final var events = new ArrayList<TrainingEvent>();
+        training.addListener(events::add);
+        final var jerry = Student.builder("jerry.ferdy@email.com").build();
+
+        Assertions.assertTrue(training.addStudent(jerry));
+        Assertions.assertFalse(training.addStudent(jerry));
+        Assertions.assertTrue(training.rateFirstSemester(jerry, 7));
+        Assertions.assertTrue(training.rate(jerry, 4, 9));
+        Assertions.assertTrue(training.removeStudent(jerry));
+        Assertions.assertFalse(training.rateSecondSemester(jerry, 3));
+
+        Assertions.assertEquals(List.of(TrainingEvent.Type.ENROLLED, TrainingEvent.Type.FIRST_SEMESTER_RATED,
+                        TrainingEvent.Type.FIRST_SEMESTER_RATED, TrainingEvent.Type.SECOND_SEMESTER_RATED,
+                        TrainingEvent.Type.REMOVED),
+                events.stream().map(TrainingEvent::getType).collect(Collectors.toList()));
+        final var removed = events.get(4);
+        Assertions.assertEquals(4, removed.getPreviousFirstSemester());
+        Assertions.assertEquals(9, removed.getPreviousSecondSemester());
+        Assertions.assertFalse(removed.hasGrade());
+        Assertions.assertEquals(-13, removed.getMarkSumDelta());
+    }
+
+    @Test
+    void testViewsMatchReports() {
+        final var trainings = Filler.createTrainings().stream()
+                .map(ObservableTraining::new)
+                .collect(Collectors.toList());
+        final var perStudent = new AverageMarkPerStudentView();
+        final var perTraining = new AverageMarkPerTrainingView();
+        final var trainingsPerStudent = new TrainingsPerStudentView();
+        for (final var training : trainings) {
+            training.addListener(perStudent);
+            training.addListener(perTraining);
+            training.addListener(trainingsPerStudent);
+        }
+        assertViews(trainings, perStudent, perTraining, trainingsPerStudent);
+
+        final var random = new Random(21);
+        final var students = new ArrayList<Student>();
+        for (var i = 0; i < 20; i++) {
+            students.add(Student.builder("student" + i + "@email.com").build());
+        }
+        for (var round = 0; round < 2_000; round++) {
+            final var training = trainings.get(random.nextInt(trainings.size()));
+            final var student = students.get(random.nextInt(students.size()));
+            switch (random.nextInt(5)) {
+                case 0:
+                    training.addStudent(student);
+                    break;
+                case 1:
+                    training.removeStudent(student);
+                    break;
+                case 2:
+                    training.rateFirstSemester(student, random.nextInt(11));
+                    break;
+                case 3:
+                    training.rate(GradeBatch.builder()
+                            .rate(student, Semester.SECOND, random.nextInt(11))
+                            .rate(student, random.nextInt(11), random.nextInt(11))
+                            .build());
+                    break;
+                default:
+                    training.rate(student, random.nextInt(11), random.nextInt(11));
+            }
+            assertViews(trainings, perStudent, perTraining, trainingsPerStudent);
+        }
+    }
+
+    @Test
+    void testRemovedListenerKeepsItsState() {
+        final var training = new ObservableTraining(Filler.createTrainings().get(0));
+        final var view = new AverageMarkPerTrainingView();
+        training.addListener(view);
+        final var before = view.getAverageMarkPerTraining();
+        Assertions.assertTrue(training.removeListener(view));
+        Assertions.assertFalse(training.removeListener(view));
+        training.removeStudent(training.getStudents().get(0));
+        Assertions.assertEquals(before, view.getAverageMarkPerTraining());
+        Assertions.assertTrue(view.getAverageMark("No such training").isEmpty());
+    }
+
+    private static void assertViews(List<ObservableTraining> trainings, AverageMarkPerStudentView perStudent,
+                                    AverageMarkPerTrainingView perTraining,
+                                    TrainingsPerStudentView trainingsPerStudent) {
+        Assertions.assertEquals(TrainingUtils.getAverageMarkPerStudent(stream(trainings)),
+                perStudent.getAverageMarkPerStudent());
+        Assertions.assertEquals(TrainingUtils.getAverageMarkPerTraining(stream(trainings)),
+                perTraining.getAverageMarkPerTraining());
+        Assertions.assertEquals(asSets(TrainingUtils.getTrainingsPerStudent(stream(trainings))),
+                asSets(trainingsPerStudent.getTrainingsPerStudent()));
+    }
+
+    private static Stream<Training> stream(List<ObservableTraining> trainings) {
+        return trainings.stream().map(Training.class::cast);
+    }
+
+    private static Map<String, HashSet<String>> asSets(Map<String, List<String>> trainingsPerStudent) {
+        return trainingsPerStudent.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> new HashSet<>(entry.getValue())));
+    }
+
+}
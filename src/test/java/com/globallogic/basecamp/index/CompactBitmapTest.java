@@ -0,0 +1,72 @@
+package com.globallogic.basecamp.index;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+class CompactBitmapTest {
+
+    @Test
+    void testSparseOperations() {
+        final var bitmap = CompactBitmap.of(5, 1, 3);
+        Assertions.assertArrayEquals(new int[]{1, 3, 5}, bitmap.toArray());
+        Assertions.assertTrue(bitmap.contains(3));
+        Assertions.assertFalse(bitmap.add(3));
+        Assertions.assertTrue(bitmap.remove(3));
+        Assertions.assertFalse(bitmap.contains(3));
+        Assertions.assertEquals(2, bitmap.cardinality());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> bitmap.add(-1));
+    }
+
+    @Test
+    void testMatchesBitSetAcrossLayouts() {
+        final var random = new Random(11);
+        final var expected = new BitSet();
+        final var bitmap = new CompactBitmap();
+        for (var round = 0; round < 20_000; round++) {
+            final var value = random.nextInt(round < 10_000 ? 2_000 : 200);
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(expected.get(value), bitmap.remove(value));
+                expected.clear(value);
+            } else {
+                Assertions.assertEquals(!expected.get(value), bitmap.add(value));
+                expected.set(value);
+            }
+            if (round % 1000 == 0) {
+                Assertions.assertArrayEquals(expected.stream().toArray(), bitmap.toArray());
+            }
+        }
+        Assertions.assertEquals(expected.cardinality(), bitmap.cardinality());
+    }
+
+    @Test
+    void testSetOperations() {
+        final var random = new Random(5);
+        for (final var bound : new int[]{100, 100_000}) {
+            final var a = new CompactBitmap();
+            final var b = new CompactBitmap();
+            final var expectedA = new BitSet();
+            final var expectedB = new BitSet();
+            for (var i = 0; i < 3_000; i++) {
+                final var x = random.nextInt(bound);
+                final var y = random.nextInt(bound);
+                a.add(x);
+                expectedA.set(x);
+                b.add(y);
+                expectedB.set(y);
+            }
+            final var and = (BitSet) expectedA.clone();
+            and.and(expectedB);
+            final var or = (BitSet) expectedA.clone();
+            or.or(expectedB);
+            final var andNot = (BitSet) expectedA.clone();
+            andNot.andNot(expectedB);
+            Assertions.assertArrayEquals(and.stream().toArray(), a.and(b).toArray());
+            Assertions.assertArrayEquals(or.stream().toArray(), a.or(b).toArray());
+            Assertions.assertArrayEquals(andNot.stream().toArray(), a.andNot(b).toArray());
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.globallogic.basecamp.index;
+
+import com.globallogic.basecamp.GlobalLogicTraining;
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.TrainingUtils;
+import com.globallogic.basecamp.data.DatasetGenerator;
+import com.globallogic.basecamp.data.Filler;
+import com.globallogic.basecamp.model.Student;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class StudentQueryTest {
+
+    @Test
+    void testLooksUpFillerStudents() {
+        final var catalog = new TrainingCatalog();
+        final var trainings = Filler.createTrainings().stream().map(catalog::register).collect(Collectors.toList());
+        Assertions.assertEquals(Set.of("jerry.ferdy@email.com", "rob.johnson@email.com"),
+                new HashSet<>(TrainingUtils.getStudentEmailsByCondition(trainings.stream(),
+                        StudentQuery.livesIn("Country1", "City1"))));
+        Assertions.assertEquals(Set.of("amanda.perry@email.com", "danny.perry@email.com"),
+                emails(catalog.getStudents(StudentQuery.lastNameStartsWith("Per"))));
+        Assertions.assertEquals(Set.of("danny.perry@email.com"), emails(catalog.getStudents(
+                StudentQuery.lastNameStartsWith("Per").and(student -> student.getFirstName().startsWith("D")))));
+        final var perryInCountry2 = StudentQuery.lastNameStartsWith("Per").and(StudentQuery.livesIn("Country2"));
+        Assertions.assertEquals(Set.of("amanda.perry@email.com", "danny.perry@email.com"), new HashSet<>(
+                TrainingUtils.getStudentEmailsByCondition(trainings.subList(1, 2).stream(), perryInCountry2)));
+        Assertions.assertEquals(List.of(),
+                TrainingUtils.getStudentEmailsByCondition(trainings.subList(0, 1).stream(), perryInCountry2));
+    }
+
+    @Test
+    void testMatchesScanOnGeneratedStudents() {
+        final var catalog = new TrainingCatalog();
+        final var trainings = DatasetGenerator.builder().setSeed(22).setStudentCount(3_000).setTrainingCount(5)
+                .setStudentsPerTraining(800).build().buildTrainings().stream()
+                .map(catalog::register)
+                .collect(Collectors.toList());
+        final var some = trainings.get(0).getStudents().get(0);
+        final var queries = List.of(
+                StudentQuery.livesIn(some.getAddress().getCountry()),
+                StudentQuery.livesIn(some.getAddress().getCountry(), some.getAddress().getCity()),
+                StudentQuery.lastNameStartsWith(some.getLastName().substring(0, 2)),
+                StudentQuery.phoneNumberStartsWith(some.getPhoneNumber().substring(0, 3)),
+                StudentQuery.startsWith(StudentAttribute.CITY, "City1"),
+                StudentQuery.lastNameStartsWith("M").or(StudentQuery.livesIn(some.getAddress().getCountry())),
+                StudentQuery.livesIn(some.getAddress().getCountry()).and(student -> student.getEmail().contains("1")),
+                StudentQuery.lastNameStartsWith("S").negate(),
+                StudentQuery.equalTo(StudentAttribute.FIRST_NAME, "No such name"));
+        for (final var query : queries) {
+            assertMatchesScan(catalog, trainings, query);
+        }
+
+        final var removed = trainings.get(1);
+        removed.getStudents().forEach(removed::removeStudent);
+        TrainingUtils.removeStudentsIf(trainings.stream(), queries.get(0));
+        Assertions.assertTrue(catalog.getStudents(queries.get(0)).isEmpty());
+        for (final var query : queries) {
+            assertMatchesScan(catalog, trainings, query);
+        }
+    }
+
+    @Test
+    void testChangedStudentsAreTestedWithCurrentValues() {
+        final var catalog = new TrainingCatalog();
+        final var training = catalog.register(new GlobalLogicTraining("Java Core"));
+        final var student = Student.builder("a@e.com").setLastName("Perry").build();
+        training.addStudent(student);
+        student.lastName = "Smith";
+        Assertions.assertEquals(List.of(), TrainingUtils.getStudentEmailsByCondition(Stream.of(training),
+                StudentQuery.lastNameStartsWith("Per")));
+        Assertions.assertEquals(List.of(), TrainingUtils.getStudentEmailsByCondition(Stream.of(training),
+                StudentQuery.lastNameStartsWith("Smi")));
+
+        Assertions.assertTrue(catalog.reindex(student));
+        Assertions.assertEquals(List.of("a@e.com"), TrainingUtils.getStudentEmailsByCondition(Stream.of(training),
+                StudentQuery.lastNameStartsWith("Smi")));
+        Assertions.assertFalse(catalog.reindex(Student.builder("b@e.com").build()));
+
+        final var other = catalog.register(new GlobalLogicTraining("Spring"));
+        other.addStudent(Student.builder("a@e.com").setLastName("Jones").build());
+        Assertions.assertEquals(Set.of("a@e.com"), emails(catalog.getStudents(StudentQuery.lastNameStartsWith("Jo"))));
+        Assertions.assertEquals("Jones", catalog.getStudentsSorted().get(0).getLastName());
+    }
+
+    @Test
+    void testRejectsEmptyFields() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> StudentQuery.livesIn(null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> StudentQuery.lastNameStartsWith(null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> StudentQuery.matching(null));
+    }
+
+    private static void assertMatchesScan(TrainingCatalog catalog, List<Training> trainings, StudentQuery query) {
+        final Predicate<Student> lambda = query::test;
+        final var expected = new HashSet<>(TrainingUtils.getStudentEmailsByCondition(trainings.stream(), lambda));
+        Assertions.assertEquals(expected, emails(catalog.getStudents(query)), query.toString());
+        Assertions.assertEquals(expected,
+                new HashSet<>(TrainingUtils.getStudentEmailsByCondition(trainings.stream(), query)), query.toString());
+        Assertions.assertEquals(expected.size(), catalog.getStudentIds(query).cardinality());
+    }
+
+    private static Set<String> emails(List<Student> students) {
+        return students.stream().map(Student::getEmail).collect(Collectors.toSet());
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.globallogic.basecamp.index;
+
+import com.globallogic.basecamp.GlobalLogicTraining;
+import com.globallogic.basecamp.TrainingUtils;
+import com.globallogic.basecamp.data.DatasetGenerator;
+import com.globallogic.basecamp.data.Filler;
+import com.globallogic.basecamp.model.Student;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+class TrainingCatalogTest {
+
+    @Test
+    void testIndexesRegisteredRosters() {
+        final var catalog = new TrainingCatalog();
+        Filler.createTrainings().forEach(catalog::register);
+        final var amanda = Student.builder("amanda.perry@email.com").build();
+        Assertions.assertTrue(catalog.isPresentOnAnyTraining(amanda));
+        Assertions.assertFalse(catalog.isPresentOnAnyTraining(Student.builder("non.existing@email.com").build()));
+        Assertions.assertEquals(List.of("Java Core", "Java Advanced"), names(catalog, amanda));
+        Assertions.assertEquals(TrainingUtils.getTrainingsPerStudent(catalog.getTrainings().stream()),
+                catalog.getTrainingsPerStudent());
+    }
+
+    @Test
+    void testFollowsEnrolmentChanges() {
+        final var catalog = new TrainingCatalog();
+        final var core = catalog.register(new GlobalLogicTraining("Java Core"));
+        final var advanced = catalog.register(new GlobalLogicTraining("Java Advanced"));
+        final var jerry = Student.builder("jerry.ferdy@email.com").build();
+        Assertions.assertFalse(catalog.isPresent(jerry, core));
+        core.addStudent(jerry);
+        advanced.addStudent(jerry);
+        Assertions.assertTrue(catalog.isPresent(jerry, core));
+        core.removeStudent(jerry);
+        Assertions.assertFalse(catalog.isPresent(jerry, core));
+        Assertions.assertEquals(List.of("Java Advanced"), names(catalog, jerry));
+    }
+
+    @Test
+    void testSetOperationsAcrossTrainings() {
+        final var catalog = new TrainingCatalog();
+        final var trainings = Filler.createTrainings().stream().map(catalog::register).collect(Collectors.toList());
+        final var frameworks = trainings.get(0);
+        final var core = trainings.get(1);
+        final var advanced = trainings.get(2);
+
+        final var coreAndAdvancedOnly = catalog.getStudentIds(List.of(core, advanced), List.of(frameworks));
+        Assertions.assertEquals(List.of("amanda.perry@email.com", "danny.perry@email.com"),
+                emails(catalog, coreAndAdvancedOnly));
+        final var frameworksNotCore = catalog.getStudentIds(List.of(frameworks), List.of(core));
+        Assertions.assertEquals(List.of("rob.johnson@email.com"), emails(catalog, frameworksNotCore));
+    }
+
+    @Test
+    void testRejectsForeignTraining() {
+        final var catalog = new TrainingCatalog();
+        final var jerry = Student.builder("jerry.ferdy@email.com").build();
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> catalog.getStudentIds(new GlobalLogicTraining("Java Core")));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> catalog.isPresent(jerry, new TrainingCatalog().register(new GlobalLogicTraining("Java"))));
+    }
+
+    @Test
+    void testSortedIndex() {
+        final var catalog = new TrainingCatalog();
+        final var trainings = Filler.createTrainings().stream().map(catalog::register).collect(Collectors.toList());
+        Assertions.assertEquals(TrainingUtils.getStudentsSorted(catalog.getTrainings().stream()),
+                catalog.getStudentNamesSorted());
+        Assertions.assertEquals(List.of("jerry.ferdy@email.com", "rob.johnson@email.com"),
+                emails(catalog.getStudentsSorted(2)));
+        Assertions.assertEquals(List.of("amanda.perry@email.com", "danny.perry@email.com"),
+                emails(catalog.getStudentsSortedFrom("Perry", null, 10)));
+        Assertions.assertEquals(List.of("danny.perry@email.com"),
+                emails(catalog.getStudentsSortedFrom("Perry", "B", 10)));
+        Assertions.assertEquals(List.of("amanda.perry@email.com"),
+                emails(catalog.getStudentsSortedAfter(Student.builder("rob.johnson@email.com").build(), 1)));
+
+        final var jerry = Student.builder("jerry.ferdy@email.com").build();
+        trainings.get(0).removeStudent(jerry);
+        Assertions.assertEquals("Jerry Ferdy", catalog.getStudentNamesSorted().get(0));
+        trainings.get(1).removeStudent(jerry);
+        Assertions.assertEquals(List.of("Rob Johnson", "Amanda Perry", "Danny Perry"),
+                catalog.getStudentNamesSorted());
+    }
+
+    @Test
+    void testSortedPagesOfGeneratedRosters() {
+        final var catalog = new TrainingCatalog();
+        DatasetGenerator.builder()
+                .setSeed(18)
+                .setStudentCount(3_000)
+                .setTrainingCount(6)
+                .setStudentsPerTraining(700)
+                .build()
+                .trainings()
+                .forEach(catalog::register);
+        final var expected = TrainingUtils.getStudentsSorted(catalog.getTrainings().stream());
+        Assertions.assertEquals(expected, catalog.getStudentNamesSorted());
+
+        final var pages = new ArrayList<Student>();
+        var page = catalog.getStudentsSorted(250);
+        while (!page.isEmpty()) {
+            pages.addAll(page);
+            page = catalog.getStudentsSortedAfter(page.get(page.size() - 1), 250);
+        }
+        Assertions.assertEquals(expected, pages.stream()
+                .map(student -> student.getFirstName() + " " + student.getLastName())
+                .collect(Collectors.toList()));
+    }
+
+    private static List<String> emails(List<Student> students) {
+        return students.stream().map(Student::getEmail).collect(Collectors.toList());
+    }
+
+    private static List<String> names(TrainingCatalog catalog, Student student) {
+        return catalog.getTrainings(student).stream().map(training -> training.getName())
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> emails(TrainingCatalog catalog, CompactBitmap ids) {
+        return catalog.getStudents(ids).stream().map(Student::getEmail).sorted().collect(Collectors.toList());
+    }
+
+}
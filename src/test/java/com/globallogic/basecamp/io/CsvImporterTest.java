@@ -0,0 +1,140 @@
+package com.globallogic.basecamp.io;
+
+import com.globallogic.basecamp.GlobalLogicTraining;
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.TrainingUtils;
+import com.globallogic.basecamp.data.DatasetGenerator;
+import com.globallogic.basecamp.model.Student;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+class CsvImporterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testImport() throws IOException {
+        final var path = directory.resolve("roster.csv");
+        Files.writeString(path, String.join(",", CsvImporter.COLUMNS) + "\r\n"
+                + "Java Core,jerry.ferdy@email.com,Jerry,Ferdy,000-000-00-00,Country1,City1,Street1,1,8,5\r\n"
+                + "Java Core,amanda.boyle@email.com,Amanda,\"Boyle, \"\"Jr\"\"\",,,\"Multi\nline\",,,10,\r\n"
+                + "\r\n"
+                + "Java Core,danny.doe@email.com,Danny,Doe,,,,,,11,6\n"
+                + "Java Core,,No,Email,,,,,,1,1\n"
+                + "Java Core,rob.johnson@email.com,Rob,Johnson,,,,,x1,1,1\n"
+                + "Java Core,rob.johnson@email.com,Rob,Johnson\n"
+                + "Java Basics,rob.johnson@email.com,Rob,Johnson,,,,,,1,1\n"
+                + "Java Core,jerry.ferdy@email.com,,,,,,,,,9");
+        final var core = new GlobalLogicTraining("Java Core");
+
+        final var stats = CsvImporter.builder()
+                .setBatchSize(2)
+                .build()
+                .importFile(path, name -> name.equals("Java Core") ? core : null);
+
+        Assertions.assertEquals(8, stats.getRowCount());
+        Assertions.assertEquals(2, stats.getEnrolledCount());
+        Assertions.assertEquals(4, stats.getGradedCount());
+        Assertions.assertEquals(5, stats.getRejectedCount());
+        Assertions.assertEquals(6, stats.getFirstRejectedLine().orElseThrow());
+        Assertions.assertEquals(Files.size(path), stats.getBytes());
+
+        final var jerry = Student.builder("jerry.ferdy@email.com").build();
+        final var amanda = Student.builder("amanda.boyle@email.com").build();
+        Assertions.assertEquals(2, core.getStudents().size());
+        Assertions.assertEquals(8, core.getStudentGrade(jerry).orElseThrow().getFirstSemester());
+        Assertions.assertEquals(9, core.getStudentGrade(jerry).orElseThrow().getSecondSemester());
+        Assertions.assertEquals(10, core.getStudentGrade(amanda).orElseThrow().getFirstSemester());
+        Assertions.assertEquals(0, core.getStudentGrade(amanda).orElseThrow().getSecondSemester());
+
+        final var students = new HashMap<String, Student>();
+        core.getStudents().forEach(student -> students.put(student.getEmail(), student));
+        Assertions.assertEquals("Boyle, \"Jr\"", students.get("amanda.boyle@email.com").getLastName());
+        Assertions.assertNull(students.get("amanda.boyle@email.com").getPhoneNumber());
+        Assertions.assertEquals("Multi\nline", students.get("amanda.boyle@email.com").getAddress().getCity());
+        Assertions.assertNull(students.get("amanda.boyle@email.com").getAddress().getHouseNumber());
+        Assertions.assertEquals(1, students.get("jerry.ferdy@email.com").getAddress().getHouseNumber());
+        Assertions.assertEquals("Street1", students.get("jerry.ferdy@email.com").getAddress().getStreet());
+    }
+
+    @Test
+    void testRowsBeforeTooLongRowAreImported() throws IOException {
+        final var path = directory.resolve("unterminated.csv");
+        Files.writeString(path, "Java Core,jerry.ferdy@email.com,Jerry,Ferdy,,,,,,8,5\n"
+                + "Java Core,amanda.boyle@email.com,\"" + "x".repeat(1 << 20));
+        final var core = new GlobalLogicTraining("Java Core");
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CsvImporter.builder()
+                .setHeader(false)
+                .build()
+                .importFile(path, name -> core));
+
+        final var jerry = Student.builder("jerry.ferdy@email.com").build();
+        Assertions.assertEquals(List.of(jerry), core.getStudents());
+        Assertions.assertEquals(8, core.getStudentGrade(jerry).orElseThrow().getFirstSemester());
+    }
+
+    @Test
+    void testImportGeneratedRosters() throws IOException {
+        final var generator = DatasetGenerator.builder()
+                .setSeed(15)
+                .setStudentCount(2_000)
+                .setTrainingCount(5)
+                .setStudentsPerTraining(600)
+                .build();
+        final var original = generator.buildTrainings();
+        final var path = directory.resolve("generated.csv");
+        try (var writer = Files.newBufferedWriter(path)) {
+            writer.write(String.join(",", CsvImporter.COLUMNS));
+            writer.newLine();
+            for (var training : original) {
+                for (var student : training.getStudents()) {
+                    final var grade = training.getStudentGrade(student).orElseThrow();
+                    final var address = student.getAddress();
+                    writer.write(String.join(",", training.getName(), student.getEmail(),
+                            text(student.getFirstName()), text(student.getLastName()),
+                            text(student.getPhoneNumber()),
+                            address == null ? "" : text(address.getCountry()),
+                            address == null ? "" : text(address.getCity()),
+                            address == null ? "" : text(address.getStreet()),
+                            address == null ? "" : text(address.getHouseNumber()),
+                            String.valueOf(grade.getFirstSemester()), String.valueOf(grade.getSecondSemester())));
+                    writer.newLine();
+                }
+            }
+        }
+        final Map<String, Training> imported = new HashMap<>();
+        final var stats = CsvImporter.builder()
+                .setBufferSize(7)
+                .setBatchSize(100)
+                .build()
+                .importFile(path, name -> imported.computeIfAbsent(name, GlobalLogicTraining::new));
+
+        final long rows = original.stream().mapToInt(training -> training.getStudents().size()).sum();
+        Assertions.assertEquals(rows, stats.getRowCount());
+        Assertions.assertEquals(rows, stats.getEnrolledCount());
+        Assertions.assertEquals(rows * 2, stats.getGradedCount());
+        Assertions.assertTrue(stats.getFirstRejectedLine().isEmpty());
+        final List<Training> originalTrainings = new ArrayList<>(original);
+        Assertions.assertEquals(TrainingUtils.getAverageMarkPerStudent(originalTrainings.stream()),
+                TrainingUtils.getAverageMarkPerStudent(imported.values().stream()));
+        Assertions.assertEquals(TrainingUtils.getStudentsSorted(originalTrainings.stream()),
+                TrainingUtils.getStudentsSorted(imported.values().stream()));
+    }
+
+    private static String text(Object value) {
+        return Objects.toString(value, "");
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.globallogic.basecamp.io;
+
+import com.globallogic.basecamp.GlobalLogicTraining;
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.TrainingUtils;
+import com.globallogic.basecamp.aggregation.ReportSink;
+import com.globallogic.basecamp.aggregation.TrainingAggregator;
+import com.globallogic.basecamp.data.Filler;
+import com.globallogic.basecamp.model.Student;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class ReportWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testCsvMatchesResultMaps() throws IOException {
+        final var trainings = Filler.createTrainings();
+        final var path = directory.resolve("report.csv");
+        try (var writer = ReportWriter.csv(path)) {
+            TrainingAggregator.builder().withAll(5).build().export(trainings.stream(), writer);
+        }
+        final var lines = Files.readAllLines(path);
+        Assertions.assertEquals("report,key,value", lines.get(0));
+
+        final var averages = new HashMap<String, Double>();
+        final var trainingsPerStudent = new HashMap<String, List<String>>();
+        final Set<String> lowerThan = new HashSet<>();
+        for (var line : lines.subList(1, lines.size())) {
+            final var fields = line.split(",", -1);
+            Assertions.assertEquals(3, fields.length);
+            switch (fields[0]) {
+                case "averageMarkPerStudent":
+                    averages.put(fields[1], Double.parseDouble(fields[2]));
+                    break;
+                case "trainingsPerStudent":
+                    trainingsPerStudent.computeIfAbsent(fields[1], key -> new ArrayList<>()).add(fields[2]);
+                    break;
+                case "studentsWithMarkLowerThan":
+                    lowerThan.add(fields[1]);
+                    break;
+                default:
+            }
+        }
+        final var stream = new ArrayList<Training>(trainings);
+        Assertions.assertEquals(TrainingUtils.getAverageMarkPerStudent(stream.stream()), averages);
+        Assertions.assertEquals(TrainingUtils.getTrainingsPerStudent(stream.stream()), trainingsPerStudent);
+        Assertions.assertEquals(new HashSet<>(TrainingUtils.getStudentsWithMarkLowerThan(stream.stream(), 5)),
+                lowerThan);
+        Assertions.assertTrue(lines.contains("averageMarkPerTraining,Java Advanced,7.666666666666667"));
+        Assertions.assertTrue(lines.contains("studentsWithMaxMark,amanda.perry@email.com,"));
+    }
+
+    @Test
+    void testEscaping() throws IOException {
+        // Cyrillic text and an emoji outside the BMP, escaped to keep the source ASCII
+        final var training = new GlobalLogicTraining("Java \"Core\", \u0447\u0430\u0441\u0442\u044c\n\ud83d\ude00");
+        final var student = Student.builder("jerry.ferdy@email.com").build();
+        training.addStudent(student);
+        training.rateFirstSemester(student, 8);
+        training.rateSecondSemester(student, 5);
+        final var aggregator = TrainingAggregator.builder().withTrainingsPerStudent().build();
+
+        final var csv = directory.resolve("report.csv");
+        try (var writer = ReportWriter.csv(csv)) {
+            aggregator.export(List.of(training).stream(), writer);
+        }
+        Assertions.assertEquals("report,key,value\n"
+                        + "trainingsPerStudent,jerry.ferdy@email.com,"
+                        + "\"Java \"\"Core\"\", \u0447\u0430\u0441\u0442\u044c\n\ud83d\ude00\"\n",
+                Files.readString(csv, StandardCharsets.UTF_8));
+
+        final var json = directory.resolve("report.jsonl");
+        try (var writer = ReportWriter.jsonLines(json)) {
+            aggregator.export(List.of(training).stream(), writer);
+        }
+        Assertions.assertEquals("{\"report\":\"trainingsPerStudent\",\"email\":\"jerry.ferdy@email.com\","
+                        + "\"trainings\":[\"Java \\\"Core\\\", \u0447\u0430\u0441\u0442\u044c\\n\ud83d\ude00\"]}\n",
+                Files.readString(json, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testLargeReportSpansBuffers() throws IOException {
+        final var training = new GlobalLogicTraining("Java Core");
+        for (var i = 0; i < 20_000; i++) {
+            final var student = Student.builder("student" + i + "@email.com").build();
+            training.addStudent(student);
+            training.rateFirstSemester(student, i % 11);
+            training.rateSecondSemester(student, 10 - i % 11);
+        }
+        final var path = directory.resolve("averages.jsonl");
+        try (var writer = ReportWriter.jsonLines(path)) {
+            TrainingUtils.writeAverageMarkPerStudent(List.<Training>of(training).stream(), writer);
+        }
+        final var lines = Files.readAllLines(path);
+        Assertions.assertEquals(20_000, lines.size());
+        Assertions.assertTrue(lines.contains(
+                "{\"report\":\"averageMarkPerStudent\",\"email\":\"student42@email.com\",\"average\":5.0}"));
+
+        final Map<String, Double> averages = new HashMap<>();
+        TrainingUtils.writeAverageMarkPerStudent(List.<Training>of(training).stream(), new ReportSink() {
+            @Override
+            public void averageMarkPerStudent(String email, double average) {
+                averages.put(email, average);
+            }
+        });
+        Assertions.assertEquals(TrainingUtils.getAverageMarkPerStudent(List.<Training>of(training).stream()),
+                averages);
+    }
+
+}
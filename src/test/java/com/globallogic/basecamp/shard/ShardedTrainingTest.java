@@ -0,0 +1,218 @@
+package com.globallogic.basecamp.shard;
+
+import com.globallogic.basecamp.GlobalLogicTraining;
+import com.globallogic.basecamp.GradeIterable;
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.TrainingUtils;
+import com.globallogic.basecamp.aggregation.TrainingAggregator;
+import com.globallogic.basecamp.batch.BulkTraining;
+import com.globallogic.basecamp.batch.GradeBatch;
+import com.globallogic.basecamp.event.ObservableTraining;
+import com.globallogic.basecamp.event.TrainingsPerStudentView;
+import com.globallogic.basecamp.model.Semester;
+import com.globallogic.basecamp.model.Student;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class ShardedTrainingTest {
+
+    @Test
+    void testBuildWithWrongArguments() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ShardedTraining.builder(" "));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ShardedTraining.builder(null));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ShardedTraining.builder("Java Core").setShardCount(0));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ShardedTraining.builder("Java Core").setShardFactory(null));
+    }
+
+    @Test
+    void testSingleStudentContract() {
+        final var training = ShardedTraining.builder("Java Core").setShardCount(4).build();
+        final var student = Student.builder("jerry.ferdy@email.com").build();
+        Assertions.assertFalse(training.rateFirstSemester(student, 5));
+        Assertions.assertTrue(training.addStudent(student));
+        Assertions.assertFalse(training.addStudent(student));
+        Assertions.assertTrue(training.rateFirstSemester(student, 10));
+        Assertions.assertTrue(training.rateSecondSemester(student, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> training.rateFirstSemester(student, 11));
+
+        final var grade = training.getStudentGrade(student).orElseThrow();
+        Assertions.assertEquals(10, grade.getFirstSemester());
+        Assertions.assertEquals(0, grade.getSecondSemester());
+        grade.setFirstSemester(1);
+        Assertions.assertEquals(1, training.getStudentGrade(student).orElseThrow().getFirstSemester());
+        Assertions.assertTrue(training.removeStudent(student));
+        Assertions.assertFalse(training.isPresent(student));
+    }
+
+    @Test
+    void testStudentsAreSpreadOverShards() {
+        final var training = ShardedTraining.builder("Java Core").setShardCount(8).build();
+        final var students = students(1_000);
+        Assertions.assertEquals(1_000, training.addStudents(students).getAppliedCount());
+        Assertions.assertEquals(new HashSet<>(students), new HashSet<>(training.getStudents()));
+
+        final var owners = new HashMap<Student, Integer>();
+        final var partitions = training.getPartitions();
+        Assertions.assertEquals(8, partitions.size());
+        for (var i = 0; i < partitions.size(); i++) {
+            final var partition = partitions.get(i);
+            Assertions.assertEquals("Java Core", partition.getName());
+            Assertions.assertTrue(partition.getStudents().size() > 50, () -> "unbalanced shard " + partition);
+            for (final var student : partition.getStudents()) {
+                Assertions.assertNull(owners.put(student, i));
+            }
+        }
+        Assertions.assertEquals(1_000, owners.size());
+    }
+
+    @Test
+    void testMatchesPlainTraining() {
+        final var random = new Random(42);
+        final var students = students(300);
+        final var expected = new GlobalLogicTraining("Java Core");
+        final var actual = ShardedTraining.builder("Java Core").setShardCount(5).build();
+        for (var step = 0; step < 5_000; step++) {
+            final var student = students.get(random.nextInt(students.size()));
+            final var mark = random.nextInt(11);
+            switch (random.nextInt(5)) {
+                case 0:
+                    Assertions.assertEquals(expected.addStudent(student), actual.addStudent(student));
+                    break;
+                case 1:
+                    Assertions.assertEquals(expected.removeStudent(student), actual.removeStudent(student));
+                    break;
+                case 2:
+                    Assertions.assertEquals(expected.rateFirstSemester(student, mark),
+                            actual.rateFirstSemester(student, mark));
+                    break;
+                case 3:
+                    Assertions.assertEquals(expected.rateSecondSemester(student, mark),
+                            actual.rateSecondSemester(student, mark));
+                    break;
+                default:
+                    final var batch = GradeBatch.builder();
+                    for (var i = 0; i < 10; i++) {
+                        batch.rate(students.get(random.nextInt(students.size())),
+                                random.nextBoolean() ? Semester.FIRST : Semester.SECOND, random.nextInt(11));
+                    }
+                    final var records = batch.build();
+                    Assertions.assertEquals(BulkTraining.rate(expected, records).toString(),
+                            actual.rate(records).toString());
+            }
+        }
+        Assertions.assertEquals(BulkTraining.addStudents(expected, students).toString(),
+                actual.addStudents(students).toString());
+        Assertions.assertEquals(grades(expected), grades(actual));
+        Assertions.assertEquals(BulkTraining.removeStudentsIf(expected, s -> s.getEmail().contains("7")),
+                actual.removeStudentsIf(s -> s.getEmail().contains("7")));
+        Assertions.assertEquals(grades(expected), grades(actual));
+    }
+
+    @Test
+    void testScatterGatherAggregation() {
+        final var random = new Random(7);
+        final var plain = new GlobalLogicTraining("Java Core");
+        final var sharded = ShardedTraining.builder("Java Core").setShardCount(6).build();
+        for (final var student : students(2_000)) {
+            plain.addStudent(student);
+            sharded.addStudent(student);
+            if (random.nextInt(4) > 0) {
+                final var first = random.nextInt(11);
+                final var second = random.nextInt(11);
+                BulkTraining.rate(plain, student, first, second);
+                sharded.rate(student, first, second);
+            }
+        }
+        final List<Training> expected = List.of(plain);
+        final var result = TrainingAggregator.builder().withAll(4).setChunkSize(64).build()
+                .aggregateParallel(List.of(sharded));
+        Assertions.assertEquals(TrainingUtils.getAverageMarkPerTraining(expected.stream()),
+                result.getAverageMarkPerTraining());
+        Assertions.assertEquals(TrainingUtils.getTrainingsPerStudent(expected.stream()),
+                result.getTrainingsPerStudent());
+        final var averages = TrainingUtils.getAverageMarkPerStudent(expected.stream());
+        Assertions.assertEquals(averages.keySet(), result.getAverageMarkPerStudent().keySet());
+        averages.forEach((email, average) ->
+                Assertions.assertEquals(average, result.getAverageMarkPerStudent().get(email), 1e-9));
+        Assertions.assertEquals(new HashSet<>(TrainingUtils.getStudentsWithMaxMark(expected.stream())),
+                new HashSet<>(result.getStudentsWithMaxMark()));
+        Assertions.assertEquals(new HashSet<>(TrainingUtils.getStudentsWithMarkLowerThan(expected.stream(), 4)),
+                new HashSet<>(result.getStudentsWithMarkLowerThan()));
+    }
+
+    @Test
+    void testConcurrentEnrolment() throws Exception {
+        final var training = ShardedTraining.builder("Java Core").setShardCount(4).build();
+        final var students = students(8_000);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final var futures = new ArrayList<Future<Integer>>();
+            for (var thread = 0; thread < 8; thread++) {
+                // every student is enrolled by two threads, only one of them may succeed
+                final var from = thread / 2 * 2_000;
+                futures.add(executor.submit(() -> (int) students.subList(from, from + 2_000).stream()
+                        .filter(training::addStudent)
+                        .count()));
+            }
+            var added = 0;
+            for (final var future : futures) {
+                added += future.get(30, TimeUnit.SECONDS);
+            }
+            Assertions.assertEquals(8_000, added);
+            Assertions.assertEquals(8_000, training.getStudents().size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testObservedRemovalPublishesEveryEvent() {
+        final var training = new ObservableTraining(ShardedTraining.builder("Java Core").setShardCount(8).build());
+        final var view = new TrainingsPerStudentView();
+        training.addListener(view);
+        final var students = students(20_000);
+        Assertions.assertEquals(20_000, training.addStudents(students).getAppliedCount());
+        Assertions.assertEquals(20_000, view.getTrainingsPerStudent().size());
+
+        final var running = new AtomicInteger();
+        final var maxRunning = new AtomicInteger();
+        Assertions.assertEquals(20_000, training.removeStudentsIf(student -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.yield();
+            running.decrementAndGet();
+            return true;
+        }));
+        Assertions.assertEquals(1, maxRunning.get());
+        Assertions.assertEquals(Map.of(), view.getTrainingsPerStudent());
+    }
+
+    private static List<Student> students(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> Student.builder("student" + i + "@email.com").build())
+                .collect(Collectors.toList());
+    }
+
+    private static Map<String, String> grades(Training training) {
+        final var grades = new HashMap<String, String>();
+        GradeIterable.forEachMark(training, (student, first, second) ->
+                grades.put(student.getEmail(), first + "/" + second));
+        return grades;
+    }
+
+}
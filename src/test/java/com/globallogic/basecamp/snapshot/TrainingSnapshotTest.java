@@ -0,0 +1,98 @@
+package com.globallogic.basecamp.snapshot;
+
+import com.globallogic.basecamp.GlobalLogicTraining;
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.TrainingUtils;
+import com.globallogic.basecamp.data.DatasetGenerator;
+import com.globallogic.basecamp.data.Filler;
+import com.globallogic.basecamp.model.Student;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+class TrainingSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRoundTrip() throws IOException {
+        final var trainings = Filler.createTrainings();
+        final var path = directory.resolve("trainings.snapshot");
+        SnapshotWriter.write(path, trainings);
+        final var snapshot = TrainingSnapshot.open(path);
+        final var mapped = snapshot.getTrainings();
+
+        Assertions.assertEquals(4, snapshot.getStudentCount());
+        Assertions.assertEquals(List.of("Java Frameworks", "Java Core", "Java Advanced"),
+                mapped.stream().map(Training::getName).collect(Collectors.toList()));
+        Assertions.assertEquals(TrainingUtils.getAverageMarkPerStudent(trainings.stream()),
+                TrainingUtils.getAverageMarkPerStudent(mapped.stream()));
+        Assertions.assertEquals(TrainingUtils.getTrainingsPerStudent(trainings.stream()),
+                TrainingUtils.getTrainingsPerStudent(mapped.stream()));
+        Assertions.assertEquals(TrainingUtils.getStudentsSorted(trainings.stream()),
+                TrainingUtils.getStudentsSorted(mapped.stream()));
+
+        final var jerry = snapshot.getStudent(snapshot.idOf("jerry.ferdy@email.com"));
+        Assertions.assertEquals("Ferdy", jerry.getLastName());
+        Assertions.assertEquals("000-000-00-00", jerry.getPhoneNumber());
+        Assertions.assertEquals("City1", jerry.getAddress().getCity());
+        Assertions.assertEquals(1, jerry.getAddress().getHouseNumber());
+        Assertions.assertSame(jerry, snapshot.getStudent(snapshot.idOf("jerry.ferdy@email.com")));
+
+        final var core = mapped.get(1);
+        Assertions.assertTrue(core.isPresent(Student.builder("jerry.ferdy@email.com").build()));
+        Assertions.assertFalse(core.isPresent(Student.builder("rob.johnson@email.com").build()));
+        Assertions.assertFalse(core.isPresent(Student.builder("non.existing@email.com").build()));
+        Assertions.assertEquals(5, core.getStudentGrade(jerry).orElseThrow().getSecondSemester());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> core.addStudent(jerry));
+    }
+
+    @Test
+    void testMaterializeLargeDataset() throws IOException {
+        final var trainings = DatasetGenerator.builder()
+                .setSeed(13)
+                .setStudentCount(20_000)
+                .setTrainingCount(12)
+                .setStudentsPerTraining(3_000)
+                .build()
+                .buildTrainings();
+        final var path = directory.resolve("large.snapshot");
+        SnapshotWriter.write(path, trainings);
+        final var snapshot = TrainingSnapshot.open(path);
+        final List<Training> materialized = new ArrayList<>(snapshot.materialize());
+        final List<Training> original = new ArrayList<>(trainings);
+
+        Assertions.assertEquals(TrainingUtils.getAverageMarkPerTraining(original.stream()),
+                TrainingUtils.getAverageMarkPerTraining(snapshot.getTrainings().stream()));
+        Assertions.assertEquals(TrainingUtils.getAverageMarkPerStudent(original.stream()),
+                TrainingUtils.getAverageMarkPerStudent(materialized.stream()));
+        Assertions.assertEquals(TrainingUtils.getStudentsWithMarkLowerThan(original.stream(), 3).size(),
+                TrainingUtils.getStudentsWithMarkLowerThan(materialized.stream(), 3).size());
+        for (var i = 0; i < trainings.size(); i++) {
+            Assertions.assertEquals(trainings.get(i).getStudents().size(),
+                    snapshot.getTrainings().get(i).getStudents().size());
+        }
+    }
+
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        final var path = directory.resolve("broken.snapshot");
+        SnapshotWriter.write(path, List.of(new GlobalLogicTraining("Java Core")));
+        Assertions.assertEquals(0, TrainingSnapshot.open(path).getTrainings().get(0).getStudents().size());
+        final var bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> TrainingSnapshot.open(path));
+        Files.writeString(path, "student,email");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> TrainingSnapshot.open(path));
+    }
+
+}
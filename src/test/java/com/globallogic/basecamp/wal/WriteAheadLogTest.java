@@ -0,0 +1,213 @@
+package com.globallogic.basecamp.wal;
+
+import com.globallogic.basecamp.GlobalLogicTraining;
+import com.globallogic.basecamp.Training;
+import com.globallogic.basecamp.TrainingUtils;
+import com.globallogic.basecamp.data.Filler;
+import com.globallogic.basecamp.model.Student;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class WriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testReplayRestoresTrainings() throws IOException {
+        final var path = directory.resolve("trainings.wal");
+        final var trainings = Filler.createTrainings();
+        try (var log = WriteAheadLog.builder(path).build()) {
+            final var durable = new ArrayList<Training>();
+            for (var training : trainings) {
+                final var copy = new DurableTraining(new GlobalLogicTraining(training.getName()), log);
+                for (var student : training.getStudents()) {
+                    final var grade = training.getStudentGrade(student).orElseThrow();
+                    copy.addStudent(student);
+                    copy.rateFirstSemester(student, grade.getFirstSemester());
+                    copy.rateSecondSemester(student, grade.getSecondSemester());
+                }
+                durable.add(copy);
+            }
+            final var jerry = trainings.get(0).getStudents().get(0);
+            Assertions.assertFalse(durable.get(0).addStudent(jerry));
+            Assertions.assertFalse(durable.get(0).rateFirstSemester(Student.builder("nobody@email.com").build(), 1));
+        }
+
+        final var restored = new HashMap<String, Training>();
+        trainings.forEach(training -> restored.put(training.getName(), new GlobalLogicTraining(training.getName())));
+        Assertions.assertEquals(24, WriteAheadLog.replay(path, restored::get));
+        final List<Training> replayed = new ArrayList<>();
+        trainings.forEach(training -> replayed.add(restored.get(training.getName())));
+
+        Assertions.assertEquals(TrainingUtils.getAverageMarkPerStudent(trainings.stream()),
+                TrainingUtils.getAverageMarkPerStudent(replayed.stream()));
+        Assertions.assertEquals(TrainingUtils.getTrainingsPerStudent(trainings.stream()),
+                TrainingUtils.getTrainingsPerStudent(replayed.stream()));
+        final var jerry = restored.get("Java Core").getStudents().stream()
+                .filter(student -> student.getEmail().equals("jerry.ferdy@email.com"))
+                .findFirst()
+                .orElseThrow();
+        Assertions.assertEquals("City1", jerry.getAddress().getCity());
+    }
+
+    @Test
+    void testConcurrentWritersShareCommits() throws Exception {
+        final var path = directory.resolve("concurrent.wal");
+        final var threads = 8;
+        final var studentsPerThread = 200;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (var log = WriteAheadLog.builder(path).setFsyncPolicy(FsyncPolicy.ALWAYS).build()) {
+            final var training = new DurableTraining(new GlobalLogicTraining("Java Core"), log);
+            final var start = new CountDownLatch(1);
+            final var futures = new ArrayList<Future<?>>();
+            for (var thread = 0; thread < threads; thread++) {
+                final var offset = thread * studentsPerThread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (var i = offset; i < offset + studentsPerThread; i++) {
+                        final var student = Student.builder("student" + i + "@email.com").build();
+                        training.addStudent(student);
+                        training.rate(student, i % 11, (i + 1) % 11);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var future : futures) {
+                future.get();
+            }
+            // every thread waited for 2 * studentsPerThread changes, each forced on its own without grouping
+            final var awaited = threads * studentsPerThread * 2L;
+            Assertions.assertTrue(log.getSyncs() < awaited, () -> log.getSyncs() + " forces");
+            Assertions.assertEquals(log.getGroupCommits(), log.getSyncs());
+        } finally {
+            executor.shutdown();
+        }
+
+        final var restored = new GlobalLogicTraining("Java Core");
+        Assertions.assertEquals(threads * studentsPerThread * 3L, WriteAheadLog.replay(path, name -> restored));
+        Assertions.assertEquals(threads * studentsPerThread, restored.getStudents().size());
+        final var student = Student.builder("student42@email.com").build();
+        Assertions.assertEquals(9, restored.getStudentGrade(student).orElseThrow().getFirstSemester());
+        Assertions.assertEquals(10, restored.getStudentGrade(student).orElseThrow().getSecondSemester());
+    }
+
+    @Test
+    void testTornTailIsCutOff() throws IOException {
+        final var path = directory.resolve("torn.wal");
+        final var student = Student.builder("jerry.ferdy@email.com").build();
+        try (var log = WriteAheadLog.builder(path).setFsyncPolicy(FsyncPolicy.NEVER).build()) {
+            final var training = new DurableTraining(new GlobalLogicTraining("Java Core"), log);
+            training.addStudent(student);
+            training.rateFirstSemester(student, 7);
+        }
+        final var bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+
+        final var restored = new GlobalLogicTraining("Java Core");
+        Assertions.assertEquals(1, WriteAheadLog.replay(path, name -> restored));
+        Assertions.assertEquals(0, restored.getStudentGrade(student).orElseThrow().getFirstSemester());
+
+        try (var log = WriteAheadLog.builder(path).setFsyncPolicy(FsyncPolicy.INTERVAL).build()) {
+            new DurableTraining(restored, log).rateSecondSemester(student, 4);
+        }
+        final var reopened = new GlobalLogicTraining("Java Core");
+        Assertions.assertEquals(2, WriteAheadLog.replay(path, name -> reopened));
+        Assertions.assertEquals(4, reopened.getStudentGrade(student).orElseThrow().getSecondSemester());
+        Assertions.assertEquals(2, WriteAheadLog.replay(path, name -> null));
+    }
+
+    @Test
+    void testZeroFilledTailIsCutOff() throws IOException {
+        final var path = directory.resolve("zeroed.wal");
+        final var student = Student.builder("jerry.ferdy@email.com").build();
+        try (var log = WriteAheadLog.builder(path).setFsyncPolicy(FsyncPolicy.NEVER).build()) {
+            new DurableTraining(new GlobalLogicTraining("Java Core"), log).addStudent(student);
+        }
+        final var length = Files.size(path);
+        Files.write(path, new byte[4096], StandardOpenOption.APPEND);
+
+        final var restored = new GlobalLogicTraining("Java Core");
+        Assertions.assertEquals(1, WriteAheadLog.replay(path, name -> restored));
+        Assertions.assertTrue(restored.isPresent(student));
+
+        try (var log = WriteAheadLog.builder(path).build()) {
+            Assertions.assertEquals(length, Files.size(path));
+            new DurableTraining(restored, log).rateFirstSemester(student, 9);
+        }
+        final var reopened = new GlobalLogicTraining("Java Core");
+        Assertions.assertEquals(2, WriteAheadLog.replay(path, name -> reopened));
+        Assertions.assertEquals(9, reopened.getStudentGrade(student).orElseThrow().getFirstSemester());
+    }
+
+    @Test
+    void testChangeRefusedByLogIsNotApplied() throws IOException {
+        final var path = directory.resolve("closed.wal");
+        final var student = Student.builder("jerry.ferdy@email.com").build();
+        final var training = new GlobalLogicTraining("Java Core");
+        final var log = WriteAheadLog.builder(path).build();
+        final var durable = new DurableTraining(training, log);
+        durable.addStudent(student);
+        log.close();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> durable.rateFirstSemester(student, 7));
+        Assertions.assertThrows(IllegalStateException.class, () -> durable.removeStudent(student));
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> durable.addStudent(Student.builder("amanda.perry@email.com").build()));
+        Assertions.assertEquals(List.of(student), training.getStudents());
+        Assertions.assertEquals(0, training.getStudentGrade(student).orElseThrow().getFirstSemester());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> durable.rateFirstSemester(student, 11));
+    }
+
+    @Test
+    void testIntervalPolicyForcesIdleTail() throws Exception {
+        final var path = directory.resolve("interval.wal");
+        try (var log = WriteAheadLog.builder(path)
+                .setFsyncPolicy(FsyncPolicy.INTERVAL)
+                .setSyncInterval(Duration.ofMillis(20))
+                .build()) {
+            final var training = new DurableTraining(new GlobalLogicTraining("Java Core"), log);
+            training.addStudent(Student.builder("jerry.ferdy@email.com").build());
+            final var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (log.getSyncs() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            Assertions.assertEquals(1, log.getSyncs());
+        }
+    }
+
+    @Test
+    void testResetCommitsPendingRecordsBeforeDiscarding() throws IOException {
+        final var path = directory.resolve("reset.wal");
+        final var student = Student.builder("jerry.ferdy@email.com").build();
+        try (var log = WriteAheadLog.builder(path).setFsyncPolicy(FsyncPolicy.NEVER).build()) {
+            final var sequence = log.append(LogRecord.addStudent("Java Core", student));
+            log.reset();
+            Assertions.assertEquals(1, log.getGroupCommits());
+            log.await(sequence);
+            Assertions.assertEquals(0, Files.size(path));
+            log.write(LogRecord.rateFirstSemester("Java Core", student, 5));
+        }
+        final var restored = new GlobalLogicTraining("Java Core");
+        restored.addStudent(student);
+        Assertions.assertEquals(1, WriteAheadLog.replay(path, name -> restored));
+        Assertions.assertEquals(5, restored.getStudentGrade(student).orElseThrow().getFirstSemester());
+    }
+
+}